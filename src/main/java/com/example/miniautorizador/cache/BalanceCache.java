@@ -0,0 +1,128 @@
+package com.example.miniautorizador.cache;
+
+import com.example.miniautorizador.event.CartaoCriadoEvent;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.function.Function;
+
+/**
+ * Cache de leitura dos saldos consultados em {@code GET /cartoes/{numeroCartao}}, em centavos.
+ *
+ * Cada débito aprovado atualiza a entrada do cartão após o commit, então as consultas no mesmo nó
+ * nunca veem um saldo anterior ao último débito. Como os saldos só diminuem por débitos, a
+ * atualização mantém o menor valor: commits concorrentes do mesmo cartão podem notificar fora de
+ * ordem, mas o menor saldo é sempre o mais recente. O carregamento e a atualização de um cartão
+ * são atômicos no Caffeine, de modo que uma leitura em andamento não sobrescreve o débito.
+ *
+ * O tempo de vida limita a defasagem em relação a débitos feitos em outros nós.
+ */
+@Component
+public class BalanceCache {
+
+    static final String CACHE_NAME = "saldo";
+
+    private final boolean habilitado;
+    private final Cache<String, Long> cache;
+
+    @Autowired
+    public BalanceCache(@Value("${cartao.saldo.cache.habilitado:true}") boolean habilitado,
+                        @Value("${cartao.saldo.cache.tamanho-maximo:100000}") long tamanhoMaximo,
+                        @Value("${cartao.saldo.cache.ttl-segundos:30}") long ttlSegundos,
+                        MeterRegistry meterRegistry) {
+        this.habilitado = habilitado;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(tamanhoMaximo)
+                .expireAfterWrite(Duration.ofSeconds(ttlSegundos))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+    /**
+     * Retorna o saldo do cartão, carregando-o na primeira consulta.
+     *
+     * @param numeroCartao O número do cartão
+     * @param carregar Carrega o saldo em centavos, ou null se o cartão não existir
+     * @return O saldo em centavos, ou null se o cartão não existir (cartões inexistentes não são armazenados)
+     */
+    public Long buscar(String numeroCartao, Function<String, Long> carregar) {
+        if (!habilitado) {
+            return carregar.apply(numeroCartao);
+        }
+        return cache.get(numeroCartao, carregar);
+    }
+
+    /**
+     * Consulta sem carregamento, para quem lê o saldo de forma não bloqueante.
+     *
+     * @return O saldo em centavos, ou null se o cartão não estiver no cache (ou o cache estiver desabilitado)
+     */
+    public Long buscarSePresente(String numeroCartao) {
+        return habilitado ? cache.getIfPresent(numeroCartao) : null;
+    }
+
+    /**
+     * Armazena um saldo lido fora de {@link #buscar}. Se um débito já tiver incluído o cartão
+     * nesse meio-tempo, o menor saldo prevalece.
+     */
+    public void registrar(String numeroCartao, long saldoCentavos) {
+        if (habilitado) {
+            cache.asMap().merge(numeroCartao, saldoCentavos, Math::min);
+        }
+    }
+
+    /**
+     * Atualiza o saldo do cartão após um débito, depois do commit da transação em andamento
+     * (ou imediatamente, fora de uma transação). Cartões fora do cache não são incluídos.
+     *
+     * @param numeroCartao O número do cartão
+     * @param saldoCentavos O saldo após o débito, em centavos
+     */
+    public void atualizarAposDebito(String numeroCartao, long saldoCentavos) {
+        if (!habilitado) {
+            return;
+        }
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            atualizar(numeroCartao, saldoCentavos);
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                atualizar(numeroCartao, saldoCentavos);
+            }
+        });
+    }
+
+    private void atualizar(String numeroCartao, long saldoCentavos) {
+        cache.asMap().computeIfPresent(numeroCartao, (numero, atual) -> Math.min(atual, saldoCentavos));
+    }
+
+    /**
+     * Descarta o saldo de um número reemitido, após o commit da sua criação.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCartaoCriado(CartaoCriadoEvent event) {
+        cache.invalidate(event.getCartao().getNumeroCartao());
+    }
+
+    /**
+     * Estatísticas de acertos, falhas e remoções do cache.
+     */
+    public CacheStats estatisticas() {
+        return cache.stats();
+    }
+}
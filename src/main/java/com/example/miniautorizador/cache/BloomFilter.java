@@ -0,0 +1,89 @@
+package com.example.miniautorizador.cache;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Filtro de Bloom de strings, seguro para inclusões e consultas concorrentes.
+ *
+ * Responde "talvez contenha" ou "certamente não contém": falsos positivos ocorrem na taxa
+ * configurada, falsos negativos nunca. O tamanho é fixo, calculado pela capacidade esperada; acima
+ * dela, a taxa de falsos positivos cresce, mas o filtro continua correto.
+ *
+ * As posições são derivadas de um único hash de 64 bits, dividido em dois ({@code h1 + i * h2}).
+ */
+final class BloomFilter {
+
+    private final AtomicLongArray bits;
+    private final long quantidadeBits;
+    private final int quantidadeHashes;
+
+    /**
+     * @param capacidade Quantidade esperada de elementos
+     * @param taxaFalsosPositivos Taxa de falsos positivos desejada na capacidade, entre 0 e 1
+     */
+    BloomFilter(long capacidade, double taxaFalsosPositivos) {
+        if (capacidade <= 0 || taxaFalsosPositivos <= 0 || taxaFalsosPositivos >= 1) {
+            throw new IllegalArgumentException("Capacidade e taxa de falsos positivos inválidas");
+        }
+
+        long bitsNecessarios = (long) Math.ceil(-capacidade * Math.log(taxaFalsosPositivos) / (Math.log(2) * Math.log(2)));
+        int palavras = (int) Math.min(Integer.MAX_VALUE - 8, (bitsNecessarios + 63) / 64);
+        this.bits = new AtomicLongArray(palavras);
+        this.quantidadeBits = (long) palavras * 64;
+        this.quantidadeHashes = Math.max(1, (int) Math.round((double) quantidadeBits / capacidade * Math.log(2)));
+    }
+
+    void adicionar(String valor) {
+        long hash = hash(valor);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 0; i < quantidadeHashes; i++) {
+            long bit = Math.floorMod(h1 + (long) i * h2, quantidadeBits);
+            int palavra = (int) (bit >>> 6);
+            long mascara = 1L << bit;
+            long atual = bits.get(palavra);
+            while ((atual & mascara) == 0 && !bits.compareAndSet(palavra, atual, atual | mascara)) {
+                atual = bits.get(palavra);
+            }
+        }
+    }
+
+    boolean podeConter(String valor) {
+        long hash = hash(valor);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 0; i < quantidadeHashes; i++) {
+            long bit = Math.floorMod(h1 + (long) i * h2, quantidadeBits);
+            if ((bits.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    long getQuantidadeBits() {
+        return quantidadeBits;
+    }
+
+    int getQuantidadeHashes() {
+        return quantidadeHashes;
+    }
+
+    /**
+     * FNV-1a de 64 bits seguido da mistura final do MurmurHash3, que espalha os dígitos pelos dois
+     * lados do hash.
+     */
+    private static long hash(String valor) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < valor.length(); i++) {
+            hash ^= valor.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
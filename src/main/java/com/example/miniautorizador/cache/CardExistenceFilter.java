@@ -0,0 +1,209 @@
+package com.example.miniautorizador.cache;
+
+import com.example.miniautorizador.event.CartaoCriadoEvent;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Descarta, sem consultar o banco, números de cartão que certamente não foram emitidos.
+ *
+ * Um {@link BloomFilter} com os números emitidos é carregado da tabela {@code cartoes} na
+ * inicialização e acompanha cada emissão desta instância, inclusive em lote. Números que o filtro
+ * aceita mas o banco não encontra (falsos positivos) ficam em um pequeno cache negativo. Até o fim
+ * da carga, todos os números são aceitos.
+ *
+ * A inclusão no filtro acontece na publicação do evento, ainda dentro da transação da emissão,
+ * para que o cartão nunca seja recusado depois do commit; uma emissão desfeita deixa apenas um
+ * falso positivo. O cache negativo é limpo antes e depois do commit, e uma consulta ao banco
+ * iniciada antes de uma emissão não grava o número como inexistente (veja
+ * {@link #registrarInexistente(String, long)}).
+ *
+ * Cartões inseridos fora desta instância (outro nó, script, restauração do banco) só passam a ser
+ * aceitos na próxima {@linkplain #recarregar() recarga periódica}; por isso o filtro é opcional,
+ * habilitado por {@code cartao.existencia.filtro.habilitado}.
+ *
+ * Usado apenas pelo motor de autorização padrão: o motor em memória já não consulta o banco.
+ */
+@Slf4j
+@Component
+@DependsOn("entityManagerFactory")
+@ConditionalOnExpression("${cartao.existencia.filtro.habilitado:false} and '${autorizador.motor:banco}' == 'banco'")
+public class CardExistenceFilter implements SmartInitializingSingleton {
+
+    static final String CACHE_NAME = "cartaoInexistente";
+    private static final String CONSULTA_NUMEROS = "SELECT numero_cartao FROM cartoes";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final long capacidade;
+    private final double taxaFalsosPositivos;
+    private final Cache<String, Boolean> inexistentes;
+    private final AtomicLong geracao = new AtomicLong();
+    private final Object trocaFiltro = new Object();
+    private final Counter recusasFiltro;
+    private final Counter recusasCacheNegativo;
+    private volatile BloomFilter emitidos;
+    private BloomFilter emRecarga;
+    private volatile boolean carregado;
+
+    @Autowired
+    public CardExistenceFilter(JdbcTemplate jdbcTemplate,
+                               @Value("${cartao.existencia.filtro.capacidade:10000000}") long capacidade,
+                               @Value("${cartao.existencia.filtro.taxa-falsos-positivos:0.01}") double taxaFalsosPositivos,
+                               @Value("${cartao.existencia.cache-negativo.tamanho-maximo:10000}") long tamanhoCacheNegativo,
+                               @Value("${cartao.existencia.cache-negativo.ttl-segundos:60}") long ttlCacheNegativo,
+                               MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.capacidade = capacidade;
+        this.taxaFalsosPositivos = taxaFalsosPositivos;
+        this.emitidos = new BloomFilter(capacidade, taxaFalsosPositivos);
+        this.inexistentes = Caffeine.newBuilder()
+                .maximumSize(tamanhoCacheNegativo)
+                .expireAfterWrite(Duration.ofSeconds(ttlCacheNegativo))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, inexistentes, CACHE_NAME);
+        this.recusasFiltro = recusas(meterRegistry, "filtro");
+        this.recusasCacheNegativo = recusas(meterRegistry, "cache-negativo");
+    }
+
+    /**
+     * Carrega o filtro depois que todos os singletons foram criados, antes de o servidor aceitar
+     * requisições. Cartões emitidos durante a carga são incluídos pelo evento de criação.
+     */
+    @Override
+    public void afterSingletonsInstantiated() {
+        recarregar();
+        carregado = true;
+    }
+
+    /**
+     * Recria o filtro a partir da tabela, passando a aceitar os cartões inseridos fora desta
+     * instância. Emissões confirmadas durante a leitura entram nos dois filtros, e o cache negativo
+     * é descartado.
+     */
+    @Scheduled(fixedDelayString = "${cartao.existencia.filtro.recarga.intervalo-ms:300000}",
+            initialDelayString = "${cartao.existencia.filtro.recarga.intervalo-ms:300000}")
+    public synchronized void recarregar() {
+        long inicio = System.currentTimeMillis();
+        BloomFilter novo = new BloomFilter(capacidade, taxaFalsosPositivos);
+        synchronized (trocaFiltro) {
+            emRecarga = novo;
+        }
+        long[] quantidade = new long[1];
+        try {
+            jdbcTemplate.query(CONSULTA_NUMEROS, rs -> {
+                novo.adicionar(rs.getString(1));
+                quantidade[0]++;
+            });
+            synchronized (trocaFiltro) {
+                emitidos = novo;
+            }
+        } finally {
+            synchronized (trocaFiltro) {
+                emRecarga = null;
+            }
+        }
+        geracao.incrementAndGet();
+        inexistentes.invalidateAll();
+        log.info("Filtro de cartões emitidos carregado com {} cartões em {} ms ({} bits, {} hashes)",
+                quantidade[0], System.currentTimeMillis() - inicio, novo.getQuantidadeBits(),
+                novo.getQuantidadeHashes());
+    }
+
+    /**
+     * Indica se o cartão pode existir e precisa ser consultado no banco.
+     *
+     * @param numeroCartao O número do cartão
+     * @return false se o cartão certamente não existe
+     */
+    public boolean podeExistir(String numeroCartao) {
+        if (!carregado || numeroCartao == null) {
+            return true;
+        }
+        if (!emitidos.podeConter(numeroCartao)) {
+            recusasFiltro.increment();
+            return false;
+        }
+        if (inexistentes.getIfPresent(numeroCartao) != null) {
+            recusasCacheNegativo.increment();
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Marca o início de uma consulta ao banco cujo resultado pode ir para o cache negativo.
+     *
+     * @return A geração a informar em {@link #registrarInexistente(String, long)}
+     */
+    public long iniciarConsulta() {
+        return geracao.get();
+    }
+
+    /**
+     * Registra um número aceito pelo filtro que o banco não encontrou. Se algum cartão foi emitido
+     * ou o filtro foi recarregado desde o início da consulta, o registro é descartado: a consulta
+     * pode ter sido anterior ao commit da emissão.
+     *
+     * @param geracaoConsulta O valor de {@link #iniciarConsulta()} antes da consulta
+     */
+    public void registrarInexistente(String numeroCartao, long geracaoConsulta) {
+        if (numeroCartao == null) {
+            return;
+        }
+        inexistentes.put(numeroCartao, Boolean.TRUE);
+        // Uma emissão que mudou a geração depois desta leitura pode ter limpado o cache antes do put
+        if (geracao.get() != geracaoConsulta) {
+            inexistentes.invalidate(numeroCartao);
+        }
+    }
+
+    @EventListener
+    public void onCartaoCriado(CartaoCriadoEvent event) {
+        incluir(event.getCartao().getNumeroCartao());
+    }
+
+    /**
+     * Inclui o número de novo após o commit, para uma recarga cuja leitura começou antes dele, e
+     * limpa o cache negativo, descartando consultas concorrentes à emissão.
+     */
+    @TransactionalEventListener
+    public void onCartaoCriadoConfirmado(CartaoCriadoEvent event) {
+        incluir(event.getCartao().getNumeroCartao());
+    }
+
+    private void incluir(String numeroCartao) {
+        synchronized (trocaFiltro) {
+            emitidos.adicionar(numeroCartao);
+            if (emRecarga != null) {
+                emRecarga.adicionar(numeroCartao);
+            }
+        }
+        geracao.incrementAndGet();
+        inexistentes.invalidate(numeroCartao);
+    }
+
+    private static Counter recusas(MeterRegistry meterRegistry, String origem) {
+        return Counter.builder("cartoes.inexistentes.recusas")
+                .description("Consultas a cartões inexistentes respondidas sem acessar o banco")
+                .tag("origem", origem)
+                .register(meterRegistry);
+    }
+}
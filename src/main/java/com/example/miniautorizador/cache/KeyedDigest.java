@@ -0,0 +1,56 @@
+package com.example.miniautorizador.cache;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.util.Base64;
+
+/**
+ * Gera chaves de cache a partir de dados sensíveis (senhas, credenciais) usando HMAC-SHA256.
+ * A chave secreta é aleatória e existe apenas em memória, de modo que o conteúdo dos caches
+ * não permite recuperar nem testar offline os valores originais.
+ */
+public class KeyedDigest {
+
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final char SEPARATOR = '\u0000';
+
+    private final SecretKeySpec secretKey;
+    private final ThreadLocal<Mac> mac;
+
+    public KeyedDigest() {
+        byte[] key = new byte[32];
+        new SecureRandom().nextBytes(key);
+        this.secretKey = new SecretKeySpec(key, ALGORITHM);
+        this.mac = ThreadLocal.withInitial(this::newMac);
+    }
+
+    /**
+     * Calcula o digest das partes informadas, separadas de forma não ambígua.
+     *
+     * @param parts Os valores que compõem a chave
+     * @return O digest codificado em Base64
+     */
+    public String digest(String... parts) {
+        StringBuilder input = new StringBuilder();
+        for (String part : parts) {
+            input.append(part).append(SEPARATOR);
+        }
+
+        Mac instance = mac.get();
+        byte[] result = instance.doFinal(input.toString().getBytes(StandardCharsets.UTF_8));
+        return Base64.getEncoder().withoutPadding().encodeToString(result);
+    }
+
+    private Mac newMac() {
+        try {
+            Mac instance = Mac.getInstance(ALGORITHM);
+            instance.init(secretKey);
+            return instance;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HMAC-SHA256 indisponível", e);
+        }
+    }
+}
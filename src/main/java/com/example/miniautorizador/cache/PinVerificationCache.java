@@ -0,0 +1,110 @@
+package com.example.miniautorizador.cache;
+
+import com.example.miniautorizador.model.Cartao;
+import com.example.miniautorizador.security.PinHasher;
+import com.example.miniautorizador.security.PinHashingExecutor;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cache de verificações de senha bem-sucedidas, consultado antes do BCrypt.
+ *
+ * A chave é o digest de (número do cartão, hash armazenado, senha fornecida). Como o hash
+ * armazenado faz parte da chave, qualquer alteração em {@code Cartao.senha} invalida as
+ * entradas anteriores. Apenas acertos são armazenados: uma senha incorreta sempre passa
+ * pela verificação completa.
+ *
+ * O tempo das verificações completas ({@link PinHasher#verificar}) é medido em {@code cartao.senha.verificacao},
+ * com a tag {@code resultado} (valida ou invalida); os acertos do cache não são medidos. As
+ * verificações completas são executadas no {@link PinHashingExecutor}, com prioridade sobre a emissão.
+ */
+@Component
+public class PinVerificationCache {
+
+    static final String CACHE_NAME = "pinVerification";
+
+    private final boolean habilitado;
+    private final Cache<String, Boolean> cache;
+    private final KeyedDigest keyedDigest = new KeyedDigest();
+    private final Timer verificacoesValidas;
+    private final Timer verificacoesInvalidas;
+    private final PinHashingExecutor pinHashingExecutor;
+    private final PinHasher pinHasher;
+
+    @Autowired
+    public PinVerificationCache(@Value("${cartao.senha.cache.habilitado:true}") boolean habilitado,
+                                @Value("${cartao.senha.cache.tamanho-maximo:100000}") long tamanhoMaximo,
+                                @Value("${cartao.senha.cache.ttl-segundos:300}") long ttlSegundos,
+                                MeterRegistry meterRegistry,
+                                PinHashingExecutor pinHashingExecutor,
+                                PinHasher pinHasher) {
+        this.habilitado = habilitado;
+        this.pinHashingExecutor = pinHashingExecutor;
+        this.pinHasher = pinHasher;
+        this.verificacoesValidas = tempoVerificacao(meterRegistry, "valida");
+        this.verificacoesInvalidas = tempoVerificacao(meterRegistry, "invalida");
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(tamanhoMaximo)
+                .expireAfterWrite(Duration.ofSeconds(ttlSegundos))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+    /**
+     * Verifica a senha fornecida contra o hash do cartão, usando o cache quando possível.
+     *
+     * @param cartao O cartão da transação
+     * @param senhaFornecida A senha informada na transação
+     * @return true se a senha confere
+     */
+    public boolean verificar(Cartao cartao, String senhaFornecida) {
+        if (!habilitado || senhaFornecida == null) {
+            return verificarSenha(cartao, senhaFornecida);
+        }
+
+        String chave = keyedDigest.digest(cartao.getNumeroCartao(), cartao.getSenha(), senhaFornecida);
+        if (cache.getIfPresent(chave) != null) {
+            return true;
+        }
+
+        boolean valida = verificarSenha(cartao, senhaFornecida);
+        if (valida) {
+            cache.put(chave, Boolean.TRUE);
+        }
+        return valida;
+    }
+
+    private boolean verificarSenha(Cartao cartao, String senhaFornecida) {
+        long inicio = System.nanoTime();
+        boolean valida = pinHashingExecutor.executar(PinHashingExecutor.Prioridade.AUTORIZACAO,
+                () -> pinHasher.verificar(cartao, senhaFornecida));
+        (valida ? verificacoesValidas : verificacoesInvalidas).record(System.nanoTime() - inicio, TimeUnit.NANOSECONDS);
+        return valida;
+    }
+
+    private static Timer tempoVerificacao(MeterRegistry meterRegistry, String resultado) {
+        return Timer.builder("cartao.senha.verificacao")
+                .description("Tempo da verificação completa da senha (BCrypt)")
+                .tag("resultado", resultado)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    /**
+     * Estatísticas de acertos, falhas e remoções do cache.
+     */
+    public CacheStats estatisticas() {
+        return cache.stats();
+    }
+}
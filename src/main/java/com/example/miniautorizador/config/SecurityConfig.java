@@ -1,7 +1,10 @@
 package com.example.miniautorizador.config;
 
+import com.example.miniautorizador.security.AuthenticationProviderFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
 import org.springframework.security.config.annotation.authentication.builders.AuthenticationManagerBuilder;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
@@ -12,14 +15,18 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 
 @Configuration
 @EnableWebSecurity
+@Profile("!reativo")
 public class SecurityConfig extends WebSecurityConfigurerAdapter {
 
+    @Autowired
+    private AuthenticationProviderFactory authenticationProviderFactory;
+
     @Override
     protected void configure(HttpSecurity http) throws Exception {
         http
             .csrf().disable()
             .authorizeRequests()
-                .antMatchers("/cartoes/**", "/transacoes/**").authenticated()
+                .antMatchers("/cartoes/**", "/transacoes/**", "/actuator/**").authenticated()
                 .anyRequest().denyAll()
             .and()
             .httpBasic()
@@ -30,10 +37,7 @@ public class SecurityConfig extends WebSecurityConfigurerAdapter {
 
     @Override
     protected void configure(AuthenticationManagerBuilder auth) throws Exception {
-        auth.inMemoryAuthentication()
-            .withUser("user")
-            .password(passwordEncoder().encode("password"))
-            .roles("USER");
+        auth.authenticationProvider(authenticationProviderFactory.criar());
     }
 
     @Bean
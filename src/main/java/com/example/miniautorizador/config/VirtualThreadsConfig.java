@@ -0,0 +1,53 @@
+package com.example.miniautorizador.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Atende as requisições do Tomcat em threads virtuais (Java 21 ou superior), com
+ * {@code servidor.threads-virtuais.habilitado=true}.
+ *
+ * Cada requisição ganha a sua thread, e o {@code TransacaoService} roda nela: a espera pelo banco,
+ * pelo lock do cartão e pelo fsync do journal deixa de ocupar uma thread de plataforma. O que
+ * continua limitado são os recursos de fato escassos: as conexões do Hikari
+ * ({@code spring.datasource.hikari.maximum-pool-size}) e os BCrypts simultâneos
+ * (o pool de {@code cartao.senha.hash.*}).
+ *
+ * O projeto compila para Java 8, por isso a API de threads virtuais é acessada por reflexão.
+ */
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@ConditionalOnProperty(name = "servidor.threads-virtuais.habilitado", havingValue = "true")
+public class VirtualThreadsConfig {
+
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService tomcatVirtualThreadExecutor() {
+        try {
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            Class<?> ofVirtual = Class.forName("java.lang.Thread$Builder$OfVirtual");
+            builder = ofVirtual.getMethod("name", String.class, long.class).invoke(builder, "tomcat-virtual-", 0L);
+            ThreadFactory threadFactory = (ThreadFactory) Class.forName("java.lang.Thread$Builder")
+                    .getMethod("factory").invoke(builder);
+            Method newThreadPerTaskExecutor = Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class);
+            return (ExecutorService) newThreadPerTaskExecutor.invoke(null, threadFactory);
+        } catch (NoSuchMethodException | ClassNotFoundException e) {
+            throw new IllegalStateException("Threads virtuais exigem Java 21 ou superior", e);
+        } catch (IllegalAccessException | InvocationTargetException e) {
+            throw new IllegalStateException("Falha ao criar o executor de threads virtuais", e);
+        }
+    }
+
+    @Bean
+    public TomcatProtocolHandlerCustomizer<?> tomcatVirtualThreadCustomizer(ExecutorService tomcatVirtualThreadExecutor) {
+        return protocolHandler -> protocolHandler.setExecutor(tomcatVirtualThreadExecutor);
+    }
+}
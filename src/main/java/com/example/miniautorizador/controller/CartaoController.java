@@ -1,9 +1,13 @@
 package com.example.miniautorizador.controller;
 
 import com.example.miniautorizador.dto.CartaoDto;
+import com.example.miniautorizador.dto.EmissaoLoteDto;
+import com.example.miniautorizador.service.CartaoEmissaoLoteService;
 import com.example.miniautorizador.service.CartaoService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -13,17 +17,22 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
 import javax.validation.Valid;
+import java.io.IOException;
+import java.io.InputStream;
 import java.math.BigDecimal;
 
 @RestController
+@Profile("!reativo")
 @RequestMapping("/cartoes")
 public class CartaoController {
 
     private final CartaoService cartaoService;
+    private final CartaoEmissaoLoteService cartaoEmissaoLoteService;
 
     @Autowired
-    public CartaoController(CartaoService cartaoService) {
+    public CartaoController(CartaoService cartaoService, CartaoEmissaoLoteService cartaoEmissaoLoteService) {
         this.cartaoService = cartaoService;
+        this.cartaoEmissaoLoteService = cartaoEmissaoLoteService;
     }
 
     @PostMapping
@@ -32,6 +41,12 @@ public class CartaoController {
         return new ResponseEntity<>(cartaoCriado, HttpStatus.CREATED);
     }
 
+    @PostMapping(value = "/lote", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public ResponseEntity<EmissaoLoteDto> criarCartoesEmLote(InputStream conteudo) throws IOException {
+        EmissaoLoteDto resultado = cartaoEmissaoLoteService.emitir(conteudo);
+        return new ResponseEntity<>(resultado, resultado.getErro() == null ? HttpStatus.OK : HttpStatus.BAD_REQUEST);
+    }
+
     @GetMapping("/{numeroCartao}")
     public ResponseEntity<BigDecimal> obterSaldo(@PathVariable String numeroCartao) {
         BigDecimal saldo = cartaoService.obterSaldo(numeroCartao);
@@ -1,8 +1,12 @@
 package com.example.miniautorizador.controller;
 
+import com.example.miniautorizador.dto.ResultadoTransacaoDto;
 import com.example.miniautorizador.dto.TransacaoDto;
-import com.example.miniautorizador.service.TransacaoService;
+import com.example.miniautorizador.service.TransacaoLoteService;
+import com.example.miniautorizador.service.authorization.ResultadoAutorizacao;
+import com.example.miniautorizador.service.engine.AuthorizationEngine;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PostMapping;
@@ -11,21 +15,33 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
 import javax.validation.Valid;
+import java.util.List;
 
 @RestController
+@Profile("!reativo")
 @RequestMapping("/transacoes")
 public class TransacaoController {
 
-    private final TransacaoService transacaoService;
+    private final AuthorizationEngine authorizationEngine;
+    private final TransacaoLoteService transacaoLoteService;
 
     @Autowired
-    public TransacaoController(TransacaoService transacaoService) {
-        this.transacaoService = transacaoService;
+    public TransacaoController(AuthorizationEngine authorizationEngine, TransacaoLoteService transacaoLoteService) {
+        this.authorizationEngine = authorizationEngine;
+        this.transacaoLoteService = transacaoLoteService;
     }
 
     @PostMapping
     public ResponseEntity<String> realizarTransacao(@Valid @RequestBody TransacaoDto transacaoDto) {
-        transacaoService.processarTransacao(transacaoDto);
+        ResultadoAutorizacao resultado = authorizationEngine.processarTransacao(transacaoDto);
+        if (!resultado.isAprovada()) {
+            return new ResponseEntity<>(resultado.getErro().toString(), HttpStatus.UNPROCESSABLE_ENTITY);
+        }
         return new ResponseEntity<>("OK", HttpStatus.CREATED);
     }
+
+    @PostMapping("/lote")
+    public ResponseEntity<List<ResultadoTransacaoDto>> realizarLote(@RequestBody List<TransacaoDto> transacoes) {
+        return new ResponseEntity<>(transacaoLoteService.processarLote(transacoes), HttpStatus.OK);
+    }
 }
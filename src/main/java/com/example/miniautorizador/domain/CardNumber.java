@@ -1,50 +1,145 @@
 package com.example.miniautorizador.domain;
 
-import java.util.Objects;
-
+/**
+ * Número de um cartão, com apenas os dígitos.
+ *
+ * A normalização percorre o texto uma única vez, sem expressões regulares: descarta o que não é
+ * dígito, acumula a {@linkplain #toKey() chave numérica} e reaproveita o próprio texto quando ele
+ * já contém apenas dígitos, o caso dos números lidos do banco. A forma mascarada é calculada na
+ * primeira chamada e reaproveitada.
+ */
 public class CardNumber {
+
+    public static final int MIN_DIGITOS = 13;
+    public static final int MAX_DIGITOS = 19;
+
     private final String value;
+    private final long digitos;
+    private String masked;
+
+    private CardNumber(String value, long digitos) {
+        this.value = value;
+        this.digitos = digitos;
+    }
+
+    public static CardNumber of(String value) {
+        return of(value, false);
+    }
 
-    private CardNumber(String value) {
-        if (value == null || value.trim().isEmpty()) {
+    /**
+     * @param verificarLuhn Se o último dígito deve ser o verificador de Luhn dos demais
+     * @throws IllegalArgumentException Se o número for vazio, não tiver de 13 a 19 dígitos ou,
+     *                                  com {@code verificarLuhn}, tiver o dígito verificador inválido
+     */
+    public static CardNumber of(String value, boolean verificarLuhn) {
+        if (value == null) {
             throw new IllegalArgumentException("Número do cartão não pode ser nulo ou vazio");
         }
 
-        String normalized = value.replaceAll("[^0-9]", "");
+        int quantidade = 0;
+        long digitos = 0;
+        boolean somenteDigitos = true;
+        boolean vazio = true;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c >= '0' && c <= '9') {
+                // Com até 19 dígitos o valor cabe em um long sem sinal
+                digitos = digitos * 10 + (c - '0');
+                quantidade++;
+            } else {
+                somenteDigitos = false;
+            }
+            if (c > ' ') {
+                vazio = false;
+            }
+        }
 
-        if (normalized.isEmpty()) {
+        if (vazio) {
+            throw new IllegalArgumentException("Número do cartão não pode ser nulo ou vazio");
+        }
+
+        if (quantidade == 0) {
             throw new IllegalArgumentException("Número do cartão deve conter pelo menos um dígito");
         }
 
-        if (normalized.length() < 13 || normalized.length() > 19) {
+        if (quantidade < MIN_DIGITOS || quantidade > MAX_DIGITOS) {
             throw new IllegalArgumentException("Número do cartão deve ter entre 13 e 19 dígitos");
         }
 
-        this.value = normalized;
+        String normalized = somenteDigitos ? value : extrairDigitos(value, quantidade);
+        if (verificarLuhn && !luhnValido(normalized)) {
+            throw new IllegalArgumentException("Número do cartão com dígito verificador inválido");
+        }
+
+        return new CardNumber(normalized, digitos);
     }
 
-    public static CardNumber of(String value) {
-        return new CardNumber(value);
+    private static String extrairDigitos(String value, int quantidade) {
+        char[] digitos = new char[quantidade];
+        int j = 0;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c >= '0' && c <= '9') {
+                digitos[j++] = c;
+            }
+        }
+        return new String(digitos);
+    }
+
+    private static boolean luhnValido(String digitos) {
+        int soma = 0;
+        boolean dobrar = false;
+        for (int i = digitos.length() - 1; i >= 0; i--) {
+            int d = digitos.charAt(i) - '0';
+            if (dobrar) {
+                d *= 2;
+                if (d > 9) {
+                    d -= 9;
+                }
+            }
+            soma += d;
+            dobrar = !dobrar;
+        }
+        return soma % 10 == 0;
     }
 
     public String getValue() {
         return value;
     }
 
+    /**
+     * Indica se o último dígito é o verificador de Luhn dos demais.
+     */
+    public boolean isLuhnValido() {
+        return luhnValido(value);
+    }
+
+    /**
+     * Chave compacta do número, para índices em memória.
+     */
+    public CardNumberKey toKey() {
+        return new CardNumberKey(digitos, value.length());
+    }
+
     public String getMasked() {
+        String resultado = masked;
+        if (resultado == null) {
+            resultado = mascarar(value);
+            masked = resultado;
+        }
+        return resultado;
+    }
+
+    private static String mascarar(String value) {
         if (value.length() <= 4) {
             return value;
         }
 
-        String firstSix = value.substring(0, 6);
-        String lastFour = value.substring(value.length() - 4);
-
-        StringBuilder middle = new StringBuilder();
-        for (int i = 0; i < value.length() - 10; i++) {
-            middle.append("X");
+        char[] chars = value.toCharArray();
+        for (int i = 6; i < chars.length - 4; i++) {
+            chars[i] = 'X';
         }
-
-        return firstSix + middle.toString() + lastFour;
+        return new String(chars);
     }
 
     @Override
@@ -52,12 +147,12 @@ public class CardNumber {
         if (this == o) return true;
         if (o == null || getClass() != o.getClass()) return false;
         CardNumber that = (CardNumber) o;
-        return value.equals(that.value);
+        return digitos == that.digitos && value.length() == that.value.length();
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(value);
+        return CardNumberKey.hashCode(digitos, value.length());
     }
 
     @Override
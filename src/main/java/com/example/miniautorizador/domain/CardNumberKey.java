@@ -0,0 +1,94 @@
+package com.example.miniautorizador.domain;
+
+/**
+ * Número de cartão como um {@code long} sem sinal e a quantidade de dígitos, que preserva os
+ * zeros à esquerda.
+ *
+ * Chave das contas do {@link com.example.miniautorizador.service.ledger.BalanceLedger}, no lugar do
+ * texto: ocupa um objeto de 24 bytes, sem o array de caracteres de uma {@link String}, e a
+ * comparação é de dois primitivos.
+ */
+public final class CardNumberKey {
+
+    private final long digitos;
+    private final int quantidade;
+
+    CardNumberKey(long digitos, int quantidade) {
+        this.digitos = digitos;
+        this.quantidade = quantidade;
+    }
+
+    /**
+     * @throws IllegalArgumentException Se o número for inválido, como em {@link CardNumber#of(String)}
+     */
+    public static CardNumberKey of(String numeroCartao) {
+        return CardNumber.of(numeroCartao).toKey();
+    }
+
+    /**
+     * Chave de um número que já contém apenas dígitos, como os gravados no banco, sem a
+     * normalização de {@link #of(String)}: um texto com qualquer outro caractere não corresponde a
+     * nenhum cartão gravado.
+     *
+     * @return A chave, ou null se o texto não tiver de 1 a 19 dígitos e nada mais
+     */
+    public static CardNumberKey deDigitos(String numeroCartao) {
+        if (numeroCartao == null || numeroCartao.isEmpty() || numeroCartao.length() > CardNumber.MAX_DIGITOS) {
+            return null;
+        }
+        long digitos = 0;
+        for (int i = 0; i < numeroCartao.length(); i++) {
+            char c = numeroCartao.charAt(i);
+            if (c < '0' || c > '9') {
+                return null;
+            }
+            digitos = digitos * 10 + (c - '0');
+        }
+        return new CardNumberKey(digitos, numeroCartao.length());
+    }
+
+    public long getDigitos() {
+        return digitos;
+    }
+
+    public int getQuantidade() {
+        return quantidade;
+    }
+
+    /**
+     * Reconstrói o número, com os zeros à esquerda.
+     */
+    public String getValue() {
+        String semZeros = Long.toUnsignedString(digitos);
+        if (semZeros.length() == quantidade) {
+            return semZeros;
+        }
+        StringBuilder numero = new StringBuilder(quantidade);
+        for (int i = semZeros.length(); i < quantidade; i++) {
+            numero.append('0');
+        }
+        return numero.append(semZeros).toString();
+    }
+
+    static int hashCode(long digitos, int quantidade) {
+        return 31 * Long.hashCode(digitos) + quantidade;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        CardNumberKey that = (CardNumberKey) o;
+        return digitos == that.digitos && quantidade == that.quantidade;
+    }
+
+    @Override
+    public int hashCode() {
+        return hashCode(digitos, quantidade);
+    }
+
+    @Override
+    public String toString() {
+        return CardNumber.of(getValue()).getMasked();
+    }
+}
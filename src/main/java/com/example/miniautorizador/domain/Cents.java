@@ -0,0 +1,68 @@
+package com.example.miniautorizador.domain;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Valores monetários em centavos, representados como {@code long} primitivo.
+ *
+ * Usado no caminho de autorização (regras, débito e saldos em memória) no lugar de {@link Money},
+ * sem alocar objetos. A conversão de e para {@link BigDecimal} acontece apenas nas fronteiras da
+ * API e da persistência, com o mesmo arredondamento de {@link Money}; a aritmética falha com
+ * {@link ArithmeticException} em vez de transbordar.
+ */
+public final class Cents {
+
+    public static final int SCALE = 2;
+    private static final RoundingMode ROUNDING_MODE = RoundingMode.HALF_EVEN;
+
+    private Cents() {
+    }
+
+    /**
+     * Converte um valor para centavos, arredondando para duas casas.
+     *
+     * @throws ArithmeticException Se o valor não couber em um long
+     */
+    public static long of(BigDecimal amount) {
+        return amount.setScale(SCALE, ROUNDING_MODE).unscaledValue().longValueExact();
+    }
+
+    /**
+     * Converte um valor recebido na API para centavos. Valores fora da faixa de um long são
+     * saturados em {@link Long#MAX_VALUE} ou {@link Long#MIN_VALUE}, o que preserva as comparações
+     * com qualquer saldo; um valor ausente é zero, recusado pelas regras como inválido.
+     */
+    public static long ofSaturated(BigDecimal amount) {
+        if (amount == null) {
+            return 0;
+        }
+        try {
+            return of(amount);
+        } catch (ArithmeticException e) {
+            return amount.signum() < 0 ? Long.MIN_VALUE : Long.MAX_VALUE;
+        }
+    }
+
+    public static BigDecimal toBigDecimal(long cents) {
+        return BigDecimal.valueOf(cents, SCALE);
+    }
+
+    /**
+     * @throws ArithmeticException Se o resultado não couber em um long
+     */
+    public static long add(long cents, long other) {
+        return Math.addExact(cents, other);
+    }
+
+    /**
+     * @throws ArithmeticException Se o resultado não couber em um long
+     */
+    public static long subtract(long cents, long other) {
+        return Math.subtractExact(cents, other);
+    }
+
+    public static String toString(long cents) {
+        return toBigDecimal(cents).toPlainString();
+    }
+}
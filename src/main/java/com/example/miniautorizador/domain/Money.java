@@ -26,6 +26,10 @@ public class Money {
         return new Money(BigDecimal.valueOf(amount));
     }
 
+    public static Money ofCents(long cents) {
+        return new Money(BigDecimal.valueOf(cents, SCALE));
+    }
+
     public static Money zero() {
         return new Money(BigDecimal.ZERO);
     }
@@ -54,6 +58,15 @@ public class Money {
         return amount;
     }
 
+    /**
+     * Valor em centavos, sem perda.
+     *
+     * @throws ArithmeticException Se o valor não couber em um long
+     */
+    public long toCents() {
+        return amount.unscaledValue().longValueExact();
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -1,20 +1,23 @@
 package com.example.miniautorizador.domain;
 
 import lombok.Getter;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
 import java.util.Objects;
 
+/**
+ * Senha de um cartão, guardada como hash.
+ *
+ * O algoritmo do hash é o do {@link PasswordEncoder} recebido; na aplicação, o do
+ * {@code PinHasher}, que gera e verifica os hashes com os prefixos de cada algoritmo.
+ */
 public class Pin {
 
-    private static final PasswordEncoder PASSWORD_ENCODER = new BCryptPasswordEncoder();
-
     @Getter
     private final String hashedValue;
     private final String rawValue;
 
-    private Pin(String value, boolean isHashed) {
+    private Pin(String value, boolean isHashed, PasswordEncoder passwordEncoder) {
         if (value == null || value.trim().isEmpty()) {
             throw new IllegalArgumentException("PIN não pode ser nulo ou vazio");
         }
@@ -23,24 +26,37 @@ public class Pin {
             this.hashedValue = value;
             this.rawValue = null;
         } else {
-            if (!value.matches("^\\d{4,6}$")) {
+            if (!somenteDigitos(value, 4, 6)) {
                 throw new IllegalArgumentException("PIN deve conter de 4 a 6 dígitos");
             }
 
             this.rawValue = value;
-            this.hashedValue = PASSWORD_ENCODER.encode(value);
+            this.hashedValue = passwordEncoder.encode(value);
         }
     }
 
-    public static Pin of(String rawValue) {
-        return new Pin(rawValue, false);
+    private static boolean somenteDigitos(String value, int minimo, int maximo) {
+        if (value.length() < minimo || value.length() > maximo) {
+            return false;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c < '0' || c > '9') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public static Pin of(String rawValue, PasswordEncoder passwordEncoder) {
+        return new Pin(rawValue, false, passwordEncoder);
     }
 
     public static Pin fromHashed(String hashedValue) {
-        return new Pin(hashedValue, true);
+        return new Pin(hashedValue, true, null);
     }
 
-    public boolean matches(String rawPin) {
+    public boolean matches(String rawPin, PasswordEncoder passwordEncoder) {
         if (rawPin == null) {
             return false;
         }
@@ -49,7 +65,15 @@ public class Pin {
             return rawValue.equals(rawPin);
         }
 
-        return PASSWORD_ENCODER.matches(rawPin, hashedValue);
+        return passwordEncoder.matches(rawPin, hashedValue);
+    }
+
+    /**
+     * Indica se o hash foi gerado por outro algoritmo, ou com parâmetros mais fracos, que os
+     * configurados para os novos hashes.
+     */
+    public boolean precisaRehash(PasswordEncoder passwordEncoder) {
+        return rawValue == null && passwordEncoder.upgradeEncoding(hashedValue);
     }
 
     @Override
@@ -0,0 +1,20 @@
+package com.example.miniautorizador.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Contagens de um bloco da emissão em lote.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BlocoEmissaoDto {
+    private int bloco;
+    private int criados;
+    private int duplicados;
+    private int invalidos;
+}
@@ -0,0 +1,31 @@
+package com.example.miniautorizador.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Resultado da emissão em lote: totais, contagens por bloco e, se o conteúdo enviado ficou
+ * ilegível no meio do caminho, o erro encontrado. Os blocos listados já foram gravados.
+ */
+@Data
+@NoArgsConstructor
+public class EmissaoLoteDto {
+    private int criados;
+    private int duplicados;
+    private int invalidos;
+    private List<BlocoEmissaoDto> blocos = new ArrayList<>();
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String erro;
+
+    public void adicionar(BlocoEmissaoDto bloco) {
+        blocos.add(bloco);
+        criados += bloco.getCriados();
+        duplicados += bloco.getDuplicados();
+        invalidos += bloco.getInvalidos();
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.miniautorizador.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Resultado de um item do lote de transações: o status HTTP e o corpo que a transação teria
+ * recebido em {@code POST /transacoes}: {@code OK}, o código de {@code AutorizacaoErro} ou, nos
+ * demais erros, o campo {@code message} do corpo de erro.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ResultadoTransacaoDto {
+    private String numeroCartao;
+    private int status;
+    private String resultado;
+}
@@ -4,5 +4,27 @@ public enum AutorizacaoErro {
     SALDO_INSUFICIENTE,
     SENHA_INVALIDA,
     CARTAO_INEXISTENTE,
-    VALOR_INVALIDO
+    VALOR_INVALIDO,
+    // Novos códigos sempre no final: o journal grava a posição do código
+    LIMITE_TRANSACOES_EXCEDIDO,
+    LIMITE_VALOR_EXCEDIDO;
+
+    /**
+     * Código retornado quando um campo da transação falha na validação.
+     *
+     * @param campo O nome do campo de {@code TransacaoDto}
+     * @return O código correspondente ou null se o campo não tiver código próprio
+     */
+    public static AutorizacaoErro doCampoInvalido(String campo) {
+        switch (campo) {
+            case "senhaCartao":
+                return SENHA_INVALIDA;
+            case "numeroCartao":
+                return CARTAO_INEXISTENTE;
+            case "valor":
+                return VALOR_INVALIDO;
+            default:
+                return null;
+        }
+    }
 }
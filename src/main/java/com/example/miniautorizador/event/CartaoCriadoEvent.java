@@ -0,0 +1,18 @@
+package com.example.miniautorizador.event;
+
+import com.example.miniautorizador.model.Cartao;
+import lombok.Getter;
+
+/**
+ * Evento publicado quando um novo cartão é persistido.
+ * Permite que estruturas em memória (saldos, índices) acompanhem a emissão de cartões.
+ */
+@Getter
+public class CartaoCriadoEvent {
+
+    private final Cartao cartao;
+
+    public CartaoCriadoEvent(Cartao cartao) {
+        this.cartao = cartao;
+    }
+}
@@ -2,9 +2,11 @@ package com.example.miniautorizador.exception;
 
 import com.example.miniautorizador.dto.CartaoDto;
 import com.example.miniautorizador.enums.AutorizacaoErro;
+import org.springframework.context.annotation.Profile;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
@@ -18,22 +20,25 @@ import java.util.HashMap;
 import java.util.Map;
 
 @RestControllerAdvice
+@Profile("!reativo")
 public class GlobalExceptionHandler extends ResponseEntityExceptionHandler {
 
+    /**
+     * Mensagens compartilhadas com o {@code ReactiveExceptionHandler} e com os itens do lote de
+     * transações, que devolvem o mesmo texto no campo {@code resultado}.
+     */
+    public static final String MENSAGEM_CONFLITO = "Cartão com transações concorrentes, tente novamente";
+    public static final String MENSAGEM_ERRO_INTERNO = "Ocorreu um erro interno no servidor";
+
     @Override
     protected ResponseEntity<Object> handleMethodArgumentNotValid(
             MethodArgumentNotValidException ex, HttpHeaders headers, HttpStatus status, WebRequest request) {
 
         if (ex.getTarget() != null && ex.getTarget().getClass().getSimpleName().equals("TransacaoDto")) {
             for (FieldError error : ex.getBindingResult().getFieldErrors()) {
-                String field = error.getField();
-
-                if (field.equals("senhaCartao")) {
-                    return new ResponseEntity<>(AutorizacaoErro.SENHA_INVALIDA.toString(), HttpStatus.UNPROCESSABLE_ENTITY);
-                } else if (field.equals("numeroCartao")) {
-                    return new ResponseEntity<>(AutorizacaoErro.CARTAO_INEXISTENTE.toString(), HttpStatus.UNPROCESSABLE_ENTITY);
-                } else if (field.equals("valor")) {
-                    return new ResponseEntity<>(AutorizacaoErro.VALOR_INVALIDO.toString(), HttpStatus.UNPROCESSABLE_ENTITY);
+                AutorizacaoErro erro = AutorizacaoErro.doCampoInvalido(error.getField());
+                if (erro != null) {
+                    return new ResponseEntity<>(erro.toString(), HttpStatus.UNPROCESSABLE_ENTITY);
                 }
             }
         }
@@ -83,10 +88,42 @@ public class GlobalExceptionHandler extends ResponseEntityExceptionHandler {
         return new ResponseEntity<>(ex.getErro().toString(), HttpStatus.UNPROCESSABLE_ENTITY);
     }
 
+    @ExceptionHandler(LoteExcedidoException.class)
+    public ResponseEntity<Object> handleLoteExcedidoException(
+            LoteExcedidoException ex, WebRequest request) {
+        Map<String, String> error = new HashMap<>();
+        error.put("message", ex.getMessage());
+
+        return new ResponseEntity<>(error, HttpStatus.PAYLOAD_TOO_LARGE);
+    }
+
+    @ExceptionHandler(ObjectOptimisticLockingFailureException.class)
+    public ResponseEntity<Object> handleObjectOptimisticLockingFailureException(
+            ObjectOptimisticLockingFailureException ex, WebRequest request) {
+        Map<String, String> error = new HashMap<>();
+        error.put("message", MENSAGEM_CONFLITO);
+
+        return new ResponseEntity<>(error, HttpStatus.CONFLICT);
+    }
+
+    /**
+     * Fila do pool de BCrypt cheia: recusa imediata, com o tempo sugerido para a nova tentativa.
+     */
+    @ExceptionHandler(ServicoSobrecarregadoException.class)
+    public ResponseEntity<Object> handleServicoSobrecarregadoException(
+            ServicoSobrecarregadoException ex, WebRequest request) {
+        Map<String, String> error = new HashMap<>();
+        error.put("message", ex.getMessage());
+
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSegundos()))
+                .body(error);
+    }
+
     @ExceptionHandler(Exception.class)
     public ResponseEntity<Object> handleAllExceptions(Exception ex, WebRequest request) {
         Map<String, String> error = new HashMap<>();
-        error.put("message", "Ocorreu um erro interno no servidor");
+        error.put("message", MENSAGEM_ERRO_INTERNO);
         error.put("details", ex.getMessage());
 
         return new ResponseEntity<>(error, HttpStatus.INTERNAL_SERVER_ERROR);
@@ -0,0 +1,7 @@
+package com.example.miniautorizador.exception;
+
+public class LoteExcedidoException extends RuntimeException {
+    public LoteExcedidoException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.miniautorizador.exception;
+
+import lombok.Getter;
+
+/**
+ * Recusa imediata de trabalho por falta de capacidade; respondida com 503 e {@code Retry-After}.
+ */
+@Getter
+public class ServicoSobrecarregadoException extends RuntimeException {
+
+    private final long retryAfterSegundos;
+
+    public ServicoSobrecarregadoException(String message, long retryAfterSegundos) {
+        super(message);
+        this.retryAfterSegundos = retryAfterSegundos;
+    }
+
+}
@@ -0,0 +1,103 @@
+package com.example.miniautorizador.metrics;
+
+import com.example.miniautorizador.enums.AutorizacaoErro;
+import com.example.miniautorizador.exception.TransacaoNaoAutorizadaException;
+import com.example.miniautorizador.service.authorization.ResultadoAutorizacao;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mede o processamento das transações e conta os resultados das autorizações.
+ *
+ * O tempo de {@code TransacaoService.processarTransacao} é medido por fora de todos os outros
+ * aspectos, incluindo a espera pelo lock do cartão, as retentativas e o commit. Os resultados são
+ * contados no {@code AuthorizationEngine}, de modo que os dois motores são cobertos.
+ *
+ * A única tag é o resultado (OK, o código da recusa, CONFLITO ou ERRO), com valores fixos; os
+ * medidores são criados na inicialização e escolhidos por índice a cada transação.
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class AuthorizationMetricsAspect {
+
+    private static final int OK = 0;
+    private static final int CONFLITO = AutorizacaoErro.values().length + 1;
+    private static final int ERRO = CONFLITO + 1;
+
+    private final Timer[] tempoProcessamento = new Timer[ERRO + 1];
+    private final Counter[] autorizacoes = new Counter[ERRO + 1];
+
+    @Autowired
+    public AuthorizationMetricsAspect(MeterRegistry meterRegistry) {
+        for (int indice = 0; indice <= ERRO; indice++) {
+            String resultado = resultado(indice);
+            tempoProcessamento[indice] = Timer.builder("transacoes.processamento")
+                    .description("Tempo de processamento da transação, incluindo lock, retentativas e commit")
+                    .tag("resultado", resultado)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry);
+            autorizacoes[indice] = Counter.builder("transacoes.autorizacoes")
+                    .description("Transações processadas, por resultado")
+                    .tag("resultado", resultado)
+                    .register(meterRegistry);
+        }
+    }
+
+    @Around("execution(* com.example.miniautorizador.service.TransacaoService.processarTransacao(..))")
+    public Object medirProcessamento(ProceedingJoinPoint joinPoint) throws Throwable {
+        long inicio = System.nanoTime();
+        int indice = ERRO;
+        try {
+            Object resultado = joinPoint.proceed();
+            indice = indice((ResultadoAutorizacao) resultado);
+            return resultado;
+        } catch (Throwable e) {
+            indice = indice(e);
+            throw e;
+        } finally {
+            tempoProcessamento[indice].record(System.nanoTime() - inicio, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    @Around("execution(* com.example.miniautorizador.service.engine.AuthorizationEngine+.processarTransacao(..))")
+    public Object contarResultado(ProceedingJoinPoint joinPoint) throws Throwable {
+        try {
+            Object resultado = joinPoint.proceed();
+            autorizacoes[indice((ResultadoAutorizacao) resultado)].increment();
+            return resultado;
+        } catch (Throwable e) {
+            autorizacoes[indice(e)].increment();
+            throw e;
+        }
+    }
+
+    private static int indice(ResultadoAutorizacao resultado) {
+        return resultado.isAprovada() ? OK : resultado.getErro().ordinal() + 1;
+    }
+
+    private static int indice(Throwable e) {
+        if (e instanceof TransacaoNaoAutorizadaException) {
+            return ((TransacaoNaoAutorizadaException) e).getErro().ordinal() + 1;
+        }
+        return e instanceof ObjectOptimisticLockingFailureException ? CONFLITO : ERRO;
+    }
+
+    private static String resultado(int indice) {
+        if (indice == OK) {
+            return "OK";
+        }
+        return indice == CONFLITO ? "CONFLITO" : indice == ERRO ? "ERRO" : AutorizacaoErro.values()[indice - 1].toString();
+    }
+}
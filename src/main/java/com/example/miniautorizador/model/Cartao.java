@@ -1,12 +1,14 @@
 package com.example.miniautorizador.model;
 
 import com.example.miniautorizador.domain.CardNumber;
+import com.example.miniautorizador.domain.Cents;
 import com.example.miniautorizador.domain.Money;
 import com.example.miniautorizador.domain.Pin;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.springframework.security.crypto.password.PasswordEncoder;
 
 import javax.persistence.*;
 import java.math.BigDecimal;
@@ -64,17 +66,30 @@ public class Cartao {
         this.saldo = money.getAmount();
     }
 
-    public boolean verificarSenha(String senhaFornecida) {
-        return getSenhaVO().matches(senhaFornecida);
+    public boolean verificarSenha(String senhaFornecida, PasswordEncoder passwordEncoder) {
+        return getSenhaVO().matches(senhaFornecida, passwordEncoder);
     }
 
-    public Money debitarSaldo(Money valor) {
-        Money saldoAtual = getSaldoVO();
-        if (valor.isGreaterThan(saldoAtual)) {
+    public long getSaldoCentavos() {
+        return Cents.of(this.saldo);
+    }
+
+    public void setSaldoCentavos(long saldoCentavos) {
+        this.saldo = Cents.toBigDecimal(saldoCentavos);
+    }
+
+    /**
+     * Debita o valor do saldo, em centavos.
+     *
+     * @return O saldo resultante em centavos
+     */
+    public long debitarSaldo(long valorCentavos) {
+        long saldoAtual = getSaldoCentavos();
+        if (valorCentavos > saldoAtual) {
             throw new IllegalArgumentException("Saldo insuficiente");
         }
-        Money novoSaldo = saldoAtual.subtract(valor);
-        setSaldoFromVO(novoSaldo);
+        long novoSaldo = Cents.subtract(saldoAtual, valorCentavos);
+        setSaldoCentavos(novoSaldo);
         return novoSaldo;
     }
 }
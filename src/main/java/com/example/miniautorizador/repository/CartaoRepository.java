@@ -2,8 +2,15 @@ package com.example.miniautorizador.repository;
 
 import com.example.miniautorizador.model.Cartao;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import javax.persistence.LockModeType;
+import java.math.BigDecimal;
+
 /**
  * Repositório para operações de persistência da entidade Cartao.
  */
@@ -17,4 +24,36 @@ public interface CartaoRepository extends JpaRepository<Cartao, Long> {
      * @return o cartão encontrado ou null se não existir
      */
     Cartao findByNumeroCartao(String numeroCartao);
-}
\ No newline at end of file
+
+    /**
+     * Busca um cartão pelo seu número, bloqueando a linha até o fim da transação (SELECT ... FOR UPDATE).
+     *
+     * @param numeroCartao o número do cartão a ser buscado
+     * @return o cartão encontrado ou null se não existir
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT c FROM Cartao c WHERE c.numeroCartao = :numeroCartao")
+    Cartao findByNumeroCartaoForUpdate(@Param("numeroCartao") String numeroCartao);
+
+    /**
+     * Debita o valor do saldo em um único UPDATE condicional, somente se houver saldo suficiente.
+     * A versão é incrementada para que escritas otimistas concorrentes detectem a alteração.
+     *
+     * @param numeroCartao o número do cartão
+     * @param valor o valor a ser debitado
+     * @return a quantidade de linhas alteradas (0 se o saldo for insuficiente ou o cartão não existir)
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Cartao c SET c.saldo = c.saldo - :valor, c.version = c.version + 1 "
+            + "WHERE c.numeroCartao = :numeroCartao AND c.saldo >= :valor")
+    int debitarSaldoSeSuficiente(@Param("numeroCartao") String numeroCartao, @Param("valor") BigDecimal valor);
+
+    /**
+     * Lê apenas o saldo de um cartão, sem carregar a entidade.
+     *
+     * @param numeroCartao o número do cartão
+     * @return o saldo ou null se o cartão não existir
+     */
+    @Query("SELECT c.saldo FROM Cartao c WHERE c.numeroCartao = :numeroCartao")
+    BigDecimal findSaldoByNumeroCartao(@Param("numeroCartao") String numeroCartao);
+}
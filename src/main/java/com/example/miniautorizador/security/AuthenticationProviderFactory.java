@@ -0,0 +1,57 @@
+package com.example.miniautorizador.security;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.authentication.AuthenticationProvider;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.provisioning.InMemoryUserDetailsManager;
+import org.springframework.stereotype.Component;
+
+/**
+ * Cria o provedor de autenticação dos usuários em memória, envolvido pelo cache de credenciais
+ * quando habilitado. Compartilhado pelas configurações de segurança do servlet e do perfil reativo.
+ */
+@Component
+public class AuthenticationProviderFactory {
+
+    private final PasswordEncoder passwordEncoder = new BCryptPasswordEncoder();
+    private final boolean cacheCredenciaisHabilitado;
+    private final long cacheCredenciaisTamanhoMaximo;
+    private final long cacheCredenciaisTtlSegundos;
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+
+    @Autowired
+    public AuthenticationProviderFactory(
+            @Value("${seguranca.credenciais.cache.habilitado:true}") boolean cacheCredenciaisHabilitado,
+            @Value("${seguranca.credenciais.cache.tamanho-maximo:1000}") long cacheCredenciaisTamanhoMaximo,
+            @Value("${seguranca.credenciais.cache.ttl-segundos:300}") long cacheCredenciaisTtlSegundos,
+            ObjectProvider<MeterRegistry> meterRegistry) {
+        this.cacheCredenciaisHabilitado = cacheCredenciaisHabilitado;
+        this.cacheCredenciaisTamanhoMaximo = cacheCredenciaisTamanhoMaximo;
+        this.cacheCredenciaisTtlSegundos = cacheCredenciaisTtlSegundos;
+        this.meterRegistry = meterRegistry;
+    }
+
+    public AuthenticationProvider criar() {
+        DaoAuthenticationProvider daoProvider = new DaoAuthenticationProvider();
+        daoProvider.setPasswordEncoder(passwordEncoder);
+        daoProvider.setUserDetailsService(new InMemoryUserDetailsManager(User.withUsername("user")
+                .password(passwordEncoder.encode("password"))
+                .roles("USER")
+                .build()));
+
+        if (!cacheCredenciaisHabilitado) {
+            return daoProvider;
+        }
+
+        CachingAuthenticationProvider cachingProvider = new CachingAuthenticationProvider(
+                daoProvider, cacheCredenciaisTamanhoMaximo, cacheCredenciaisTtlSegundos);
+        meterRegistry.ifAvailable(cachingProvider::bindTo);
+        return cachingProvider;
+    }
+}
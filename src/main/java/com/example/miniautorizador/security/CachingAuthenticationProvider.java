@@ -0,0 +1,68 @@
+package com.example.miniautorizador.security;
+
+import com.example.miniautorizador.cache.KeyedDigest;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.security.authentication.AuthenticationProvider;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.AuthenticationException;
+
+import java.time.Duration;
+
+/**
+ * Decorador de {@link AuthenticationProvider} que memoriza autenticações bem-sucedidas.
+ *
+ * A chave é o HMAC do usuário e da senha recebidos no cabeçalho Basic, com chave secreta
+ * mantida apenas em memória. Em regime, cada requisição custa uma consulta ao cache em vez
+ * de uma rodada de BCrypt. Falhas nunca são armazenadas.
+ */
+public class CachingAuthenticationProvider implements AuthenticationProvider, MeterBinder {
+
+    static final String CACHE_NAME = "authenticatedCredentials";
+
+    private final AuthenticationProvider delegate;
+    private final Cache<String, Authentication> cache;
+    private final KeyedDigest keyedDigest = new KeyedDigest();
+
+    public CachingAuthenticationProvider(AuthenticationProvider delegate, long tamanhoMaximo, long ttlSegundos) {
+        this.delegate = delegate;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(tamanhoMaximo)
+                .expireAfterWrite(Duration.ofSeconds(ttlSegundos))
+                .recordStats()
+                .build();
+    }
+
+    @Override
+    public Authentication authenticate(Authentication authentication) throws AuthenticationException {
+        if (!(authentication instanceof UsernamePasswordAuthenticationToken) || authentication.getCredentials() == null) {
+            return delegate.authenticate(authentication);
+        }
+
+        String chave = keyedDigest.digest(authentication.getName(), authentication.getCredentials().toString());
+        Authentication autenticado = cache.getIfPresent(chave);
+        if (autenticado != null) {
+            return autenticado;
+        }
+
+        autenticado = delegate.authenticate(authentication);
+        if (autenticado != null && autenticado.isAuthenticated()) {
+            cache.put(chave, autenticado);
+        }
+        return autenticado;
+    }
+
+    @Override
+    public boolean supports(Class<?> authentication) {
+        return delegate.supports(authentication);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, cache, CACHE_NAME);
+    }
+}
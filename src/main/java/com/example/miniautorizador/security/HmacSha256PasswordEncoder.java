@@ -0,0 +1,71 @@
+package com.example.miniautorizador.security;
+
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Base64;
+
+/**
+ * HMAC-SHA256 da senha com uma chave do servidor (pepper) e um sal aleatório por hash, no formato
+ * {@code sal$hmac} em Base64.
+ *
+ * Com PINs de 4 a 6 dígitos, o custo de um hash lento não impede a busca exaustiva de quem obtém
+ * a tabela: a proteção é a chave, que não fica no banco. A verificação custa microssegundos.
+ */
+public class HmacSha256PasswordEncoder implements PasswordEncoder {
+
+    private static final String ALGORITMO = "HmacSHA256";
+    private static final int TAMANHO_SAL = 16;
+
+    private final SecretKeySpec chave;
+    private final SecureRandom secureRandom = new SecureRandom();
+
+    public HmacSha256PasswordEncoder(byte[] chave) {
+        if (chave == null || chave.length < 16) {
+            throw new IllegalArgumentException("A chave do HMAC das senhas deve ter ao menos 16 bytes");
+        }
+        this.chave = new SecretKeySpec(chave, ALGORITMO);
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        byte[] sal = new byte[TAMANHO_SAL];
+        secureRandom.nextBytes(sal);
+        Base64.Encoder base64 = Base64.getEncoder();
+        return base64.encodeToString(sal) + "$" + base64.encodeToString(hmac(sal, rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        if (rawPassword == null || encodedPassword == null) {
+            return false;
+        }
+        int separador = encodedPassword.indexOf('$');
+        if (separador < 0) {
+            return false;
+        }
+        try {
+            byte[] sal = Base64.getDecoder().decode(encodedPassword.substring(0, separador));
+            byte[] esperado = Base64.getDecoder().decode(encodedPassword.substring(separador + 1));
+            return MessageDigest.isEqual(esperado, hmac(sal, rawPassword));
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    private byte[] hmac(byte[] sal, CharSequence rawPassword) {
+        try {
+            Mac mac = Mac.getInstance(ALGORITMO);
+            mac.init(chave);
+            mac.update(sal);
+            return mac.doFinal(rawPassword.toString().getBytes(StandardCharsets.UTF_8));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HMAC-SHA256 indisponível", e);
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.example.miniautorizador.security;
+
+import com.example.miniautorizador.domain.Pin;
+import com.example.miniautorizador.model.Cartao;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.argon2.Argon2PasswordEncoder;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Hash das senhas de cartão, com o algoritmo de {@code cartao.senha.algoritmo}: {@code bcrypt}
+ * (custo {@code cartao.senha.bcrypt.custo}), {@code hmac-sha256} (chave
+ * {@code cartao.senha.hmac.chave}, em Base64) ou {@code argon2}.
+ *
+ * Os hashes levam o prefixo do algoritmo que os gerou ({@code {bcrypt}}, {@code {hmac-sha256}},
+ * {@code {argon2}}), de modo que a troca do algoritmo dos novos hashes não invalida os anteriores:
+ * os de todos os algoritmos continuam sendo verificados, o HMAC apenas se a chave estiver
+ * configurada. Hashes sem prefixo são os BCrypt gravados antes dos prefixos. Hashes de outro
+ * algoritmo, ou com parâmetros mais fracos, são refeitos na próxima verificação bem-sucedida, se
+ * {@code cartao.senha.rehash.habilitado}.
+ */
+@Component
+public class PinHasher {
+
+    static final String BCRYPT = "bcrypt";
+    static final String HMAC_SHA256 = "hmac-sha256";
+    static final String ARGON2 = "argon2";
+
+    private final PasswordEncoder passwordEncoder;
+    private final String prefixoFormatoAtual;
+
+    @Autowired
+    public PinHasher(@Value("${cartao.senha.algoritmo:bcrypt}") String algoritmo,
+                     @Value("${cartao.senha.bcrypt.custo:10}") int custoBcrypt,
+                     @Value("${cartao.senha.hmac.chave:}") String chaveHmac,
+                     @Value("${cartao.senha.argon2.memoria-kb:4096}") int memoriaArgon2,
+                     @Value("${cartao.senha.argon2.iteracoes:3}") int iteracoesArgon2,
+                     @Value("${cartao.senha.argon2.paralelismo:1}") int paralelismoArgon2) {
+        Map<String, PasswordEncoder> encoders = new HashMap<>();
+        encoders.put(BCRYPT, new BCryptPasswordEncoder(custoBcrypt));
+        encoders.put(ARGON2, new Argon2PasswordEncoder(16, 32, paralelismoArgon2, memoriaArgon2, iteracoesArgon2));
+        if (!chaveHmac.isEmpty()) {
+            encoders.put(HMAC_SHA256, new HmacSha256PasswordEncoder(Base64.getDecoder().decode(chaveHmac)));
+        }
+
+        if (!encoders.containsKey(algoritmo)) {
+            throw new IllegalStateException(HMAC_SHA256.equals(algoritmo)
+                    ? "cartao.senha.algoritmo=hmac-sha256 requer cartao.senha.hmac.chave"
+                    : "Algoritmo de senha desconhecido: " + algoritmo);
+        }
+        DelegatingPasswordEncoder delegating = new DelegatingPasswordEncoder(algoritmo, encoders);
+        delegating.setDefaultPasswordEncoderForMatches(encoders.get(BCRYPT));
+        this.passwordEncoder = delegating;
+
+        if (BCRYPT.equals(algoritmo)) {
+            prefixoFormatoAtual = String.format("{%s}$2a$%02d$", BCRYPT, custoBcrypt);
+        } else if (ARGON2.equals(algoritmo)) {
+            prefixoFormatoAtual = String.format("{%s}$argon2id$v=19$m=%d,t=%d,p=%d$",
+                    ARGON2, memoriaArgon2, iteracoesArgon2, paralelismoArgon2);
+        } else {
+            prefixoFormatoAtual = "{" + HMAC_SHA256 + "}";
+        }
+    }
+
+    /**
+     * Valida a senha e calcula o seu hash com o algoritmo atual.
+     *
+     * @throws IllegalArgumentException Se a senha não tiver de 4 a 6 dígitos
+     */
+    public Pin criar(String senha) {
+        return Pin.of(senha, passwordEncoder);
+    }
+
+    /**
+     * Verifica a senha fornecida contra o hash do cartão, qualquer que seja o algoritmo dele.
+     */
+    public boolean verificar(Cartao cartao, String senhaFornecida) {
+        return cartao.verificarSenha(senhaFornecida, passwordEncoder);
+    }
+
+    /**
+     * Indica se o hash do cartão foi gerado por outro algoritmo, ou com parâmetros mais fracos,
+     * que os atuais.
+     */
+    public boolean precisaRehash(Cartao cartao) {
+        return cartao.getSenhaVO().precisaRehash(passwordEncoder);
+    }
+
+    /**
+     * Início comum a todos os hashes gerados com o algoritmo e os parâmetros atuais; os hashes
+     * que não começam por ele estão em um formato anterior.
+     */
+    public String getPrefixoFormatoAtual() {
+        return prefixoFormatoAtual;
+    }
+}
@@ -0,0 +1,245 @@
+package com.example.miniautorizador.security;
+
+import com.example.miniautorizador.exception.ServicoSobrecarregadoException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Pool dedicado ao BCrypt das senhas de cartão: o cálculo dos hashes na emissão e a verificação
+ * nas autorizações.
+ *
+ * A thread da requisição entrega o trabalho ao pool e aguarda o resultado; assim, o número de
+ * BCrypts simultâneos não depende do número de requisições (nem de threads virtuais). As
+ * verificações das autorizações passam na frente dos hashes da emissão, e cada prioridade tem a
+ * sua fila limitada: com a fila cheia, o trabalho é recusado na hora com
+ * {@link ServicoSobrecarregadoException} (503 com {@code Retry-After}), em vez de esperar e
+ * aumentar a latência de todos.
+ *
+ * Quem não pode bloquear (o perfil reativo) entrega o trabalho com {@link #submeter} e recebe um
+ * {@link CompletableFuture}. A emissão em lote tem a sua própria prioridade, atrás das demais, e
+ * espera por uma vaga na fila com {@link #submeterAguardandoVaga} em vez de ser recusada. Um trabalho que já roda no pool e chama {@link #executar} executa a
+ * tarefa na própria thread, sem ocupar outra vaga.
+ */
+@Component
+public class PinHashingExecutor {
+
+    /**
+     * Prioridade do trabalho, na ordem em que é atendido.
+     */
+    public enum Prioridade {
+        AUTORIZACAO,
+        EMISSAO,
+        EMISSAO_LOTE
+    }
+
+    private final ThreadPoolExecutor executor;
+    private final int[] capacidades = new int[Prioridade.values().length];
+    private final Semaphore[] vagas = new Semaphore[Prioridade.values().length];
+    private final Counter[] recusas = new Counter[Prioridade.values().length];
+    private final AtomicLong sequencia = new AtomicLong();
+    private final long retryAfterSegundos;
+
+    @Autowired
+    public PinHashingExecutor(@Value("${cartao.senha.hash.threads:0}") int threads,
+                              @Value("${cartao.senha.hash.fila.autorizacao:1000}") int filaAutorizacao,
+                              @Value("${cartao.senha.hash.fila.emissao:100}") int filaEmissao,
+                              @Value("${cartao.senha.hash.fila.emissao-lote:100}") int filaEmissaoLote,
+                              @Value("${cartao.senha.hash.retry-after-segundos:1}") long retryAfterSegundos,
+                              MeterRegistry meterRegistry) {
+        int limite = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger contador = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(limite, limite, 0L, TimeUnit.MILLISECONDS,
+                new PriorityBlockingQueue<>(), r -> {
+                    Thread thread = new ThreadHash(this, r, "senha-hash-" + contador.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        this.retryAfterSegundos = retryAfterSegundos;
+        capacidades[Prioridade.AUTORIZACAO.ordinal()] = filaAutorizacao;
+        capacidades[Prioridade.EMISSAO.ordinal()] = filaEmissao;
+        capacidades[Prioridade.EMISSAO_LOTE.ordinal()] = filaEmissaoLote;
+
+        for (Prioridade prioridade : Prioridade.values()) {
+            String tag = prioridade.name().toLowerCase();
+            int capacidade = capacidades[prioridade.ordinal()];
+            Semaphore fila = new Semaphore(capacidade);
+            vagas[prioridade.ordinal()] = fila;
+            Gauge.builder("cartao.senha.hash.fila", fila, f -> capacidade - f.availablePermits())
+                    .description("Trabalhos de BCrypt aguardando uma thread do pool")
+                    .tag("prioridade", tag)
+                    .register(meterRegistry);
+            recusas[prioridade.ordinal()] = Counter.builder("cartao.senha.hash.recusas")
+                    .description("Trabalhos de BCrypt recusados com a fila cheia")
+                    .tag("prioridade", tag)
+                    .register(meterRegistry);
+        }
+    }
+
+    /**
+     * Executa o cálculo ou a verificação de um hash no pool e aguarda o resultado.
+     *
+     * @param prioridade A prioridade do trabalho
+     * @param tarefa O trabalho de BCrypt
+     * @return O resultado da tarefa
+     * @throws ServicoSobrecarregadoException Se a fila da prioridade estiver cheia
+     */
+    public <T> T executar(Prioridade prioridade, Supplier<T> tarefa) {
+        Thread atual = Thread.currentThread();
+        if (atual instanceof ThreadHash && ((ThreadHash) atual).pool == this) {
+            return tarefa.get();
+        }
+
+        TarefaHash<T> trabalho = enfileirar(prioridade, tarefa);
+        try {
+            return trabalho.get();
+        } catch (InterruptedException e) {
+            trabalho.cancel(false);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrompido aguardando a verificação da senha", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    /**
+     * Entrega um cálculo ou verificação de hash ao pool sem aguardar o resultado.
+     *
+     * @param prioridade A prioridade do trabalho
+     * @param tarefa O trabalho de BCrypt
+     * @return O resultado da tarefa, concluído por uma thread do pool; cancelá-lo descarta o
+     * trabalho que ainda não começou
+     * @throws ServicoSobrecarregadoException Se a fila da prioridade estiver cheia
+     */
+    public <T> CompletableFuture<T> submeter(Prioridade prioridade, Supplier<T> tarefa) {
+        return enfileirar(prioridade, tarefa).resultado;
+    }
+
+    /**
+     * Entrega um trabalho ao pool, aguardando uma vaga na fila da prioridade se ela estiver cheia.
+     * Para trabalhos em lote, que preferem esperar a serem recusados no meio do caminho.
+     *
+     * @param prioridade A prioridade do trabalho
+     * @param tarefa O trabalho de BCrypt
+     * @return O resultado da tarefa, concluído por uma thread do pool
+     * @throws InterruptedException Se interrompido enquanto aguarda a vaga
+     */
+    public <T> CompletableFuture<T> submeterAguardandoVaga(Prioridade prioridade, Supplier<T> tarefa)
+            throws InterruptedException {
+        Semaphore fila = vagas[prioridade.ordinal()];
+        fila.acquire();
+        return enviar(prioridade, tarefa, fila).resultado;
+    }
+
+    private <T> TarefaHash<T> enfileirar(Prioridade prioridade, Supplier<T> tarefa) {
+        Semaphore fila = vagas[prioridade.ordinal()];
+        if (!fila.tryAcquire()) {
+            recusas[prioridade.ordinal()].increment();
+            throw new ServicoSobrecarregadoException("Capacidade de verificação de senhas esgotada, tente novamente",
+                    retryAfterSegundos);
+        }
+        return enviar(prioridade, tarefa, fila);
+    }
+
+    private <T> TarefaHash<T> enviar(Prioridade prioridade, Supplier<T> tarefa, Semaphore fila) {
+        TarefaHash<T> trabalho = new TarefaHash<>(prioridade, sequencia.getAndIncrement(), tarefa, fila);
+        executor.execute(trabalho);
+        return trabalho;
+    }
+
+    public int getAguardando(Prioridade prioridade) {
+        return capacidades[prioridade.ordinal()] - vagas[prioridade.ordinal()].availablePermits();
+    }
+
+    int tarefasNaFila() {
+        return executor.getQueue().size();
+    }
+
+    @PreDestroy
+    public void encerrar() {
+        executor.shutdown();
+    }
+
+    private static final class ThreadHash extends Thread {
+
+        private final PinHashingExecutor pool;
+
+        ThreadHash(PinHashingExecutor pool, Runnable r, String nome) {
+            super(r, nome);
+            this.pool = pool;
+        }
+    }
+
+    /**
+     * Trabalho ordenado por prioridade e, na mesma prioridade, por ordem de chegada.
+     */
+    private static final class TarefaHash<T> extends FutureTask<T> implements Comparable<TarefaHash<?>> {
+
+        private final Prioridade prioridade;
+        private final long sequencia;
+        private final Semaphore fila;
+        private final CompletableFuture<T> resultado = new CompletableFuture<>();
+
+        TarefaHash(Prioridade prioridade, long sequencia, Supplier<T> tarefa, Semaphore fila) {
+            super(tarefa::get);
+            this.prioridade = prioridade;
+            this.sequencia = sequencia;
+            this.fila = fila;
+            resultado.whenComplete((valor, erro) -> {
+                if (resultado.isCancelled()) {
+                    cancel(false);
+                }
+            });
+        }
+
+        @Override
+        protected void done() {
+            if (isCancelled()) {
+                resultado.cancel(false);
+                return;
+            }
+            try {
+                resultado.complete(get());
+            } catch (ExecutionException e) {
+                resultado.completeExceptionally(e.getCause());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                resultado.completeExceptionally(e);
+            }
+        }
+
+        @Override
+        public void run() {
+            // Também para tarefas canceladas: deixam a fila ao serem retiradas dela
+            fila.release();
+            super.run();
+        }
+
+        @Override
+        public int compareTo(TarefaHash<?> outra) {
+            int comparacao = prioridade.compareTo(outra.prioridade);
+            return comparacao != 0 ? comparacao : Long.compare(sequencia, outra.sequencia);
+        }
+    }
+}
@@ -0,0 +1,231 @@
+package com.example.miniautorizador.service;
+
+import com.example.miniautorizador.domain.CardNumber;
+import com.example.miniautorizador.domain.Money;
+import com.example.miniautorizador.domain.Pin;
+import com.example.miniautorizador.dto.BlocoEmissaoDto;
+import com.example.miniautorizador.dto.CartaoDto;
+import com.example.miniautorizador.dto.EmissaoLoteDto;
+import com.example.miniautorizador.event.CartaoCriadoEvent;
+import com.example.miniautorizador.model.Cartao;
+import com.example.miniautorizador.security.PinHasher;
+import com.example.miniautorizador.security.PinHashingExecutor;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.validation.Validator;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Emissão de cartões em lote, a partir de um array JSON ou de NDJSON lido em fluxo.
+ *
+ * O conteúdo é processado em blocos de tamanho fixo. Em cada bloco, os cartões já existentes são
+ * descartados com uma única consulta, os hashes das senhas são calculados em paralelo no
+ * {@link PinHashingExecutor} e a gravação é feita em um único INSERT em lote do JDBC, sem passar
+ * pelo Hibernate (a chave {@code IDENTITY} impede o batch de inserts do JPA).
+ */
+@Slf4j
+@Service
+public class CartaoEmissaoLoteService {
+
+    private static final String CONSULTA_EXISTENTES = "SELECT numero_cartao FROM cartoes WHERE numero_cartao IN (%s)";
+    private static final String INSERE_CARTAO =
+            "INSERT INTO cartoes (numero_cartao, senha, saldo, version) VALUES (?, ?, ?, 0)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final Money saldoInicial;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int tamanhoBloco;
+    private final PinHashingExecutor pinHashingExecutor;
+    private final PinHasher pinHasher;
+    private final boolean verificarLuhn;
+
+    @Autowired
+    public CartaoEmissaoLoteService(JdbcTemplate jdbcTemplate,
+                                    PlatformTransactionManager transactionManager,
+                                    ObjectMapper objectMapper,
+                                    Validator validator,
+                                    Money saldoInicial,
+                                    ApplicationEventPublisher eventPublisher,
+                                    @Value("${cartao.emissao.lote.tamanho-bloco:1000}") int tamanhoBloco,
+                                    PinHashingExecutor pinHashingExecutor,
+                                    PinHasher pinHasher,
+                                    @Value("${cartao.numero.luhn.habilitado:false}") boolean verificarLuhn) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.saldoInicial = saldoInicial;
+        this.eventPublisher = eventPublisher;
+        this.tamanhoBloco = tamanhoBloco;
+        this.pinHashingExecutor = pinHashingExecutor;
+        this.pinHasher = pinHasher;
+        this.verificarLuhn = verificarLuhn;
+    }
+
+    /**
+     * Emite os cartões lidos do conteúdo, bloco a bloco.
+     *
+     * @param conteudo Array JSON ou NDJSON de {@link CartaoDto}
+     * @return As contagens totais e por bloco
+     */
+    public EmissaoLoteDto emitir(InputStream conteudo) throws IOException {
+        EmissaoLoteDto resultado = new EmissaoLoteDto();
+        List<CartaoDto> bloco = new ArrayList<>(tamanhoBloco);
+        int lidos = 0;
+
+        try (MappingIterator<CartaoDto> cartoes = objectMapper.readerFor(CartaoDto.class).readValues(conteudo)) {
+            while (cartoes.hasNextValue()) {
+                bloco.add(cartoes.nextValue());
+                lidos++;
+                if (bloco.size() == tamanhoBloco) {
+                    resultado.adicionar(processarBloco(resultado.getBlocos().size() + 1, bloco));
+                    bloco = new ArrayList<>(tamanhoBloco);
+                }
+            }
+        } catch (JsonProcessingException e) {
+            resultado.setErro(String.format("Conteúdo inválido após %d cartões: %s", lidos, e.getOriginalMessage()));
+        }
+
+        if (!bloco.isEmpty()) {
+            resultado.adicionar(processarBloco(resultado.getBlocos().size() + 1, bloco));
+        }
+        return resultado;
+    }
+
+    private BlocoEmissaoDto processarBloco(int numeroBloco, List<CartaoDto> bloco) {
+        int invalidos = 0;
+        int duplicados = 0;
+        Map<String, String> senhasPorNumero = new LinkedHashMap<>();
+        for (CartaoDto cartaoDto : bloco) {
+            if (cartaoDto == null || !validator.validate(cartaoDto).isEmpty()
+                    || verificarLuhn && !CardNumber.of(cartaoDto.getNumeroCartao()).isLuhnValido()) {
+                invalidos++;
+            } else if (senhasPorNumero.putIfAbsent(CardNumber.of(cartaoDto.getNumeroCartao()).getValue(),
+                    cartaoDto.getSenha()) != null) {
+                duplicados++;
+            }
+        }
+
+        duplicados += removerExistentes(senhasPorNumero.keySet());
+        List<Cartao> novos = criarCartoes(senhasPorNumero);
+
+        int criados;
+        try {
+            criados = inserir(novos);
+        } catch (DuplicateKeyException e) {
+            // Outro emissor gravou algum dos números depois da consulta: refaz a deduplicação uma vez
+            Set<String> numeros = new HashSet<>();
+            novos.forEach(cartao -> numeros.add(cartao.getNumeroCartao()));
+            int concorrentes = removerExistentes(numeros);
+            novos.removeIf(cartao -> !numeros.contains(cartao.getNumeroCartao()));
+            duplicados += concorrentes;
+            criados = inserir(novos);
+        }
+
+        log.info("Bloco {} da emissão em lote: {} criados, {} duplicados, {} inválidos",
+                numeroBloco, criados, duplicados, invalidos);
+        return new BlocoEmissaoDto(numeroBloco, criados, duplicados, invalidos);
+    }
+
+    /**
+     * Remove do conjunto os números já cadastrados, com uma única consulta.
+     *
+     * @return A quantidade de números removidos
+     */
+    private int removerExistentes(Set<String> numeros) {
+        if (numeros.isEmpty()) {
+            return 0;
+        }
+
+        String marcadores = String.join(",", Collections.nCopies(numeros.size(), "?"));
+        List<String> existentes = jdbcTemplate.queryForList(
+                String.format(CONSULTA_EXISTENTES, marcadores), String.class, numeros.toArray());
+        int removidos = 0;
+        for (String existente : existentes) {
+            if (numeros.remove(existente)) {
+                removidos++;
+            }
+        }
+        return removidos;
+    }
+
+    /**
+     * Cria os cartões entregando os hashes das senhas ao {@link PinHashingExecutor}, com a
+     * prioridade da emissão em lote. Com a fila do lote cheia, a leitura aguarda uma vaga: o lote
+     * não é interrompido depois de gravar parte dos blocos, e as emissões avulsas, com a sua
+     * própria fila, continuam sendo atendidas antes.
+     */
+    private List<Cartao> criarCartoes(Map<String, String> senhasPorNumero) {
+        List<CompletableFuture<Pin>> pins = new ArrayList<>(senhasPorNumero.size());
+        try {
+            for (String senha : senhasPorNumero.values()) {
+                pins.add(pinHashingExecutor.submeterAguardandoVaga(PinHashingExecutor.Prioridade.EMISSAO_LOTE,
+                        () -> pinHasher.criar(senha)));
+            }
+            CompletableFuture.allOf(pins.toArray(new CompletableFuture[0])).get();
+        } catch (InterruptedException e) {
+            pins.forEach(pin -> pin.cancel(false));
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Emissão em lote interrompida", e);
+        } catch (ExecutionException e) {
+            pins.forEach(pin -> pin.cancel(false));
+            throw new IllegalStateException("Falha ao calcular os hashes das senhas", e.getCause());
+        }
+
+        List<Cartao> novos = new ArrayList<>(pins.size());
+        int i = 0;
+        for (String numeroCartao : senhasPorNumero.keySet()) {
+            novos.add(Cartao.builder()
+                    .numeroCartao(numeroCartao)
+                    .senha(pins.get(i++).join().getHashedValue())
+                    .saldo(saldoInicial.getAmount())
+                    .build());
+        }
+        return novos;
+    }
+
+    /**
+     * Grava os cartões em um INSERT em lote, em uma transação, e publica a criação de cada um
+     * (entregue aos ouvintes após o commit).
+     */
+    private int inserir(List<Cartao> cartoes) {
+        if (cartoes.isEmpty()) {
+            return 0;
+        }
+
+        List<Object[]> parametros = new ArrayList<>(cartoes.size());
+        for (Cartao cartao : cartoes) {
+            parametros.add(new Object[]{cartao.getNumeroCartao(), cartao.getSenha(), cartao.getSaldo()});
+        }
+
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.batchUpdate(INSERE_CARTAO, parametros);
+            cartoes.forEach(cartao -> eventPublisher.publishEvent(new CartaoCriadoEvent(cartao)));
+        });
+        return cartoes.size();
+    }
+}
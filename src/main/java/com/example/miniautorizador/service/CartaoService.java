@@ -1,29 +1,74 @@
 package com.example.miniautorizador.service;
 
+import com.example.miniautorizador.cache.BalanceCache;
+import com.example.miniautorizador.cache.CardExistenceFilter;
 import com.example.miniautorizador.domain.CardNumber;
+import com.example.miniautorizador.domain.Cents;
 import com.example.miniautorizador.domain.Money;
 import com.example.miniautorizador.domain.Pin;
 import com.example.miniautorizador.dto.CartaoDto;
+import com.example.miniautorizador.event.CartaoCriadoEvent;
 import com.example.miniautorizador.exception.CartaoJaExistenteException;
 import com.example.miniautorizador.exception.CartaoNaoEncontradoException;
 import com.example.miniautorizador.model.Cartao;
 import com.example.miniautorizador.repository.CartaoRepository;
+import com.example.miniautorizador.security.PinHasher;
+import com.example.miniautorizador.security.PinHashingExecutor;
+import com.example.miniautorizador.service.ledger.BalanceLedger;
+import com.example.miniautorizador.service.ledger.LedgerAccount;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
 
 @Service
 public class CartaoService {
 
+    private static final String CONSULTA_SALDO = "SELECT saldo FROM cartoes WHERE numero_cartao = ?";
+
     private final CartaoRepository cartaoRepository;
     private final Money saldoInicial;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ObjectProvider<BalanceLedger> balanceLedger;
+    private final BalanceCache balanceCache;
+    private final ObjectProvider<CardExistenceFilter> cardExistenceFilter;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transacaoLeitura;
+    private final boolean consultaSemTransacao;
+    private final PinHashingExecutor pinHashingExecutor;
+    private final PinHasher pinHasher;
+    private final boolean verificarLuhn;
 
     @Autowired
-    public CartaoService(CartaoRepository cartaoRepository, Money saldoInicial) {
+    public CartaoService(CartaoRepository cartaoRepository, Money saldoInicial,
+                         ApplicationEventPublisher eventPublisher, ObjectProvider<BalanceLedger> balanceLedger,
+                         BalanceCache balanceCache, ObjectProvider<CardExistenceFilter> cardExistenceFilter,
+                         JdbcTemplate jdbcTemplate,
+                         PlatformTransactionManager transactionManager,
+                         @Value("${cartao.saldo.consulta.sem-transacao:false}") boolean consultaSemTransacao,
+                         PinHashingExecutor pinHashingExecutor,
+                         PinHasher pinHasher,
+                         @Value("${cartao.numero.luhn.habilitado:false}") boolean verificarLuhn) {
         this.cartaoRepository = cartaoRepository;
         this.saldoInicial = saldoInicial;
+        this.eventPublisher = eventPublisher;
+        this.balanceLedger = balanceLedger;
+        this.balanceCache = balanceCache;
+        this.cardExistenceFilter = cardExistenceFilter;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transacaoLeitura = new TransactionTemplate(transactionManager);
+        this.transacaoLeitura.setReadOnly(true);
+        this.consultaSemTransacao = consultaSemTransacao;
+        this.pinHashingExecutor = pinHashingExecutor;
+        this.pinHasher = pinHasher;
+        this.verificarLuhn = verificarLuhn;
     }
 
     @Transactional
@@ -39,22 +84,70 @@ public class CartaoService {
 
         Cartao novoCartao = criarNovoCartao(cartaoDto);
         salvarCartao(novoCartao);
+        eventPublisher.publishEvent(new CartaoCriadoEvent(novoCartao));
 
         return cartaoDto;
     }
 
-    @Transactional(readOnly = true)
+    /**
+     * Retorna o saldo do cartão. Com o motor em memória, o saldo vem do ledger; com o motor padrão,
+     * do {@link BalanceCache}, que consulta o banco apenas na primeira leitura do cartão. Cartões
+     * que o {@link CardExistenceFilter} descarta não chegam ao banco.
+     */
     public BigDecimal obterSaldo(String numeroCartao) {
         if (numeroCartao == null) {
             throw new IllegalArgumentException("Número do cartão não pode ser nulo");
         }
 
-        Cartao cartao = buscarCartaoPorNumero(numeroCartao);
-        if (cartao == null) {
+        BalanceLedger ledger = balanceLedger.getIfAvailable();
+        if (ledger != null) {
+            return obterSaldoEmMemoria(ledger, numeroCartao);
+        }
+
+        CardExistenceFilter filtro = cardExistenceFilter.getIfAvailable();
+        if (filtro != null && !filtro.podeExistir(numeroCartao)) {
+            throw new CartaoNaoEncontradoException("Cartão não encontrado");
+        }
+
+        long geracao = filtro != null ? filtro.iniciarConsulta() : 0;
+        Long saldoCentavos = balanceCache.buscar(numeroCartao, this::carregarSaldo);
+        if (saldoCentavos == null) {
+            if (filtro != null) {
+                filtro.registrarInexistente(numeroCartao, geracao);
+            }
+            throw new CartaoNaoEncontradoException("Cartão não encontrado");
+        }
+
+        return Cents.toBigDecimal(saldoCentavos);
+    }
+
+    /**
+     * Lê o saldo do banco: em uma transação somente leitura ou, se configurado, com uma única
+     * consulta JDBC, sem abrir transação nem carregar a entidade.
+     */
+    private Long carregarSaldo(String numeroCartao) {
+        if (consultaSemTransacao) {
+            BigDecimal saldo = jdbcTemplate.query(CONSULTA_SALDO,
+                    rs -> rs.next() ? rs.getBigDecimal(1) : null, numeroCartao);
+            return saldo == null ? null : Cents.of(saldo);
+        }
+
+        return transacaoLeitura.execute(status -> {
+            Cartao cartao = buscarCartaoPorNumero(numeroCartao);
+            return cartao == null ? null : Cents.of(cartao.getSaldoVO().getAmount());
+        });
+    }
+
+    /**
+     * Com o motor em memória, o saldo mais recente está no ledger (o banco é gravado de forma assíncrona).
+     */
+    private BigDecimal obterSaldoEmMemoria(BalanceLedger ledger, String numeroCartao) {
+        LedgerAccount conta = ledger.buscar(numeroCartao);
+        if (conta == null) {
             throw new CartaoNaoEncontradoException("Cartão não encontrado");
         }
 
-        return cartao.getSaldoVO().getAmount();
+        return conta.getSaldo();
     }
 
     private Cartao buscarCartaoPorNumero(String numeroCartao) {
@@ -62,8 +155,9 @@ public class CartaoService {
     }
 
     private Cartao criarNovoCartao(CartaoDto cartaoDto) {
-        CardNumber cardNumber = CardNumber.of(cartaoDto.getNumeroCartao());
-        Pin pin = Pin.of(cartaoDto.getSenha());
+        CardNumber cardNumber = CardNumber.of(cartaoDto.getNumeroCartao(), verificarLuhn);
+        Pin pin = pinHashingExecutor.executar(PinHashingExecutor.Prioridade.EMISSAO,
+                () -> pinHasher.criar(cartaoDto.getSenha()));
 
         Cartao novoCartao = Cartao.builder()
                 .numeroCartao(cardNumber.getValue())
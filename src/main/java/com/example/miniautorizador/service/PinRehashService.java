@@ -0,0 +1,282 @@
+package com.example.miniautorizador.service;
+
+import com.example.miniautorizador.exception.ServicoSobrecarregadoException;
+import com.example.miniautorizador.model.Cartao;
+import com.example.miniautorizador.security.PinHasher;
+import com.example.miniautorizador.security.PinHashingExecutor;
+import com.example.miniautorizador.service.ledger.BalanceLedger;
+import com.example.miniautorizador.service.ledger.LedgerAccount;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PreDestroy;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Atualização dos hashes de senha desatualizados, habilitada por {@code cartao.senha.rehash.habilitado}.
+ *
+ * Depois de uma senha confirmada pelo {@code PasswordValidRule}, um hash de outro algoritmo ou
+ * com parâmetros mais fracos que os atuais é agendado, após o commit da transação do cartão. Uma
+ * thread própria calcula os novos hashes no {@link PinHashingExecutor}, com a prioridade da
+ * emissão, e os grava em lotes JDBC, fora do caminho da autorização. Até a gravação, a senha
+ * confirmada fica apenas em memória; pendências descartadas (fila cheia, sobrecarga ou
+ * encerramento) são agendadas de novo na próxima confirmação.
+ *
+ * Cada UPDATE é condicionado ao hash antigo e incrementa a versão do cartão: uma transação
+ * otimista concorrente, que regravaria o hash antigo, falha e é repetida, sem consumir de novo os
+ * limites por cartão. No motor em memória, o hash da conta do {@link BalanceLedger} também é
+ * substituído.
+ *
+ * O progresso é exportado em {@code cartao.senha.hash.desatualizados}, a contagem periódica dos
+ * cartões cujo hash não está no formato atual.
+ */
+@Slf4j
+@Service
+public class PinRehashService {
+
+    private static final String ATUALIZA_SENHA =
+            "UPDATE cartoes SET senha = ?, version = version + 1 WHERE numero_cartao = ? AND senha = ?";
+    private static final String CONTA_DESATUALIZADOS = "SELECT COUNT(*) FROM cartoes WHERE senha NOT LIKE ?";
+
+    private final boolean habilitado;
+    private final int tamanhoLote;
+    private final int filaMaxima;
+    private final PinHashingExecutor pinHashingExecutor;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectProvider<BalanceLedger> balanceLedger;
+    private final PinHasher pinHasher;
+    private final Map<String, Pendente> pendentes = new ConcurrentHashMap<>();
+    private final AtomicLong desatualizados = new AtomicLong(-1);
+    private final Counter refeitos;
+    private final Counter obsoletos;
+    private final Counter descartados;
+    private final ScheduledExecutorService executor;
+
+    @Autowired
+    public PinRehashService(@Value("${cartao.senha.rehash.habilitado:false}") boolean habilitado,
+                            @Value("${cartao.senha.rehash.intervalo-ms:1000}") long intervaloMs,
+                            @Value("${cartao.senha.rehash.tamanho-lote:200}") int tamanhoLote,
+                            @Value("${cartao.senha.rehash.fila-maxima:10000}") int filaMaxima,
+                            @Value("${cartao.senha.rehash.contagem.intervalo-ms:60000}") long intervaloContagemMs,
+                            PinHashingExecutor pinHashingExecutor,
+                            JdbcTemplate jdbcTemplate,
+                            PlatformTransactionManager transactionManager,
+                            ObjectProvider<BalanceLedger> balanceLedger,
+                            PinHasher pinHasher,
+                            MeterRegistry meterRegistry) {
+        this.habilitado = habilitado;
+        this.tamanhoLote = tamanhoLote;
+        this.filaMaxima = filaMaxima;
+        this.pinHashingExecutor = pinHashingExecutor;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.balanceLedger = balanceLedger;
+        this.pinHasher = pinHasher;
+        this.refeitos = contador(meterRegistry, "refeito");
+        this.obsoletos = contador(meterRegistry, "obsoleto");
+        this.descartados = contador(meterRegistry, "descartado");
+
+        if (!habilitado) {
+            this.executor = null;
+            return;
+        }
+
+        Gauge.builder("cartao.senha.rehash.pendentes", pendentes, Map::size)
+                .description("Senhas confirmadas aguardando a gravação do novo hash")
+                .register(meterRegistry);
+        Gauge.builder("cartao.senha.hash.desatualizados", desatualizados, AtomicLong::get)
+                .description("Cartões com o hash da senha em um formato anterior ao atual (-1 antes da primeira contagem)")
+                .register(meterRegistry);
+        this.executor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "senha-rehash");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.scheduleWithFixedDelay(this::gravarPendentesComTratamento, intervaloMs, intervaloMs, TimeUnit.MILLISECONDS);
+        executor.scheduleWithFixedDelay(this::contarDesatualizadosComTratamento, 0, intervaloContagemMs,
+                TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Agenda o novo hash se o atual for de outro algoritmo ou tiver parâmetros mais fracos.
+     *
+     * @param cartao O cartão cuja senha foi confirmada
+     * @param senha A senha confirmada
+     */
+    public void rehashSeNecessario(Cartao cartao, String senha) {
+        if (!habilitado || !pinHasher.precisaRehash(cartao)) {
+            return;
+        }
+
+        Pendente pendente = new Pendente(cartao.getNumeroCartao(), cartao.getSenha(), senha);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    agendar(pendente);
+                }
+            });
+        } else {
+            agendar(pendente);
+        }
+    }
+
+    private void agendar(Pendente pendente) {
+        if (pendentes.size() >= filaMaxima) {
+            descartados.increment();
+            return;
+        }
+        pendentes.put(pendente.numeroCartao, pendente);
+    }
+
+    public int getPendentes() {
+        return pendentes.size();
+    }
+
+    /**
+     * Calcula e grava os novos hashes de todas as senhas agendadas, em lotes.
+     *
+     * @return A quantidade de hashes gravados
+     */
+    public synchronized int gravarPendentes() {
+        int gravados = 0;
+        List<Object[]> lote = new ArrayList<>(tamanhoLote);
+
+        Iterator<Pendente> iterator = pendentes.values().iterator();
+        while (iterator.hasNext()) {
+            Pendente pendente = iterator.next();
+            iterator.remove();
+
+            String novoHash;
+            try {
+                novoHash = pinHashingExecutor.executar(PinHashingExecutor.Prioridade.EMISSAO,
+                        () -> pinHasher.criar(pendente.senha).getHashedValue());
+            } catch (ServicoSobrecarregadoException e) {
+                descartados.increment();
+                continue;
+            }
+            lote.add(new Object[]{novoHash, pendente.numeroCartao, pendente.hashAtual});
+
+            if (lote.size() == tamanhoLote) {
+                gravados += gravar(lote);
+            }
+        }
+
+        if (!lote.isEmpty()) {
+            gravados += gravar(lote);
+        }
+        return gravados;
+    }
+
+    private int gravar(List<Object[]> lote) {
+        try {
+            int[] linhas = transactionTemplate.execute(status -> jdbcTemplate.batchUpdate(ATUALIZA_SENHA, lote));
+            int gravados = 0;
+            BalanceLedger ledger = balanceLedger.getIfAvailable();
+            for (int i = 0; i < lote.size(); i++) {
+                if (linhas[i] == 0) {
+                    // O hash mudou depois do agendamento
+                    obsoletos.increment();
+                    continue;
+                }
+                gravados++;
+                Object[] parametros = lote.get(i);
+                LedgerAccount conta = ledger != null ? ledger.buscar((String) parametros[1]) : null;
+                if (conta != null) {
+                    conta.trocarSenha((String) parametros[2], (String) parametros[0]);
+                }
+            }
+            refeitos.increment(gravados);
+            desatualizados.getAndUpdate(atual -> atual > 0 ? Math.max(0, atual - linhasContadas(linhas)) : atual);
+            return gravados;
+        } catch (RuntimeException e) {
+            log.error("Falha ao gravar lote de {} hashes de senha; serão refeitos na próxima confirmação", lote.size(), e);
+            descartados.increment(lote.size());
+            return 0;
+        } finally {
+            lote.clear();
+        }
+    }
+
+    private static int linhasContadas(int[] linhas) {
+        int total = 0;
+        for (int linha : linhas) {
+            total += linha == Statement.SUCCESS_NO_INFO ? 1 : Math.max(linha, 0);
+        }
+        return total;
+    }
+
+    /**
+     * Conta os cartões cujo hash da senha não está no formato atual.
+     */
+    public long contarDesatualizados() {
+        Long quantidade = jdbcTemplate.queryForObject(CONTA_DESATUALIZADOS, Long.class,
+                pinHasher.getPrefixoFormatoAtual() + "%");
+        desatualizados.set(quantidade != null ? quantidade : 0);
+        return desatualizados.get();
+    }
+
+    private void gravarPendentesComTratamento() {
+        try {
+            gravarPendentes();
+        } catch (RuntimeException e) {
+            log.error("Falha na atualização dos hashes de senha", e);
+        }
+    }
+
+    private void contarDesatualizadosComTratamento() {
+        try {
+            contarDesatualizados();
+        } catch (RuntimeException e) {
+            log.warn("Falha ao contar os hashes de senha desatualizados", e);
+        }
+    }
+
+    @PreDestroy
+    public void encerrar() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    private static Counter contador(MeterRegistry meterRegistry, String resultado) {
+        return Counter.builder("cartao.senha.rehash")
+                .description("Hashes de senha desatualizados processados, por resultado")
+                .tag("resultado", resultado)
+                .register(meterRegistry);
+    }
+
+    private static final class Pendente {
+
+        private final String numeroCartao;
+        private final String hashAtual;
+        private final String senha;
+
+        Pendente(String numeroCartao, String hashAtual, String senha) {
+            this.numeroCartao = numeroCartao;
+            this.hashAtual = hashAtual;
+            this.senha = senha;
+        }
+    }
+}
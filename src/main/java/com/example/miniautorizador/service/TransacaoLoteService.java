@@ -0,0 +1,176 @@
+package com.example.miniautorizador.service;
+
+import com.example.miniautorizador.dto.ResultadoTransacaoDto;
+import com.example.miniautorizador.dto.TransacaoDto;
+import com.example.miniautorizador.enums.AutorizacaoErro;
+import com.example.miniautorizador.exception.GlobalExceptionHandler;
+import com.example.miniautorizador.exception.LoteExcedidoException;
+import com.example.miniautorizador.exception.ServicoSobrecarregadoException;
+import com.example.miniautorizador.exception.TransacaoNaoAutorizadaException;
+import com.example.miniautorizador.service.authorization.ResultadoAutorizacao;
+import com.example.miniautorizador.service.engine.AuthorizationEngine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PreDestroy;
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Processa lotes de transações recebidos em {@code POST /transacoes/lote}.
+ *
+ * As transações são agrupadas por cartão: cada grupo é processado em sequência, na ordem do lote,
+ * e grupos de cartões diferentes seguem em paralelo. Cada item recebe o mesmo status e código
+ * que receberia em {@code POST /transacoes}, e uma recusa não interrompe os demais itens.
+ */
+@Slf4j
+@Service
+public class TransacaoLoteService {
+
+    private static final String[] CAMPOS_VALIDADOS = {"numeroCartao", "senhaCartao", "valor"};
+
+    private final AuthorizationEngine authorizationEngine;
+    private final Validator validator;
+    private final int tamanhoMaximo;
+    private final ExecutorService executor;
+
+    @Autowired
+    public TransacaoLoteService(AuthorizationEngine authorizationEngine,
+                                Validator validator,
+                                @Value("${transacao.lote.tamanho-maximo:1000}") int tamanhoMaximo,
+                                @Value("${transacao.lote.paralelismo:8}") int paralelismo) {
+        this.authorizationEngine = authorizationEngine;
+        this.validator = validator;
+        this.tamanhoMaximo = tamanhoMaximo;
+        AtomicInteger contador = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(paralelismo,
+                r -> new Thread(r, "transacao-lote-" + contador.incrementAndGet()));
+    }
+
+    /**
+     * Processa um lote de transações.
+     *
+     * @param transacoes As transações, na ordem de chegada
+     * @return Um resultado por transação, na mesma ordem
+     * @throws LoteExcedidoException Se o lote tiver mais itens que o máximo configurado
+     */
+    public List<ResultadoTransacaoDto> processarLote(List<TransacaoDto> transacoes) {
+        if (transacoes.size() > tamanhoMaximo) {
+            throw new LoteExcedidoException(String.format(
+                    "Lote com %d transações excede o máximo de %d", transacoes.size(), tamanhoMaximo));
+        }
+
+        ResultadoTransacaoDto[] resultados = new ResultadoTransacaoDto[transacoes.size()];
+        Map<String, List<Integer>> porCartao = new LinkedHashMap<>();
+        for (int i = 0; i < transacoes.size(); i++) {
+            TransacaoDto transacao = transacoes.get(i) != null ? transacoes.get(i) : new TransacaoDto();
+            AutorizacaoErro erroValidacao = validar(transacao);
+            if (erroValidacao != null) {
+                resultados[i] = recusada(transacao, erroValidacao);
+            } else {
+                porCartao.computeIfAbsent(transacao.getNumeroCartao(), numero -> new ArrayList<>()).add(i);
+            }
+        }
+
+        if (porCartao.size() == 1) {
+            processarGrupo(transacoes, porCartao.values().iterator().next(), resultados);
+        } else if (!porCartao.isEmpty()) {
+            processarEmParalelo(transacoes, porCartao, resultados);
+        }
+        return Arrays.asList(resultados);
+    }
+
+    private void processarEmParalelo(List<TransacaoDto> transacoes, Map<String, List<Integer>> porCartao,
+                                     ResultadoTransacaoDto[] resultados) {
+        List<Future<?>> grupos = new ArrayList<>(porCartao.size());
+        for (List<Integer> indices : porCartao.values()) {
+            grupos.add(executor.submit(() -> processarGrupo(transacoes, indices, resultados)));
+        }
+
+        try {
+            for (Future<?> grupo : grupos) {
+                grupo.get();
+            }
+        } catch (InterruptedException e) {
+            grupos.forEach(grupo -> grupo.cancel(true));
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Processamento do lote interrompido", e);
+        } catch (ExecutionException e) {
+            grupos.forEach(grupo -> grupo.cancel(true));
+            throw new IllegalStateException("Falha ao processar o lote", e.getCause());
+        }
+    }
+
+    private void processarGrupo(List<TransacaoDto> transacoes, List<Integer> indices,
+                                ResultadoTransacaoDto[] resultados) {
+        for (int indice : indices) {
+            resultados[indice] = processar(transacoes.get(indice));
+        }
+    }
+
+    private ResultadoTransacaoDto processar(TransacaoDto transacao) {
+        try {
+            ResultadoAutorizacao resultado = authorizationEngine.processarTransacao(transacao);
+            if (!resultado.isAprovada()) {
+                return recusada(transacao, resultado.getErro());
+            }
+            return new ResultadoTransacaoDto(transacao.getNumeroCartao(), HttpStatus.CREATED.value(), "OK");
+        } catch (TransacaoNaoAutorizadaException e) {
+            return recusada(transacao, e.getErro());
+        } catch (ObjectOptimisticLockingFailureException e) {
+            return new ResultadoTransacaoDto(transacao.getNumeroCartao(), HttpStatus.CONFLICT.value(),
+                    GlobalExceptionHandler.MENSAGEM_CONFLITO);
+        } catch (ServicoSobrecarregadoException e) {
+            return new ResultadoTransacaoDto(transacao.getNumeroCartao(), HttpStatus.SERVICE_UNAVAILABLE.value(),
+                    e.getMessage());
+        } catch (RuntimeException e) {
+            log.error("Erro ao processar transação do lote", e);
+            return new ResultadoTransacaoDto(transacao.getNumeroCartao(), HttpStatus.INTERNAL_SERVER_ERROR.value(),
+                    GlobalExceptionHandler.MENSAGEM_ERRO_INTERNO);
+        }
+    }
+
+    private ResultadoTransacaoDto recusada(TransacaoDto transacao, AutorizacaoErro erro) {
+        return new ResultadoTransacaoDto(transacao.getNumeroCartao(), HttpStatus.UNPROCESSABLE_ENTITY.value(),
+                erro.toString());
+    }
+
+    /**
+     * Aplica as mesmas validações de {@code POST /transacoes}, retornando o código do primeiro
+     * campo inválido.
+     */
+    private AutorizacaoErro validar(TransacaoDto transacao) {
+        Set<ConstraintViolation<TransacaoDto>> violacoes = validator.validate(transacao);
+        if (violacoes.isEmpty()) {
+            return null;
+        }
+        for (String campo : CAMPOS_VALIDADOS) {
+            for (ConstraintViolation<TransacaoDto> violacao : violacoes) {
+                if (campo.equals(violacao.getPropertyPath().toString())) {
+                    return AutorizacaoErro.doCampoInvalido(campo);
+                }
+            }
+        }
+        return AutorizacaoErro.VALOR_INVALIDO;
+    }
+
+    @PreDestroy
+    public void encerrar() {
+        executor.shutdown();
+    }
+}
@@ -1,14 +1,16 @@
 package com.example.miniautorizador.service;
 
-import com.example.miniautorizador.domain.Money;
+import com.example.miniautorizador.cache.BalanceCache;
 import com.example.miniautorizador.dto.TransacaoDto;
 import com.example.miniautorizador.model.Cartao;
-import com.example.miniautorizador.repository.CartaoRepository;
-import com.example.miniautorizador.service.authorization.AuthorizationChainFactory;
-import com.example.miniautorizador.service.authorization.AuthorizationRule;
+import com.example.miniautorizador.service.authorization.AuthorizationChain;
+import com.example.miniautorizador.service.authorization.ResultadoAutorizacao;
+import com.example.miniautorizador.service.debit.DebitStrategy;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 /**
  * Serviço responsável por processar transações de cartões.
@@ -17,56 +19,78 @@ import org.springframework.transaction.annotation.Transactional;
 @Service
 public class TransacaoService {
 
-    private final CartaoRepository cartaoRepository;
-    private final AuthorizationChainFactory authorizationChainFactory;
+    private final AuthorizationChain authorizationChain;
+    private final DebitStrategy debitStrategy;
+    private final BalanceCache balanceCache;
 
     @Autowired
-    public TransacaoService(CartaoRepository cartaoRepository, 
-                           AuthorizationChainFactory authorizationChainFactory) {
-        this.cartaoRepository = cartaoRepository;
-        this.authorizationChainFactory = authorizationChainFactory;
+    public TransacaoService(AuthorizationChain authorizationChain,
+                           DebitStrategy debitStrategy,
+                           BalanceCache balanceCache) {
+        this.authorizationChain = authorizationChain;
+        this.debitStrategy = debitStrategy;
+        this.balanceCache = balanceCache;
     }
 
     /**
      * Autoriza e processa uma transação.
+     * Recusas das regras são retornadas sem exceção; como nada foi alterado, a transação do banco
+     * termina com commit. Após o commit de um débito, o saldo consultado em cache é atualizado.
+     * Se a tentativa aprovada pelas regras não terminar em commit (recusa do débito, conflito de
+     * versão ou erro), as reservas das regras são desfeitas antes de uma eventual retentativa.
      * 
      * @param transacaoDto Os dados da transação
+     * @param valorCentavos O valor da transação em centavos, convertido pelo motor que a recebeu
+     * @return A aprovação com o saldo do cartão após o débito, ou a recusa
+     * @throws com.example.miniautorizador.exception.TransacaoNaoAutorizadaException Se a estratégia
+     *         de débito recusar a transação depois das regras
      */
     @Transactional
-    public void processarTransacao(TransacaoDto transacaoDto) {
+    public ResultadoAutorizacao processarTransacao(TransacaoDto transacaoDto, long valorCentavos) {
         Cartao cartao = buscarCartao(transacaoDto.getNumeroCartao());
-        autorizarTransacao(transacaoDto, cartao);
-        debitarSaldo(cartao, transacaoDto);
-        salvarCartao(cartao);
+        ResultadoAutorizacao resultado = autorizarTransacao(transacaoDto, valorCentavos, cartao);
+        if (!resultado.isAprovada()) {
+            return resultado;
+        }
+        desfazerSeNaoConcluida(transacaoDto, valorCentavos);
+        long saldoCentavos = debitarSaldo(cartao, valorCentavos);
+        balanceCache.atualizarAposDebito(cartao.getNumeroCartao(), saldoCentavos);
+        return ResultadoAutorizacao.aprovada(saldoCentavos);
     }
 
     /**
-     * Busca um cartão pelo número.
+     * Busca um cartão pelo número, conforme a estratégia de débito configurada.
      */
     private Cartao buscarCartao(String numeroCartao) {
-        return cartaoRepository.findByNumeroCartao(numeroCartao);
+        return debitStrategy.carregarCartao(numeroCartao);
     }
 
     /**
      * Autoriza uma transação aplicando todas as regras de autorização.
      */
-    private void autorizarTransacao(TransacaoDto transacaoDto, Cartao cartao) {
-        AuthorizationRule authorizationChain = authorizationChainFactory.createDefaultChain();
-        authorizationChain.authorize(transacaoDto, cartao);
+    private ResultadoAutorizacao autorizarTransacao(TransacaoDto transacaoDto, long valorCentavos, Cartao cartao) {
+        return authorizationChain.authorize(transacaoDto, valorCentavos, cartao);
     }
 
-    /**
-     * Debita o valor da transação do saldo do cartão.
-     */
-    private void debitarSaldo(Cartao cartao, TransacaoDto transacaoDto) {
-        Money valorTransacao = Money.of(transacaoDto.getValor());
-        cartao.debitarSaldo(valorTransacao);
+    private void desfazerSeNaoConcluida(TransacaoDto transacaoDto, long valorCentavos) {
+        if (!authorizationChain.possuiRegrasReversiveis()
+                || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    authorizationChain.desfazer(transacaoDto, valorCentavos);
+                }
+            }
+        });
     }
 
     /**
-     * Salva as alterações no cartão.
+     * Debita o valor da transação do saldo do cartão e persiste a alteração.
      */
-    private void salvarCartao(Cartao cartao) {
-        cartaoRepository.save(cartao);
+    private long debitarSaldo(Cartao cartao, long valorCentavos) {
+        return debitStrategy.debitar(cartao, valorCentavos);
     }
 }
@@ -0,0 +1,42 @@
+package com.example.miniautorizador.service.authorization;
+
+import com.example.miniautorizador.domain.Cents;
+import com.example.miniautorizador.enums.AutorizacaoErro;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.function.LongSupplier;
+
+/**
+ * Regra que limita o valor total debitado de cada cartão em uma janela deslizante.
+ * Registrada apenas quando {@code transacao.limite.valor.maximo} é maior que zero.
+ */
+@Component
+@Order(500)
+@ConditionalOnExpression("${transacao.limite.valor.maximo:0} > 0")
+public class AmountLimitRule extends VelocityLimitRule {
+
+    @Autowired
+    public AmountLimitRule(@Value("${transacao.limite.valor.maximo}") BigDecimal valorMaximo,
+                           @Value("${transacao.limite.valor.janela-segundos:3600}") long janelaSegundos,
+                           @Value("${transacao.limite.cartoes-maximos:1000000}") long cartoesMaximos) {
+        this(valorMaximo, janelaSegundos, cartoesMaximos, System::currentTimeMillis);
+    }
+
+    AmountLimitRule(BigDecimal valorMaximo, long janelaSegundos, long cartoesMaximos, LongSupplier relogio) {
+        super("amountLimit", Cents.of(valorMaximo), janelaSegundos, cartoesMaximos,
+                AutorizacaoErro.LIMITE_VALOR_EXCEDIDO, relogio);
+    }
+
+    /**
+     * O valor já foi validado pela {@link SufficientBalanceRule}, que vem antes na cadeia.
+     */
+    @Override
+    protected long quantidade(long valorCentavos) {
+        return valorCentavos;
+    }
+}
@@ -0,0 +1,106 @@
+package com.example.miniautorizador.service.authorization;
+
+import com.example.miniautorizador.dto.TransacaoDto;
+import com.example.miniautorizador.model.Cartao;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ClassUtils;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Cadeia de regras de autorização, montada uma única vez na inicialização.
+ *
+ * Recebe todos os beans {@link AuthorizationRule} já ordenados pelo Spring e os guarda em um array
+ * imutável; cada transação percorre o mesmo array, sem alocar regras nem ligar ponteiros. A
+ * cadeia é segura para uso concorrente, pois nenhuma regra guarda estado da requisição.
+ *
+ * O tempo de cada regra é medido em {@code transacoes.regra}, com a tag {@code regra}.
+ *
+ * Regras {@link ReversibleAuthorizationRule} que aprovaram antes de uma recusa têm a reserva
+ * desfeita pela própria cadeia.
+ */
+@Slf4j
+@Component
+public class AuthorizationChain {
+
+    private final AuthorizationRule[] regras;
+    private final Timer[] tempos;
+    private final ReversibleAuthorizationRule[] reversiveis;
+
+    @Autowired
+    public AuthorizationChain(List<AuthorizationRule> regras, MeterRegistry meterRegistry) {
+        this.regras = regras.toArray(new AuthorizationRule[0]);
+        this.tempos = new Timer[this.regras.length];
+        this.reversiveis = regras.stream()
+                .filter(ReversibleAuthorizationRule.class::isInstance)
+                .toArray(ReversibleAuthorizationRule[]::new);
+        for (int i = 0; i < this.regras.length; i++) {
+            tempos[i] = Timer.builder("transacoes.regra")
+                    .description("Tempo de avaliação de cada regra de autorização")
+                    .tag("regra", nome(this.regras[i]))
+                    .register(meterRegistry);
+        }
+        log.info("Cadeia de autorização: {}", regras.stream()
+                .map(AuthorizationChain::nome)
+                .collect(Collectors.joining(" -> ")));
+    }
+
+    /**
+     * Aplica as regras em ordem, parando na primeira recusa.
+     *
+     * @param transacaoDto Os dados da transação
+     * @param valorCentavos O valor da transação em centavos
+     * @param cartao O cartão associado à transação (pode ser null se o cartão não existir)
+     * @return {@link ResultadoAutorizacao#APROVADA} ou a recusa da primeira regra não atendida
+     */
+    public ResultadoAutorizacao authorize(TransacaoDto transacaoDto, long valorCentavos, Cartao cartao) {
+        for (int i = 0; i < regras.length; i++) {
+            long inicio = System.nanoTime();
+            ResultadoAutorizacao resultado = regras[i].authorize(transacaoDto, valorCentavos, cartao);
+            tempos[i].record(System.nanoTime() - inicio, TimeUnit.NANOSECONDS);
+            if (!resultado.isAprovada()) {
+                desfazerAnteriores(transacaoDto, valorCentavos, i);
+                return resultado;
+            }
+        }
+        return ResultadoAutorizacao.APROVADA;
+    }
+
+    /**
+     * Indica se alguma regra reserva algo ao aprovar; sem elas, {@link #desfazer} não faz nada.
+     */
+    public boolean possuiRegrasReversiveis() {
+        return reversiveis.length > 0;
+    }
+
+    /**
+     * Desfaz as reservas de uma transação aprovada pela cadeia que não foi concluída: recusada
+     * pelo débito, revertida por conflito de versão ou interrompida por erro.
+     *
+     * @param transacaoDto Os dados da transação aprovada
+     * @param valorCentavos O valor da transação em centavos
+     */
+    public void desfazer(TransacaoDto transacaoDto, long valorCentavos) {
+        for (int i = reversiveis.length - 1; i >= 0; i--) {
+            reversiveis[i].desfazer(transacaoDto, valorCentavos);
+        }
+    }
+
+    private void desfazerAnteriores(TransacaoDto transacaoDto, long valorCentavos, int indiceRecusa) {
+        for (int i = indiceRecusa - 1; i >= 0; i--) {
+            if (regras[i] instanceof ReversibleAuthorizationRule) {
+                ((ReversibleAuthorizationRule) regras[i]).desfazer(transacaoDto, valorCentavos);
+            }
+        }
+    }
+
+    private static String nome(AuthorizationRule regra) {
+        return ClassUtils.getUserClass(regra).getSimpleName();
+    }
+}
@@ -5,24 +5,22 @@ import com.example.miniautorizador.model.Cartao;
 
 /**
  * Interface para regras de autorização de transações.
- * Implementa o padrão Chain of Responsibility.
+ *
+ * As regras são beans do Spring sem estado por requisição, compostas uma única vez pela
+ * {@link AuthorizationChain} na ordem de {@link org.springframework.core.annotation.Order}.
+ * As regras padrão usam as ordens 100, 200 e 300, e as de limite por cartão 400 e 500; novas
+ * regras se encaixam entre elas ou depois.
  */
 public interface AuthorizationRule {
-    
+
     /**
      * Verifica se a transação atende a esta regra de autorização.
-     * 
+     * Uma recusa é retornada, não lançada, para que transações recusadas não criem exceções.
+     *
      * @param transacaoDto Os dados da transação
+     * @param valorCentavos O valor da transação em centavos, convertido uma vez por quem recebe a transação
      * @param cartao O cartão associado à transação (pode ser null se o cartão não existir)
-     * @throws com.example.miniautorizador.exception.TransacaoNaoAutorizadaException Se a regra não for atendida
-     */
-    void authorize(TransacaoDto transacaoDto, Cartao cartao);
-    
-    /**
-     * Define a próxima regra na cadeia.
-     * 
-     * @param next A próxima regra a ser verificada
-     * @return A próxima regra
+     * @return {@link ResultadoAutorizacao#APROVADA} ou a recusa desta regra
      */
-    AuthorizationRule setNext(AuthorizationRule next);
-}
\ No newline at end of file
+    ResultadoAutorizacao authorize(TransacaoDto transacaoDto, long valorCentavos, Cartao cartao);
+}
@@ -2,20 +2,23 @@ package com.example.miniautorizador.service.authorization;
 
 import com.example.miniautorizador.dto.TransacaoDto;
 import com.example.miniautorizador.enums.AutorizacaoErro;
-import com.example.miniautorizador.exception.TransacaoNaoAutorizadaException;
 import com.example.miniautorizador.model.Cartao;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
 
 /**
  * Regra que verifica se o cartão existe.
  */
-public class CardExistsRule extends BaseAuthorizationRule {
+@Component
+@Order(100)
+public class CardExistsRule implements AuthorizationRule {
 
     @Override
-    public void authorize(TransacaoDto transacaoDto, Cartao cartao) {
+    public ResultadoAutorizacao authorize(TransacaoDto transacaoDto, long valorCentavos, Cartao cartao) {
         if (cartao == null) {
-            throw new TransacaoNaoAutorizadaException("Cartão inexistente", AutorizacaoErro.CARTAO_INEXISTENTE);
+            return ResultadoAutorizacao.recusada(AutorizacaoErro.CARTAO_INEXISTENTE);
         }
 
-        checkNext(transacaoDto, cartao);
+        return ResultadoAutorizacao.APROVADA;
     }
 }
@@ -1,25 +1,43 @@
 package com.example.miniautorizador.service.authorization;
 
+import com.example.miniautorizador.cache.PinVerificationCache;
 import com.example.miniautorizador.dto.TransacaoDto;
 import com.example.miniautorizador.enums.AutorizacaoErro;
-import com.example.miniautorizador.exception.TransacaoNaoAutorizadaException;
 import com.example.miniautorizador.model.Cartao;
+import com.example.miniautorizador.service.PinRehashService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
 
 /**
  * Regra que verifica se a senha do cartão é válida.
+ * Verificações já confirmadas são atendidas pelo {@link PinVerificationCache}, evitando o BCrypt.
+ * Uma senha confirmada cujo hash está desatualizado é refeita pelo {@link PinRehashService}.
  */
-public class PasswordValidRule extends BaseAuthorizationRule {
+@Component
+@Order(200)
+public class PasswordValidRule implements AuthorizationRule {
+
+    private final PinVerificationCache pinVerificationCache;
+    private final PinRehashService pinRehashService;
+
+    @Autowired
+    public PasswordValidRule(PinVerificationCache pinVerificationCache, PinRehashService pinRehashService) {
+        this.pinVerificationCache = pinVerificationCache;
+        this.pinRehashService = pinRehashService;
+    }
 
     @Override
-    public void authorize(TransacaoDto transacaoDto, Cartao cartao) {
+    public ResultadoAutorizacao authorize(TransacaoDto transacaoDto, long valorCentavos, Cartao cartao) {
         if (transacaoDto.getSenhaCartao() == null) {
-            throw new TransacaoNaoAutorizadaException("Senha não pode ser nula", AutorizacaoErro.SENHA_INVALIDA);
+            return ResultadoAutorizacao.recusada(AutorizacaoErro.SENHA_INVALIDA);
         }
 
-        if (!cartao.verificarSenha(transacaoDto.getSenhaCartao())) {
-            throw new TransacaoNaoAutorizadaException("Senha inválida", AutorizacaoErro.SENHA_INVALIDA);
+        if (!pinVerificationCache.verificar(cartao, transacaoDto.getSenhaCartao())) {
+            return ResultadoAutorizacao.recusada(AutorizacaoErro.SENHA_INVALIDA);
         }
 
-        checkNext(transacaoDto, cartao);
+        pinRehashService.rehashSeNecessario(cartao, transacaoDto.getSenhaCartao());
+        return ResultadoAutorizacao.APROVADA;
     }
 }
@@ -0,0 +1,81 @@
+package com.example.miniautorizador.service.authorization;
+
+import com.example.miniautorizador.enums.AutorizacaoErro;
+
+/**
+ * Resultado da avaliação de uma transação: aprovada ou recusada com um {@link AutorizacaoErro}.
+ *
+ * As recusas e a aprovação das regras são instâncias pré-alocadas e imutáveis, de modo que a cadeia
+ * de regras recusa uma transação sem criar objetos nem exceções. Apenas a aprovação final do
+ * débito, que carrega o saldo resultante, é criada a cada transação.
+ */
+public final class ResultadoAutorizacao {
+
+    /**
+     * Saldo dos resultados sem débito.
+     */
+    public static final long SALDO_DESCONHECIDO = -1L;
+
+    /**
+     * Transação aprovada pelas regras, ainda sem débito.
+     */
+    public static final ResultadoAutorizacao APROVADA = new ResultadoAutorizacao(null, SALDO_DESCONHECIDO);
+
+    private static final ResultadoAutorizacao[] RECUSADAS = new ResultadoAutorizacao[AutorizacaoErro.values().length];
+
+    static {
+        for (AutorizacaoErro erro : AutorizacaoErro.values()) {
+            RECUSADAS[erro.ordinal()] = new ResultadoAutorizacao(erro, SALDO_DESCONHECIDO);
+        }
+    }
+
+    private final AutorizacaoErro erro;
+    private final long saldoCentavos;
+
+    private ResultadoAutorizacao(AutorizacaoErro erro, long saldoCentavos) {
+        this.erro = erro;
+        this.saldoCentavos = saldoCentavos;
+    }
+
+    /**
+     * Transação aprovada e debitada.
+     *
+     * @param saldoCentavos O saldo do cartão após o débito, em centavos
+     */
+    public static ResultadoAutorizacao aprovada(long saldoCentavos) {
+        return new ResultadoAutorizacao(null, saldoCentavos);
+    }
+
+    /**
+     * Transação recusada.
+     *
+     * @param erro O motivo da recusa
+     * @return A instância pré-alocada para o código
+     */
+    public static ResultadoAutorizacao recusada(AutorizacaoErro erro) {
+        return RECUSADAS[erro.ordinal()];
+    }
+
+    public boolean isAprovada() {
+        return erro == null;
+    }
+
+    /**
+     * @return O motivo da recusa, ou null se a transação foi aprovada
+     */
+    public AutorizacaoErro getErro() {
+        return erro;
+    }
+
+    /**
+     * @return O saldo após o débito em centavos, ou {@link #SALDO_DESCONHECIDO} se a transação não foi debitada
+     */
+    public long getSaldoCentavos() {
+        return saldoCentavos;
+    }
+
+    @Override
+    public String toString() {
+        return erro == null ? "OK" : erro.toString();
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.miniautorizador.service.authorization;
+
+import com.example.miniautorizador.dto.TransacaoDto;
+
+/**
+ * Regra que reserva algo ao aprovar, como o limite por cartão, e precisa devolver a reserva
+ * quando a transação não é concluída.
+ *
+ * A {@link AuthorizationChain} desfaz as aprovações anteriores a uma recusa; quem executa a cadeia
+ * desfaz todas quando a recusa, o conflito ou o erro vem depois dela (veja
+ * {@link AuthorizationChain#desfazer(TransacaoDto, long)}).
+ */
+public interface ReversibleAuthorizationRule extends AuthorizationRule {
+
+    /**
+     * Devolve o que {@link #authorize} reservou para a transação aprovada por esta regra.
+     *
+     * @param transacaoDto Os dados da transação
+     * @param valorCentavos O valor da transação em centavos
+     */
+    void desfazer(TransacaoDto transacaoDto, long valorCentavos);
+}
@@ -0,0 +1,112 @@
+package com.example.miniautorizador.service.authorization;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Contador de janela deslizante sem locks, usado pelas regras de limite por cartão.
+ *
+ * A janela é dividida em baldes de duração fixa, em um anel. Cada balde guarda, em um único
+ * {@code long}, a época do balde (24 bits) e o valor acumulado nela (40 bits); um balde de
+ * época antiga vale zero e é reaproveitado pelo próprio CAS que o incrementa, sem etapa de
+ * limpeza. A precisão da janela é a duração de um balde.
+ */
+public final class SlidingWindowCounter {
+
+    private static final int BITS_VALOR = 40;
+    private static final long MASCARA_VALOR = (1L << BITS_VALOR) - 1;
+    private static final long MASCARA_EPOCA = (1L << (Long.SIZE - BITS_VALOR)) - 1;
+
+    private final long duracaoBaldeMs;
+    private final AtomicLongArray baldes;
+
+    /**
+     * @param janelaMs Duração da janela
+     * @param quantidadeBaldes Baldes em que a janela é dividida
+     */
+    public SlidingWindowCounter(long janelaMs, int quantidadeBaldes) {
+        if (janelaMs < quantidadeBaldes || quantidadeBaldes <= 0) {
+            throw new IllegalArgumentException(
+                    String.format("Janela de %d ms não comporta %d baldes", janelaMs, quantidadeBaldes));
+        }
+        this.duracaoBaldeMs = janelaMs / quantidadeBaldes;
+        this.baldes = new AtomicLongArray(quantidadeBaldes);
+    }
+
+    /**
+     * Soma o valor ao balde atual se o total da janela, com ele, não passar do limite.
+     *
+     * @param agoraMs Instante atual
+     * @param valor Valor a somar (não negativo)
+     * @param limite Total máximo permitido na janela
+     * @return true se o valor foi somado; false se excederia o limite
+     */
+    public boolean tentarAdicionar(long agoraMs, long valor, long limite) {
+        long epoca = agoraMs / duracaoBaldeMs;
+        int indice = (int) (epoca % baldes.length());
+        long epocaBalde = epoca & MASCARA_EPOCA;
+
+        while (true) {
+            long atual = baldes.get(indice);
+            long valorBalde = (atual >>> BITS_VALOR) == epocaBalde ? atual & MASCARA_VALOR : 0;
+            long total = somar(epoca, indice) + valorBalde;
+            if (valor > limite - total) {
+                return false;
+            }
+
+            long novo = (epocaBalde << BITS_VALOR) | Math.min(valorBalde + valor, MASCARA_VALOR);
+            if (baldes.compareAndSet(indice, atual, novo)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Subtrai um valor somado há pouco, a partir do balde atual e seguindo pelos anteriores da
+     * janela. A parte que já saiu da janela é ignorada.
+     *
+     * @param agoraMs Instante atual
+     * @param valor Valor a subtrair (não negativo)
+     */
+    public void devolver(long agoraMs, long valor) {
+        long epoca = agoraMs / duracaoBaldeMs;
+        long restante = valor;
+        for (int idade = 0; idade < baldes.length() && restante > 0; idade++) {
+            int indice = (int) ((epoca - idade) % baldes.length());
+            long epocaBalde = (epoca - idade) & MASCARA_EPOCA;
+            while (true) {
+                long atual = baldes.get(indice);
+                if ((atual >>> BITS_VALOR) != epocaBalde || (atual & MASCARA_VALOR) == 0) {
+                    break;
+                }
+                long subtraido = Math.min(atual & MASCARA_VALOR, restante);
+                if (baldes.compareAndSet(indice, atual, atual - subtraido)) {
+                    restante -= subtraido;
+                    break;
+                }
+            }
+        }
+    }
+
+    /**
+     * @param agoraMs Instante atual
+     * @return O total acumulado na janela que termina no instante informado
+     */
+    public long total(long agoraMs) {
+        return somar(agoraMs / duracaoBaldeMs, -1);
+    }
+
+    private long somar(long epoca, int indiceIgnorado) {
+        long total = 0;
+        for (int i = 0; i < baldes.length(); i++) {
+            if (i == indiceIgnorado) {
+                continue;
+            }
+            long balde = baldes.get(i);
+            long idade = (epoca - (balde >>> BITS_VALOR)) & MASCARA_EPOCA;
+            if (idade < baldes.length()) {
+                total += balde & MASCARA_VALOR;
+            }
+        }
+        return total;
+    }
+}
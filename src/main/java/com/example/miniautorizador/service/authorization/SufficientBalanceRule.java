@@ -1,34 +1,28 @@
 package com.example.miniautorizador.service.authorization;
 
-import com.example.miniautorizador.domain.Money;
 import com.example.miniautorizador.dto.TransacaoDto;
 import com.example.miniautorizador.enums.AutorizacaoErro;
-import com.example.miniautorizador.exception.TransacaoNaoAutorizadaException;
 import com.example.miniautorizador.model.Cartao;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
 
 /**
  * Regra que verifica se o cartão possui saldo suficiente para a transação.
  */
-public class SufficientBalanceRule extends BaseAuthorizationRule {
+@Component
+@Order(300)
+public class SufficientBalanceRule implements AuthorizationRule {
 
     @Override
-    public void authorize(TransacaoDto transacaoDto, Cartao cartao) {
-        if (transacaoDto.getValor() == null) {
-            throw new TransacaoNaoAutorizadaException("Valor não pode ser nulo", AutorizacaoErro.VALOR_INVALIDO);
+    public ResultadoAutorizacao authorize(TransacaoDto transacaoDto, long valorCentavos, Cartao cartao) {
+        if (valorCentavos <= 0) {
+            return ResultadoAutorizacao.recusada(AutorizacaoErro.VALOR_INVALIDO);
         }
 
-        Money valorTransacao = Money.of(transacaoDto.getValor());
-
-        if (valorTransacao.isZero() || valorTransacao.isNegative()) {
-            throw new TransacaoNaoAutorizadaException("Valor deve ser maior que zero", AutorizacaoErro.VALOR_INVALIDO);
-        }
-
-        Money saldoCartao = cartao.getSaldoVO();
-
-        if (valorTransacao.isGreaterThan(saldoCartao)) {
-            throw new TransacaoNaoAutorizadaException("Saldo insuficiente", AutorizacaoErro.SALDO_INSUFICIENTE);
+        if (valorCentavos > cartao.getSaldoCentavos()) {
+            return ResultadoAutorizacao.recusada(AutorizacaoErro.SALDO_INSUFICIENTE);
         }
 
-        checkNext(transacaoDto, cartao);
+        return ResultadoAutorizacao.APROVADA;
     }
 }
@@ -0,0 +1,37 @@
+package com.example.miniautorizador.service.authorization;
+
+import com.example.miniautorizador.enums.AutorizacaoErro;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.util.function.LongSupplier;
+
+/**
+ * Regra que limita a quantidade de transações de cada cartão em uma janela deslizante.
+ * Registrada apenas quando {@code transacao.limite.quantidade.maxima} é maior que zero.
+ */
+@Component
+@Order(400)
+@ConditionalOnExpression("${transacao.limite.quantidade.maxima:0} > 0")
+public class TransactionCountLimitRule extends VelocityLimitRule {
+
+    @Autowired
+    public TransactionCountLimitRule(@Value("${transacao.limite.quantidade.maxima}") long quantidadeMaxima,
+                                     @Value("${transacao.limite.quantidade.janela-segundos:60}") long janelaSegundos,
+                                     @Value("${transacao.limite.cartoes-maximos:1000000}") long cartoesMaximos) {
+        this(quantidadeMaxima, janelaSegundos, cartoesMaximos, System::currentTimeMillis);
+    }
+
+    TransactionCountLimitRule(long quantidadeMaxima, long janelaSegundos, long cartoesMaximos, LongSupplier relogio) {
+        super("transactionCountLimit", quantidadeMaxima, janelaSegundos, cartoesMaximos,
+                AutorizacaoErro.LIMITE_TRANSACOES_EXCEDIDO, relogio);
+    }
+
+    @Override
+    protected long quantidade(long valorCentavos) {
+        return 1;
+    }
+}
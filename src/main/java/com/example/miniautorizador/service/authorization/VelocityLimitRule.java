@@ -0,0 +1,96 @@
+package com.example.miniautorizador.service.authorization;
+
+import com.example.miniautorizador.dto.TransacaoDto;
+import com.example.miniautorizador.enums.AutorizacaoErro;
+import com.example.miniautorizador.model.Cartao;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+import java.time.Duration;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+/**
+ * Base das regras de limite por cartão em uma janela deslizante, sem consulta ao banco.
+ *
+ * Cada cartão tem um {@link SlidingWindowCounter} em memória. Cartões sem transações por uma
+ * janela inteira são removidos (o contador já estaria zerado), e o total de cartões
+ * acompanhados é limitado; sob pressão, os menos usados perdem a contagem. O valor é
+ * reservado quando a regra aprova e devolvido por {@link #desfazer} se a transação não for
+ * concluída (recusa de outra regra ou do débito, conflito de versão, erro), de modo que as
+ * retentativas após um conflito não consomem o limite de novo. Em várias instâncias, cada uma
+ * conta apenas as transações que recebeu.
+ */
+public abstract class VelocityLimitRule implements ReversibleAuthorizationRule, MeterBinder {
+
+    static final int QUANTIDADE_BALDES = 60;
+
+    private final String nome;
+    private final long limite;
+    private final AutorizacaoErro erro;
+    private final LongSupplier relogio;
+    private final Cache<String, SlidingWindowCounter> contadores;
+    private final Function<String, SlidingWindowCounter> novoContador;
+
+    /**
+     * @param nome Nome do cache de contadores nas métricas
+     * @param limite Total máximo por cartão na janela
+     * @param janelaSegundos Duração da janela
+     * @param cartoesMaximos Máximo de cartões acompanhados
+     * @param erro Código retornado quando o limite é excedido
+     * @param relogio Fonte do instante atual, em milissegundos
+     */
+    protected VelocityLimitRule(String nome, long limite, long janelaSegundos, long cartoesMaximos,
+                                AutorizacaoErro erro, LongSupplier relogio) {
+        this.nome = nome;
+        this.limite = limite;
+        this.erro = erro;
+        this.relogio = relogio;
+        this.contadores = Caffeine.newBuilder()
+                .maximumSize(cartoesMaximos)
+                .expireAfterAccess(Duration.ofSeconds(janelaSegundos))
+                .recordStats()
+                .build();
+        long janelaMs = janelaSegundos * 1000;
+        this.novoContador = numeroCartao -> new SlidingWindowCounter(janelaMs, QUANTIDADE_BALDES);
+    }
+
+    /**
+     * @param valorCentavos O valor da transação em centavos
+     * @return O quanto a transação consome do limite
+     */
+    protected abstract long quantidade(long valorCentavos);
+
+    @Override
+    public ResultadoAutorizacao authorize(TransacaoDto transacaoDto, long valorCentavos, Cartao cartao) {
+        SlidingWindowCounter contador = contadores.get(cartao.getNumeroCartao(), novoContador);
+        if (!contador.tentarAdicionar(relogio.getAsLong(), quantidade(valorCentavos), limite)) {
+            return ResultadoAutorizacao.recusada(erro);
+        }
+        return ResultadoAutorizacao.APROVADA;
+    }
+
+    @Override
+    public void desfazer(TransacaoDto transacaoDto, long valorCentavos) {
+        SlidingWindowCounter contador = contadores.getIfPresent(transacaoDto.getNumeroCartao());
+        if (contador != null) {
+            contador.devolver(relogio.getAsLong(), quantidade(valorCentavos));
+        }
+    }
+
+    /**
+     * @return O total acumulado pelo cartão na janela atual
+     */
+    public long total(String numeroCartao) {
+        SlidingWindowCounter contador = contadores.getIfPresent(numeroCartao);
+        return contador != null ? contador.total(relogio.getAsLong()) : 0;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, contadores, nome);
+    }
+}
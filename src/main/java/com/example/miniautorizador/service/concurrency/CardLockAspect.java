@@ -0,0 +1,77 @@
+package com.example.miniautorizador.service.concurrency;
+
+import com.example.miniautorizador.dto.TransacaoDto;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Serializa, dentro da JVM, as transações de um mesmo cartão antes que cheguem ao banco.
+ *
+ * Ordenado antes das retentativas e da transação JPA: o lock é obtido antes de abrir a transação
+ * e liberado somente após o commit, então transações concorrentes no mesmo cartão não disputam
+ * o {@code @Version} nem desperdiçam um rollback. Cartões diferentes seguem em paralelo.
+ */
+@Aspect
+@Component
+@Order(CardLockAspect.ORDER)
+@ConditionalOnProperty(name = "transacao.lock.habilitado", havingValue = "true", matchIfMissing = true)
+public class CardLockAspect {
+
+    static final int ORDER = OptimisticLockRetryAspect.ORDER - 1;
+
+    private final StripedCardLock stripedCardLock;
+    private final Timer esperaLock;
+    private final Counter contencao;
+
+    @Autowired
+    public CardLockAspect(@Value("${transacao.lock.faixas:1024}") int quantidadeFaixas,
+                          MeterRegistry meterRegistry) {
+        this.stripedCardLock = new StripedCardLock(quantidadeFaixas);
+        this.esperaLock = Timer.builder("transacoes.lock.espera")
+                .description("Tempo de espera pelo lock do cartão")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.contencao = Counter.builder("transacoes.lock.contencao")
+                .description("Transações que encontraram o lock do cartão ocupado")
+                .register(meterRegistry);
+    }
+
+    @Around("execution(* com.example.miniautorizador.service.TransacaoService.processarTransacao(..)) && args(transacaoDto, ..)")
+    public Object serializarPorCartao(ProceedingJoinPoint joinPoint, TransacaoDto transacaoDto) throws Throwable {
+        if (transacaoDto == null || transacaoDto.getNumeroCartao() == null) {
+            return joinPoint.proceed();
+        }
+
+        ReentrantLock lock = stripedCardLock.lockFor(transacaoDto.getNumeroCartao());
+        adquirir(lock);
+        try {
+            return joinPoint.proceed();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void adquirir(ReentrantLock lock) {
+        if (lock.tryLock()) {
+            esperaLock.record(0, TimeUnit.NANOSECONDS);
+            return;
+        }
+
+        contencao.increment();
+        long inicio = System.nanoTime();
+        lock.lock();
+        esperaLock.record(System.nanoTime() - inicio, TimeUnit.NANOSECONDS);
+    }
+}
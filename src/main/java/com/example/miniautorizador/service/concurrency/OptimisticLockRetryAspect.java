@@ -0,0 +1,90 @@
+package com.example.miniautorizador.service.concurrency;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.retry.RetryCallback;
+import org.springframework.retry.RetryContext;
+import org.springframework.retry.listener.RetryListenerSupport;
+import org.springframework.retry.support.RetryTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Repete o processamento de transações que perderam a disputa pelo {@code @Version} do cartão.
+ *
+ * O aspecto é ordenado antes do interceptador de transações ({@link Ordered#LOWEST_PRECEDENCE}),
+ * portanto cada tentativa abre uma nova transação, relê o cartão e reaplica a cadeia de autorização.
+ * O intervalo entre tentativas cresce exponencialmente com variação aleatória, evitando que
+ * as transações concorrentes colidam de novo no mesmo instante.
+ */
+@Aspect
+@Component
+@Order(OptimisticLockRetryAspect.ORDER)
+public class OptimisticLockRetryAspect {
+
+    static final int ORDER = Ordered.LOWEST_PRECEDENCE - 1;
+
+    private final RetryTemplate retryTemplate;
+    private final DistributionSummary retentativasPorTransacao;
+    private final Counter conflitos;
+    private final Counter conflitosEsgotados;
+
+    @Autowired
+    public OptimisticLockRetryAspect(@Value("${transacao.retentativa.max-tentativas:5}") int maxTentativas,
+                                     @Value("${transacao.retentativa.atraso-inicial-ms:5}") long atrasoInicialMs,
+                                     @Value("${transacao.retentativa.multiplicador:2.0}") double multiplicador,
+                                     @Value("${transacao.retentativa.atraso-maximo-ms:100}") long atrasoMaximoMs,
+                                     MeterRegistry meterRegistry) {
+        this.retentativasPorTransacao = DistributionSummary.builder("transacoes.retentativas")
+                .description("Retentativas por transação após conflito de versão do cartão")
+                .register(meterRegistry);
+        this.conflitos = Counter.builder("transacoes.conflitos")
+                .description("Tentativas que falharam por conflito de versão do cartão")
+                .register(meterRegistry);
+        this.conflitosEsgotados = Counter.builder("transacoes.retentativas.esgotadas")
+                .description("Transações que falharam por conflito de versão após todas as tentativas")
+                .register(meterRegistry);
+        this.retryTemplate = RetryTemplate.builder()
+                .maxAttempts(maxTentativas)
+                .exponentialBackoff(atrasoInicialMs, multiplicador, atrasoMaximoMs, true)
+                .retryOn(ObjectOptimisticLockingFailureException.class)
+                .withListener(new MetricsListener())
+                .build();
+    }
+
+    @Around("execution(* com.example.miniautorizador.service.TransacaoService.processarTransacao(..))")
+    public Object retentarConflitos(ProceedingJoinPoint joinPoint) throws Throwable {
+        return retryTemplate.execute((RetryCallback<Object, Throwable>) contexto -> joinPoint.proceed());
+    }
+
+    /**
+     * Registra cada conflito, quantas retentativas cada transação precisou e quantas esgotaram as tentativas.
+     */
+    private class MetricsListener extends RetryListenerSupport {
+
+        @Override
+        public <T, E extends Throwable> void onError(RetryContext context, RetryCallback<T, E> callback, Throwable throwable) {
+            if (throwable instanceof ObjectOptimisticLockingFailureException) {
+                conflitos.increment();
+            }
+        }
+
+        @Override
+        public <T, E extends Throwable> void close(RetryContext context, RetryCallback<T, E> callback, Throwable throwable) {
+            int retentativas = throwable == null ? context.getRetryCount() : context.getRetryCount() - 1;
+            retentativasPorTransacao.record(Math.max(retentativas, 0));
+
+            if (throwable instanceof ObjectOptimisticLockingFailureException) {
+                conflitosEsgotados.increment();
+            }
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.miniautorizador.service.concurrency;
+
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Conjunto fixo de locks indexados pelo hash do número do cartão.
+ * Transações no mesmo cartão sempre caem no mesmo lock; cartões diferentes só disputam
+ * quando colidem na mesma faixa, o que fica improvável com um número de faixas adequado.
+ */
+public class StripedCardLock {
+
+    private final ReentrantLock[] stripes;
+    private final int mask;
+
+    /**
+     * @param quantidadeFaixas Quantidade de locks, arredondada para a próxima potência de dois
+     */
+    public StripedCardLock(int quantidadeFaixas) {
+        if (quantidadeFaixas < 1) {
+            throw new IllegalArgumentException("Quantidade de faixas deve ser positiva");
+        }
+
+        int tamanho = Integer.highestOneBit(quantidadeFaixas);
+        if (tamanho < quantidadeFaixas) {
+            tamanho <<= 1;
+        }
+
+        this.stripes = new ReentrantLock[tamanho];
+        for (int i = 0; i < tamanho; i++) {
+            stripes[i] = new ReentrantLock(true);
+        }
+        this.mask = tamanho - 1;
+    }
+
+    /**
+     * Retorna o lock responsável pelo cartão.
+     *
+     * @param numeroCartao O número do cartão
+     * @return O lock da faixa do cartão
+     */
+    public ReentrantLock lockFor(String numeroCartao) {
+        int hash = numeroCartao.hashCode();
+        return stripes[(hash ^ (hash >>> 16)) & mask];
+    }
+
+    public int quantidadeFaixas() {
+        return stripes.length;
+    }
+}
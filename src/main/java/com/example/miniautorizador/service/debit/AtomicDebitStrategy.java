@@ -0,0 +1,42 @@
+package com.example.miniautorizador.service.debit;
+
+import com.example.miniautorizador.domain.Cents;
+import com.example.miniautorizador.enums.AutorizacaoErro;
+import com.example.miniautorizador.exception.TransacaoNaoAutorizadaException;
+import com.example.miniautorizador.model.Cartao;
+import com.example.miniautorizador.repository.CartaoRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Débito em um único UPDATE condicional ({@code saldo >= valor}), sem leitura-modificação-escrita.
+ * A verificação de saldo da cadeia de regras passa a ser uma pré-checagem; a decisão final é do banco.
+ */
+@Component
+@ConditionalOnProperty(name = "transacao.debito.estrategia", havingValue = "atomica")
+public class AtomicDebitStrategy implements DebitStrategy {
+
+    private final CartaoRepository cartaoRepository;
+
+    @Autowired
+    public AtomicDebitStrategy(CartaoRepository cartaoRepository) {
+        this.cartaoRepository = cartaoRepository;
+    }
+
+    @Override
+    public Cartao carregarCartao(String numeroCartao) {
+        return cartaoRepository.findByNumeroCartao(numeroCartao);
+    }
+
+    @Override
+    public long debitar(Cartao cartao, long valorCentavos) {
+        int linhasAlteradas = cartaoRepository.debitarSaldoSeSuficiente(cartao.getNumeroCartao(),
+                Cents.toBigDecimal(valorCentavos));
+        if (linhasAlteradas == 0) {
+            throw new TransacaoNaoAutorizadaException("Saldo insuficiente", AutorizacaoErro.SALDO_INSUFICIENTE);
+        }
+        // A linha permanece bloqueada pelo UPDATE até o commit, então a leitura reflete este débito
+        return Cents.of(cartaoRepository.findSaldoByNumeroCartao(cartao.getNumeroCartao()));
+    }
+}
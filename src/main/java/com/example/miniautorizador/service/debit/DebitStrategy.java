@@ -0,0 +1,28 @@
+package com.example.miniautorizador.service.debit;
+
+import com.example.miniautorizador.model.Cartao;
+
+/**
+ * Estratégia de leitura e débito do saldo de um cartão dentro da transação de autorização.
+ * A implementação ativa é escolhida pela propriedade {@code transacao.debito.estrategia}.
+ */
+public interface DebitStrategy {
+
+    /**
+     * Carrega o cartão que será autorizado.
+     *
+     * @param numeroCartao O número do cartão
+     * @return O cartão ou null se não existir
+     */
+    Cartao carregarCartao(String numeroCartao);
+
+    /**
+     * Debita o valor de um cartão já autorizado.
+     *
+     * @param cartao O cartão carregado por {@link #carregarCartao(String)}
+     * @param valorCentavos O valor da transação em centavos
+     * @return O saldo do cartão após o débito, em centavos
+     * @throws com.example.miniautorizador.exception.TransacaoNaoAutorizadaException Se o saldo não for suficiente
+     */
+    long debitar(Cartao cartao, long valorCentavos);
+}
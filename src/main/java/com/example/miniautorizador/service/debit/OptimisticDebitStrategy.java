@@ -0,0 +1,35 @@
+package com.example.miniautorizador.service.debit;
+
+import com.example.miniautorizador.model.Cartao;
+import com.example.miniautorizador.repository.CartaoRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Leitura sem bloqueio, débito em memória e gravação protegida pelo {@code @Version} do cartão.
+ * Em caso de concorrência, a transação perdedora falha com conflito de versão.
+ */
+@Component
+@ConditionalOnProperty(name = "transacao.debito.estrategia", havingValue = "otimista", matchIfMissing = true)
+public class OptimisticDebitStrategy implements DebitStrategy {
+
+    private final CartaoRepository cartaoRepository;
+
+    @Autowired
+    public OptimisticDebitStrategy(CartaoRepository cartaoRepository) {
+        this.cartaoRepository = cartaoRepository;
+    }
+
+    @Override
+    public Cartao carregarCartao(String numeroCartao) {
+        return cartaoRepository.findByNumeroCartao(numeroCartao);
+    }
+
+    @Override
+    public long debitar(Cartao cartao, long valorCentavos) {
+        long novoSaldo = cartao.debitarSaldo(valorCentavos);
+        cartaoRepository.save(cartao);
+        return novoSaldo;
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.miniautorizador.service.debit;
+
+import com.example.miniautorizador.model.Cartao;
+import com.example.miniautorizador.repository.CartaoRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Leitura com SELECT ... FOR UPDATE: transações no mesmo cartão esperam o bloqueio da linha
+ * em vez de falhar por conflito de versão.
+ */
+@Component
+@ConditionalOnProperty(name = "transacao.debito.estrategia", havingValue = "pessimista")
+public class PessimisticDebitStrategy implements DebitStrategy {
+
+    private final CartaoRepository cartaoRepository;
+
+    @Autowired
+    public PessimisticDebitStrategy(CartaoRepository cartaoRepository) {
+        this.cartaoRepository = cartaoRepository;
+    }
+
+    @Override
+    public Cartao carregarCartao(String numeroCartao) {
+        return cartaoRepository.findByNumeroCartaoForUpdate(numeroCartao);
+    }
+
+    @Override
+    public long debitar(Cartao cartao, long valorCentavos) {
+        long novoSaldo = cartao.debitarSaldo(valorCentavos);
+        cartaoRepository.save(cartao);
+        return novoSaldo;
+    }
+}
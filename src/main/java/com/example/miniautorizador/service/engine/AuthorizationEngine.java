@@ -0,0 +1,21 @@
+package com.example.miniautorizador.service.engine;
+
+import com.example.miniautorizador.dto.TransacaoDto;
+import com.example.miniautorizador.service.authorization.ResultadoAutorizacao;
+
+/**
+ * Motor de autorização usado pela API de transações.
+ * A implementação ativa é escolhida pela propriedade {@code autorizador.motor}.
+ */
+public interface AuthorizationEngine {
+
+    /**
+     * Autoriza e processa uma transação.
+     *
+     * @param transacaoDto Os dados da transação
+     * @return A aprovação ou a recusa da transação
+     * @throws com.example.miniautorizador.exception.TransacaoNaoAutorizadaException Se a estratégia de débito
+     *         recusar a transação depois das regras
+     */
+    ResultadoAutorizacao processarTransacao(TransacaoDto transacaoDto);
+}
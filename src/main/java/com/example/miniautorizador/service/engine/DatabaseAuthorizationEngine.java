@@ -0,0 +1,108 @@
+package com.example.miniautorizador.service.engine;
+
+import com.example.miniautorizador.cache.CardExistenceFilter;
+import com.example.miniautorizador.domain.Cents;
+import com.example.miniautorizador.dto.TransacaoDto;
+import com.example.miniautorizador.enums.AutorizacaoErro;
+import com.example.miniautorizador.exception.TransacaoNaoAutorizadaException;
+import com.example.miniautorizador.service.TransacaoService;
+import com.example.miniautorizador.service.authorization.ResultadoAutorizacao;
+import com.example.miniautorizador.service.journal.JournalEntry;
+import com.example.miniautorizador.service.journal.TransactionJournal;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+
+/**
+ * Motor padrão: cada transação é autorizada e debitada no banco pelo {@link TransacaoService}.
+ * Toda tentativa é registrada no journal depois do commit (ou da recusa), inclusive as que terminam
+ * em conflito de versão ou erro; recusas e falhas não conhecem o saldo.
+ * Cartões que o {@link CardExistenceFilter} descarta são recusados sem abrir transação.
+ *
+ * O débito já está confirmado no banco quando o registro é gravado: uma falha do journal é
+ * registrada em log e em {@code journal.registro.falhas}, e o resultado confirmado é devolvido
+ * mesmo assim, para que o cliente não repita uma transação já debitada.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "autorizador.motor", havingValue = "banco", matchIfMissing = true)
+public class DatabaseAuthorizationEngine implements AuthorizationEngine {
+
+    private final TransacaoService transacaoService;
+    private final TransactionJournal transactionJournal;
+    private final CardExistenceFilter cardExistenceFilter;
+    private final Counter falhasJournal;
+
+    @Autowired
+    public DatabaseAuthorizationEngine(TransacaoService transacaoService, TransactionJournal transactionJournal,
+                                       ObjectProvider<CardExistenceFilter> cardExistenceFilter,
+                                       MeterRegistry meterRegistry) {
+        this.transacaoService = transacaoService;
+        this.transactionJournal = transactionJournal;
+        this.cardExistenceFilter = cardExistenceFilter.getIfAvailable();
+        this.falhasJournal = Counter.builder("journal.registro.falhas")
+                .description("Tentativas já decididas que não puderam ser registradas no journal")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public ResultadoAutorizacao processarTransacao(TransacaoDto transacaoDto) {
+        long valorCentavos = Cents.ofSaturated(transacaoDto.getValor());
+        ResultadoAutorizacao resultado;
+        try {
+            resultado = processar(transacaoDto, valorCentavos);
+        } catch (TransacaoNaoAutorizadaException e) {
+            // Recusa do débito atômico, depois das regras
+            registrar(JournalEntry.recusada(transacaoDto.getNumeroCartao(), valorCentavos,
+                    e.getErro(), JournalEntry.SALDO_DESCONHECIDO));
+            throw e;
+        } catch (ObjectOptimisticLockingFailureException e) {
+            registrar(JournalEntry.falha(transacaoDto.getNumeroCartao(), valorCentavos,
+                    JournalEntry.Falha.CONFLITO));
+            throw e;
+        } catch (RuntimeException e) {
+            registrar(JournalEntry.falha(transacaoDto.getNumeroCartao(), valorCentavos,
+                    JournalEntry.Falha.ERRO));
+            throw e;
+        }
+
+        if (resultado.isAprovada()) {
+            registrar(JournalEntry.aprovada(transacaoDto.getNumeroCartao(), valorCentavos,
+                    resultado.getSaldoCentavos()));
+        } else {
+            registrar(JournalEntry.recusada(transacaoDto.getNumeroCartao(), valorCentavos,
+                    resultado.getErro(), JournalEntry.SALDO_DESCONHECIDO));
+        }
+        return resultado;
+    }
+
+    private void registrar(JournalEntry entry) {
+        try {
+            transactionJournal.registrar(entry);
+        } catch (RuntimeException e) {
+            falhasJournal.increment();
+            log.error("Falha ao registrar a tentativa no journal; o resultado já decidido é mantido", e);
+        }
+    }
+
+    private ResultadoAutorizacao processar(TransacaoDto transacaoDto, long valorCentavos) {
+        if (cardExistenceFilter == null) {
+            return transacaoService.processarTransacao(transacaoDto, valorCentavos);
+        }
+        if (!cardExistenceFilter.podeExistir(transacaoDto.getNumeroCartao())) {
+            return ResultadoAutorizacao.recusada(AutorizacaoErro.CARTAO_INEXISTENTE);
+        }
+
+        long geracao = cardExistenceFilter.iniciarConsulta();
+        ResultadoAutorizacao resultado = transacaoService.processarTransacao(transacaoDto, valorCentavos);
+        if (resultado.getErro() == AutorizacaoErro.CARTAO_INEXISTENTE) {
+            cardExistenceFilter.registrarInexistente(transacaoDto.getNumeroCartao(), geracao);
+        }
+        return resultado;
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.miniautorizador.service.engine;
+
+import com.example.miniautorizador.domain.Cents;
+import com.example.miniautorizador.dto.TransacaoDto;
+import com.example.miniautorizador.enums.AutorizacaoErro;
+import com.example.miniautorizador.service.authorization.AuthorizationChain;
+import com.example.miniautorizador.service.authorization.ResultadoAutorizacao;
+import com.example.miniautorizador.service.journal.JournalEntry;
+import com.example.miniautorizador.service.journal.TransactionJournal;
+import com.example.miniautorizador.service.ledger.BalanceLedger;
+import com.example.miniautorizador.service.ledger.BalanceWriteBehind;
+import com.example.miniautorizador.service.ledger.LedgerAccount;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Motor que autoriza contra os saldos mantidos em memória pelo {@link BalanceLedger}.
+ *
+ * As regras de autorização são as mesmas do motor de banco; o débito é feito por CAS no saldo
+ * da conta e a gravação no banco fica a cargo do {@link BalanceWriteBehind}, fora do caminho
+ * da requisição. O banco continua sendo o registro oficial dos saldos; o journal guarda cada
+ * tentativa com o saldo resultante exato do CAS, e as que terminam em erro, sem saldo.
+ */
+@Component
+@ConditionalOnProperty(name = "autorizador.motor", havingValue = "memoria")
+public class InMemoryAuthorizationEngine implements AuthorizationEngine {
+
+    private final BalanceLedger balanceLedger;
+    private final BalanceWriteBehind balanceWriteBehind;
+    private final AuthorizationChain authorizationChain;
+    private final TransactionJournal transactionJournal;
+
+    @Autowired
+    public InMemoryAuthorizationEngine(BalanceLedger balanceLedger,
+                                       BalanceWriteBehind balanceWriteBehind,
+                                       AuthorizationChain authorizationChain,
+                                       TransactionJournal transactionJournal) {
+        this.balanceLedger = balanceLedger;
+        this.balanceWriteBehind = balanceWriteBehind;
+        this.authorizationChain = authorizationChain;
+        this.transactionJournal = transactionJournal;
+    }
+
+    @Override
+    public ResultadoAutorizacao processarTransacao(TransacaoDto transacaoDto) {
+        long valorCentavos = Cents.ofSaturated(transacaoDto.getValor());
+        try {
+            return processar(transacaoDto, valorCentavos);
+        } catch (RuntimeException e) {
+            transactionJournal.registrar(JournalEntry.falha(transacaoDto.getNumeroCartao(), valorCentavos,
+                    JournalEntry.Falha.ERRO));
+            throw e;
+        }
+    }
+
+    private ResultadoAutorizacao processar(TransacaoDto transacaoDto, long valorCentavos) {
+        String numeroCartao = transacaoDto.getNumeroCartao();
+        LedgerAccount conta = balanceLedger.buscar(numeroCartao);
+
+        ResultadoAutorizacao resultado = authorizationChain.authorize(transacaoDto, valorCentavos,
+                conta != null ? conta.toCartao() : null);
+        if (!resultado.isAprovada()) {
+            transactionJournal.registrar(JournalEntry.recusada(numeroCartao, valorCentavos, resultado.getErro(),
+                    conta != null ? conta.getSaldoCentavos() : JournalEntry.SALDO_DESCONHECIDO));
+            return resultado;
+        }
+
+        long novoSaldo = conta.debitar(valorCentavos);
+        if (novoSaldo == LedgerAccount.SALDO_INSUFICIENTE) {
+            authorizationChain.desfazer(transacaoDto, valorCentavos);
+            transactionJournal.registrar(JournalEntry.recusada(numeroCartao, valorCentavos,
+                    AutorizacaoErro.SALDO_INSUFICIENTE, conta.getSaldoCentavos()));
+            return ResultadoAutorizacao.recusada(AutorizacaoErro.SALDO_INSUFICIENTE);
+        }
+
+        transactionJournal.registrar(JournalEntry.aprovada(numeroCartao, valorCentavos, novoSaldo));
+        balanceWriteBehind.marcarAlterada(conta);
+        return ResultadoAutorizacao.aprovada(novoSaldo);
+    }
+}
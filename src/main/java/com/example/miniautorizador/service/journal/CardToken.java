@@ -0,0 +1,37 @@
+package com.example.miniautorizador.service.journal;
+
+import java.util.Arrays;
+
+/**
+ * Identificação de um cartão no journal: HMAC-SHA256 do número, truncado em
+ * {@value #TAMANHO} bytes, sob a chave do {@link CardTokenizer}. Só serve para comparar registros
+ * do mesmo cartão; o número não pode ser obtido a partir dele sem a chave.
+ */
+public final class CardToken {
+
+    public static final int TAMANHO = 16;
+
+    private final byte[] bytes;
+    private final int hash;
+
+    CardToken(byte[] bytes) {
+        this.bytes = bytes;
+        this.hash = Arrays.hashCode(bytes);
+    }
+
+    byte[] bytes() {
+        return bytes;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        return Arrays.equals(bytes, ((CardToken) o).bytes);
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+}
@@ -0,0 +1,96 @@
+package com.example.miniautorizador.service.journal;
+
+import lombok.extern.slf4j.Slf4j;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.util.Base64;
+
+/**
+ * Gera os {@link CardToken} gravados no journal no lugar do número do cartão.
+ *
+ * A chave vem de {@code autorizador.journal.chave} (Base64, mínimo de 16 bytes) e deve ficar fora
+ * do diretório do journal. Sem ela, uma chave aleatória é gerada no arquivo {@value #ARQUIVO_CHAVE}
+ * do próprio diretório, o que protege cópias dos segmentos, mas não quem lê o diretório inteiro.
+ * Trocar a chave torna os registros anteriores irreconhecíveis na recuperação dos saldos.
+ */
+@Slf4j
+public class CardTokenizer {
+
+    static final String ARQUIVO_CHAVE = "journal.chave";
+    private static final String ALGORITMO = "HmacSHA256";
+    private static final int TAMANHO_MINIMO_CHAVE = 16;
+    private static final int TAMANHO_CHAVE_GERADA = 32;
+
+    private final SecretKeySpec chave;
+    private final ThreadLocal<Mac> mac;
+
+    public CardTokenizer(byte[] chave) {
+        if (chave == null || chave.length < TAMANHO_MINIMO_CHAVE) {
+            throw new IllegalArgumentException("A chave do journal deve ter ao menos 16 bytes");
+        }
+        this.chave = new SecretKeySpec(chave, ALGORITMO);
+        this.mac = ThreadLocal.withInitial(this::novoMac);
+    }
+
+    /**
+     * Usa a chave configurada ou, se vazia, a chave do arquivo {@value #ARQUIVO_CHAVE} do
+     * diretório, criada na primeira abertura.
+     */
+    static CardTokenizer of(String chaveBase64, Path diretorio) throws IOException {
+        if (!chaveBase64.isEmpty()) {
+            return new CardTokenizer(Base64.getDecoder().decode(chaveBase64));
+        }
+
+        Path arquivo = diretorio.resolve(ARQUIVO_CHAVE);
+        if (!Files.exists(arquivo)) {
+            byte[] gerada = new byte[TAMANHO_CHAVE_GERADA];
+            new SecureRandom().nextBytes(gerada);
+            try {
+                Files.write(arquivo, gerada, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+                restringirAoDono(arquivo);
+            } catch (FileAlreadyExistsException e) {
+                // Criada por outro processo entre a verificação e a escrita
+            }
+        }
+        log.warn("autorizador.journal.chave não configurada; usando a chave de {}", arquivo.toAbsolutePath());
+        return new CardTokenizer(Files.readAllBytes(arquivo));
+    }
+
+    private static void restringirAoDono(Path arquivo) throws IOException {
+        try {
+            Files.setPosixFilePermissions(arquivo, PosixFilePermissions.fromString("rw-------"));
+        } catch (UnsupportedOperationException e) {
+            // Sistema de arquivos sem permissões POSIX
+        }
+    }
+
+    /**
+     * Token do número do cartão; números iguais geram tokens iguais.
+     */
+    public CardToken tokenizar(String numeroCartao) {
+        byte[] hmac = mac.get().doFinal((numeroCartao != null ? numeroCartao : "").getBytes(StandardCharsets.UTF_8));
+        byte[] token = new byte[CardToken.TAMANHO];
+        System.arraycopy(hmac, 0, token, 0, CardToken.TAMANHO);
+        return new CardToken(token);
+    }
+
+    private Mac novoMac() {
+        try {
+            Mac novo = Mac.getInstance(ALGORITMO);
+            novo.init(chave);
+            return novo;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HMAC-SHA256 indisponível", e);
+        }
+    }
+}
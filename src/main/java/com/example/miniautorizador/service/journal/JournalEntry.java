@@ -0,0 +1,87 @@
+package com.example.miniautorizador.service.journal;
+
+import com.example.miniautorizador.enums.AutorizacaoErro;
+import lombok.Getter;
+
+/**
+ * Registro de uma tentativa de autorização no {@link TransactionJournal}.
+ * Valores e saldos em centavos; {@code resultado} e {@code falha} nulos indicam transação aprovada.
+ * Tentativas que terminaram sem decisão (conflito de versão ou erro) têm a {@code falha} preenchida.
+ *
+ * O número do cartão só existe nos registros a gravar; o journal grava apenas o {@link CardToken},
+ * e os registros lidos trazem somente ele.
+ */
+@Getter
+public class JournalEntry {
+
+    /**
+     * Saldo resultante quando o motor não o conhece (cartão inexistente ou recusa no banco).
+     */
+    public static final long SALDO_DESCONHECIDO = -1L;
+
+    /**
+     * Motivo de uma tentativa que terminou sem aprovação nem recusa.
+     */
+    public enum Falha {
+        /**
+         * Conflito de versão do cartão depois de esgotadas as retentativas (HTTP 409).
+         */
+        CONFLITO,
+        /**
+         * Erro inesperado ou serviço sobrecarregado (HTTP 500 ou 503).
+         */
+        ERRO
+    }
+
+    private final long timestamp;
+    private final String numeroCartao;
+    private final CardToken tokenCartao;
+    private final long valorCentavos;
+    private final AutorizacaoErro resultado;
+    private final long saldoResultanteCentavos;
+    private final Falha falha;
+
+    public JournalEntry(long timestamp, String numeroCartao, long valorCentavos,
+                        AutorizacaoErro resultado, long saldoResultanteCentavos) {
+        this(timestamp, numeroCartao, valorCentavos, resultado, saldoResultanteCentavos, null);
+    }
+
+    public JournalEntry(long timestamp, String numeroCartao, long valorCentavos,
+                        AutorizacaoErro resultado, long saldoResultanteCentavos, Falha falha) {
+        this(timestamp, numeroCartao, null, valorCentavos, resultado, saldoResultanteCentavos, falha);
+    }
+
+    JournalEntry(long timestamp, CardToken tokenCartao, long valorCentavos,
+                 AutorizacaoErro resultado, long saldoResultanteCentavos, Falha falha) {
+        this(timestamp, null, tokenCartao, valorCentavos, resultado, saldoResultanteCentavos, falha);
+    }
+
+    private JournalEntry(long timestamp, String numeroCartao, CardToken tokenCartao, long valorCentavos,
+                         AutorizacaoErro resultado, long saldoResultanteCentavos, Falha falha) {
+        this.timestamp = timestamp;
+        this.numeroCartao = numeroCartao;
+        this.tokenCartao = tokenCartao;
+        this.valorCentavos = valorCentavos;
+        this.resultado = resultado;
+        this.saldoResultanteCentavos = saldoResultanteCentavos;
+        this.falha = falha;
+    }
+
+    public static JournalEntry aprovada(String numeroCartao, long valorCentavos, long saldoResultanteCentavos) {
+        return new JournalEntry(System.currentTimeMillis(), numeroCartao, valorCentavos, null, saldoResultanteCentavos);
+    }
+
+    public static JournalEntry recusada(String numeroCartao, long valorCentavos, AutorizacaoErro erro,
+                                        long saldoCentavos) {
+        return new JournalEntry(System.currentTimeMillis(), numeroCartao, valorCentavos, erro, saldoCentavos);
+    }
+
+    public static JournalEntry falha(String numeroCartao, long valorCentavos, Falha falha) {
+        return new JournalEntry(System.currentTimeMillis(), numeroCartao, valorCentavos, null,
+                SALDO_DESCONHECIDO, falha);
+    }
+
+    public boolean isAprovada() {
+        return resultado == null && falha == null;
+    }
+}
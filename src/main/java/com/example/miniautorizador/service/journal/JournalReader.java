@@ -0,0 +1,56 @@
+package com.example.miniautorizador.service.journal;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Leitura sequencial dos segmentos do journal a partir de uma posição global.
+ */
+public class JournalReader {
+
+    private final Path diretorio;
+    private final CardTokenizer tokenizer;
+
+    public JournalReader(Path diretorio, CardTokenizer tokenizer) {
+        this.diretorio = diretorio;
+        this.tokenizer = tokenizer;
+    }
+
+    /**
+     * Entrega, em ordem, os registros válidos gravados a partir da posição informada.
+     *
+     * @param desde Posição global inicial (0 para todo o journal)
+     * @param consumidor Recebe cada registro
+     * @return A posição global logo após o último registro lido
+     */
+    public long ler(long desde, Consumer<JournalEntry> consumidor) throws IOException {
+        if (!Files.isDirectory(diretorio)) {
+            return desde;
+        }
+
+        long[] bases;
+        try (Stream<Path> arquivos = Files.list(diretorio)) {
+            bases = arquivos.mapToLong(JournalSegment::base).filter(base -> base >= 0).sorted().toArray();
+        }
+
+        long posicao = desde;
+        for (int i = 0; i < bases.length; i++) {
+            long base = bases[i];
+            long proxima = i + 1 < bases.length ? bases[i + 1] : Long.MAX_VALUE;
+            if (proxima <= desde) {
+                continue;
+            }
+
+            Path arquivo = JournalSegment.arquivo(diretorio, base);
+            int tamanho = (int) Files.size(arquivo);
+            try (JournalSegment segmento = JournalSegment.abrir(diretorio, base, tamanho, tokenizer)) {
+                int inicio = (int) Math.max(0, desde - base);
+                posicao = base + segmento.ler(inicio, consumidor);
+            }
+        }
+        return posicao;
+    }
+}
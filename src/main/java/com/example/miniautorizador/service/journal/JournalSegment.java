@@ -0,0 +1,218 @@
+package com.example.miniautorizador.service.journal;
+
+import com.example.miniautorizador.enums.AutorizacaoErro;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+
+/**
+ * Arquivo de tamanho fixo do journal, mapeado em memória.
+ *
+ * Formato de cada registro:
+ * <pre>
+ * int  tamanho (bytes seguintes, incluindo o CRC)
+ * byte versão
+ * long timestamp
+ * long valor em centavos
+ * long saldo resultante em centavos
+ * byte resultado (0 = aprovada, ordinal de {@link AutorizacaoErro} + 1, 255 = conflito, 254 = erro)
+ * byte tamanho da identificação do cartão
+ * ...  identificação do cartão: {@link CardToken} (versão 2) ou número em UTF-8 (versão 1)
+ * int  CRC32 de versão até a identificação do cartão
+ * </pre>
+ * O tamanho é gravado por último, então um registro só é visível depois de completo. O arquivo
+ * nasce zerado, e o primeiro tamanho zero ou CRC inválido marca o fim dos dados. Registros da
+ * versão 1, com o número em texto, continuam legíveis e são convertidos em token na leitura.
+ */
+final class JournalSegment implements Closeable {
+
+    private static final String PREFIXO = "journal-";
+    private static final String SUFIXO = ".seg";
+    private static final byte VERSAO_NUMERO = 1;
+    private static final byte VERSAO = 2;
+    private static final int CABECALHO = 1 + 8 + 8 + 8 + 1 + 1;
+    // Falhas a partir do fim da faixa do byte, para não colidir com novos códigos de recusa
+    private static final int CODIGO_CONFLITO = 255;
+    private static final int CODIGO_ERRO = 254;
+
+    private final long base;
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private final CardTokenizer tokenizer;
+    private final CRC32 crc = new CRC32();
+    private int fim;
+
+    private JournalSegment(long base, FileChannel channel, MappedByteBuffer buffer, CardTokenizer tokenizer) {
+        this.base = base;
+        this.channel = channel;
+        this.buffer = buffer;
+        this.tokenizer = tokenizer;
+        this.fim = ler(0, entry -> { });
+    }
+
+    /**
+     * Abre ou cria o segmento que começa na posição global {@code base}, posicionado após o último
+     * registro válido.
+     */
+    static JournalSegment abrir(Path diretorio, long base, int tamanho, CardTokenizer tokenizer) throws IOException {
+        FileChannel channel = FileChannel.open(arquivo(diretorio, base),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            return new JournalSegment(base, channel, channel.map(FileChannel.MapMode.READ_WRITE, 0, tamanho),
+                    tokenizer);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    static Path arquivo(Path diretorio, long base) {
+        return diretorio.resolve(String.format("%s%020d%s", PREFIXO, base, SUFIXO));
+    }
+
+    /**
+     * Posição global inicial do segmento a partir do nome do arquivo, ou -1 se não for um segmento.
+     */
+    static long base(Path arquivo) {
+        String nome = arquivo.getFileName().toString();
+        if (!nome.startsWith(PREFIXO) || !nome.endsWith(SUFIXO)) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(nome.substring(PREFIXO.length(), nome.length() - SUFIXO.length()));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    static int tamanhoRegistro() {
+        return 4 + CABECALHO + CardToken.TAMANHO + 4;
+    }
+
+    long getBase() {
+        return base;
+    }
+
+    /**
+     * Posição global logo após o último registro.
+     */
+    long posicaoFinal() {
+        return base + fim;
+    }
+
+    /**
+     * Indica se um registro do tamanho informado cabe, preservando o terminador zerado.
+     */
+    boolean cabe(int tamanhoRegistro) {
+        return (long) fim + tamanhoRegistro + 4 <= buffer.capacity();
+    }
+
+    /**
+     * Grava o registro após o último. O chamador deve garantir exclusividade e espaço.
+     *
+     * @return A posição global logo após o registro
+     */
+    long escrever(JournalEntry entry, CardToken token) {
+        int inicio = fim + 4;
+        int codigo = codigo(entry);
+        byte[] numero = token.bytes();
+
+        buffer.put(inicio, VERSAO);
+        buffer.putLong(inicio + 1, entry.getTimestamp());
+        buffer.putLong(inicio + 9, entry.getValorCentavos());
+        buffer.putLong(inicio + 17, entry.getSaldoResultanteCentavos());
+        buffer.put(inicio + 25, (byte) codigo);
+        buffer.put(inicio + 26, (byte) numero.length);
+        for (int i = 0; i < numero.length; i++) {
+            buffer.put(inicio + CABECALHO + i, numero[i]);
+        }
+
+        int corpo = CABECALHO + numero.length;
+        buffer.putInt(inicio + corpo, crc(inicio, corpo));
+        buffer.putInt(fim, corpo + 4);
+
+        fim = inicio + corpo + 4;
+        return base + fim;
+    }
+
+    private static int codigo(JournalEntry entry) {
+        if (entry.getFalha() != null) {
+            return entry.getFalha() == JournalEntry.Falha.CONFLITO ? CODIGO_CONFLITO : CODIGO_ERRO;
+        }
+        return entry.getResultado() == null ? 0 : entry.getResultado().ordinal() + 1;
+    }
+
+    /**
+     * Lê os registros válidos a partir do deslocamento informado.
+     *
+     * @return O deslocamento logo após o último registro válido
+     */
+    int ler(int desde, Consumer<JournalEntry> consumidor) {
+        int posicao = desde;
+        while (posicao + 4 <= buffer.capacity()) {
+            int tamanho = buffer.getInt(posicao);
+            int inicio = posicao + 4;
+            if (tamanho < CABECALHO + 4 || inicio + (long) tamanho > buffer.capacity()) {
+                break;
+            }
+
+            int corpo = tamanho - 4;
+            byte versao = buffer.get(inicio);
+            int tamanhoNumero = buffer.get(inicio + 26) & 0xFF;
+            int codigo = buffer.get(inicio + 25) & 0xFF;
+            if (versao != VERSAO && versao != VERSAO_NUMERO
+                    || versao == VERSAO && tamanhoNumero != CardToken.TAMANHO
+                    || CABECALHO + tamanhoNumero != corpo
+                    || codigo > AutorizacaoErro.values().length && codigo < CODIGO_ERRO
+                    || buffer.getInt(inicio + corpo) != crc(inicio, corpo)) {
+                break;
+            }
+
+            byte[] numero = new byte[tamanhoNumero];
+            for (int i = 0; i < tamanhoNumero; i++) {
+                numero[i] = buffer.get(inicio + CABECALHO + i);
+            }
+            consumidor.accept(new JournalEntry(
+                    buffer.getLong(inicio + 1),
+                    versao == VERSAO ? new CardToken(numero)
+                            : tokenizer.tokenizar(new String(numero, StandardCharsets.UTF_8)),
+                    buffer.getLong(inicio + 9),
+                    codigo == 0 || codigo >= CODIGO_ERRO ? null : AutorizacaoErro.values()[codigo - 1],
+                    buffer.getLong(inicio + 17),
+                    codigo == CODIGO_CONFLITO ? JournalEntry.Falha.CONFLITO
+                            : codigo == CODIGO_ERRO ? JournalEntry.Falha.ERRO : null));
+
+            posicao = inicio + tamanho;
+        }
+        return posicao;
+    }
+
+    /**
+     * Força a gravação das páginas alteradas no disco.
+     */
+    void forcar() {
+        buffer.force();
+    }
+
+    private int crc(int inicio, int tamanho) {
+        ByteBuffer trecho = buffer.duplicate();
+        ((Buffer) trecho).limit(inicio + tamanho).position(inicio);
+        crc.reset();
+        crc.update(trecho);
+        return (int) crc.getValue();
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
@@ -0,0 +1,278 @@
+package com.example.miniautorizador.service.journal;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+/**
+ * Journal em segmentos de tamanho fixo mapeados em memória, com fsync em grupo.
+ *
+ * Os registros são copiados para o segmento corrente sob um único lock; uma thread dedicada
+ * força as páginas no disco a cada intervalo ou assim que alguém aguarda durabilidade, de modo
+ * que todas as tentativas acumuladas desde o último fsync são confirmadas por um único fsync.
+ * Com {@code autorizador.journal.fsync.aguardar} ativo, {@link #registrar(JournalEntry)} só
+ * retorna depois que o registro está em disco. Por padrão, isso vale só para o motor
+ * {@code memoria}, em que o journal é o único registro durável do débito até a gravação em lote;
+ * no motor {@code banco}, o débito já está no banco e a resposta não espera o fsync.
+ *
+ * O número do cartão não é gravado: cada registro leva o {@link CardToken} do número, sob a chave
+ * de {@code autorizador.journal.chave} (veja {@link CardTokenizer}).
+ *
+ * Os locks são {@link ReentrantLock}, e não monitores: uma thread virtual que aguarda o fsync em
+ * {@code synchronized}/{@code wait} prenderia a thread portadora durante toda a espera.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "autorizador.journal.habilitado", havingValue = "true")
+public class MappedTransactionJournal implements TransactionJournal {
+
+    private final Path diretorio;
+    private final int tamanhoSegmento;
+    private final long intervaloFsyncMs;
+    private final boolean aguardarDurabilidade;
+    private final CardTokenizer tokenizer;
+
+    private final ReentrantLock lockEscrita = new ReentrantLock();
+    private final ReentrantLock lockFsync = new ReentrantLock();
+    private final Condition fsyncPendente = lockFsync.newCondition();
+    private final Condition fsyncConcluido = lockFsync.newCondition();
+    private final Thread threadFsync;
+    private final Timer tempoFsync;
+    private final DistributionSummary registrosPorFsync;
+
+    private JournalSegment segmentoAtual;
+    private long posicaoEscrita;
+    private long registrosEscritos;
+
+    private volatile long posicaoDuravel;
+    private volatile boolean ativo = true;
+    private boolean fsyncSolicitado;
+    private long registrosDuraveis;
+
+    @Autowired
+    public MappedTransactionJournal(@Value("${autorizador.journal.diretorio:data/journal}") String diretorio,
+                                    @Value("${autorizador.journal.tamanho-segmento-mb:64}") int tamanhoSegmentoMb,
+                                    @Value("${autorizador.journal.fsync.intervalo-ms:2}") long intervaloFsyncMs,
+                                    @Value("${autorizador.journal.fsync.aguardar:#{'${autorizador.motor:banco}' == 'memoria'}}")
+                                    boolean aguardarDurabilidade,
+                                    @Value("${autorizador.journal.chave:}") String chave,
+                                    MeterRegistry meterRegistry) {
+        this.diretorio = Paths.get(diretorio);
+        this.tamanhoSegmento = Math.multiplyExact(tamanhoSegmentoMb, 1024 * 1024);
+        this.intervaloFsyncMs = intervaloFsyncMs;
+        this.aguardarDurabilidade = aguardarDurabilidade;
+        this.tempoFsync = Timer.builder("journal.fsync")
+                .description("Duração de cada fsync do journal")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.registrosPorFsync = DistributionSummary.builder("journal.fsync.registros")
+                .description("Registros confirmados por fsync (tamanho do grupo)")
+                .register(meterRegistry);
+
+        try {
+            Files.createDirectories(this.diretorio);
+            this.tokenizer = CardTokenizer.of(chave, this.diretorio);
+            this.segmentoAtual = JournalSegment.abrir(this.diretorio, ultimaBase(), tamanhoSegmento, tokenizer);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Falha ao abrir o journal em " + this.diretorio.toAbsolutePath(), e);
+        }
+        this.posicaoEscrita = segmentoAtual.posicaoFinal();
+        this.posicaoDuravel = posicaoEscrita;
+        log.info("Journal aberto em {} na posição {}", this.diretorio.toAbsolutePath(), posicaoEscrita);
+
+        this.threadFsync = new Thread(this::executarFsync, "journal-fsync");
+        this.threadFsync.setDaemon(true);
+        this.threadFsync.start();
+    }
+
+    @Override
+    public void registrar(JournalEntry entry) {
+        CardToken token = tokenizer.tokenizar(entry.getNumeroCartao());
+        long posicao;
+        lockEscrita.lock();
+        try {
+            if (!ativo) {
+                throw new IllegalStateException("Journal encerrado");
+            }
+            if (!segmentoAtual.cabe(JournalSegment.tamanhoRegistro())) {
+                abrirProximoSegmento();
+            }
+            posicao = segmentoAtual.escrever(entry, token);
+            posicaoEscrita = posicao;
+            registrosEscritos++;
+        } finally {
+            lockEscrita.unlock();
+        }
+
+        if (aguardarDurabilidade) {
+            aguardarDurabilidade(posicao);
+        }
+    }
+
+    /**
+     * Posição global logo após o último registro gravado.
+     */
+    public long posicao() {
+        lockEscrita.lock();
+        try {
+            return posicaoEscrita;
+        } finally {
+            lockEscrita.unlock();
+        }
+    }
+
+    /**
+     * Diretório dos segmentos.
+     */
+    public Path getDiretorio() {
+        return diretorio;
+    }
+
+    /**
+     * Gerador dos tokens de cartão gravados nos registros.
+     */
+    public CardTokenizer getTokenizer() {
+        return tokenizer;
+    }
+
+    private void abrirProximoSegmento() {
+        JournalSegment anterior = segmentoAtual;
+        anterior.forcar();
+        try {
+            segmentoAtual = JournalSegment.abrir(diretorio, anterior.getBase() + tamanhoSegmento, tamanhoSegmento,
+                    tokenizer);
+            anterior.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Falha ao abrir novo segmento do journal", e);
+        }
+    }
+
+    private void aguardarDurabilidade(long posicao) {
+        lockFsync.lock();
+        try {
+            while (posicaoDuravel < posicao) {
+                if (!ativo) {
+                    throw new IllegalStateException("Journal encerrado antes do fsync");
+                }
+                // Só o primeiro a aguardar acorda a thread de fsync; quem aguarda só é acordado
+                // pelo fim de um fsync, sem disputar o lock com os demais
+                if (!fsyncSolicitado) {
+                    fsyncSolicitado = true;
+                    fsyncPendente.signal();
+                }
+                try {
+                    fsyncConcluido.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException("Interrompido aguardando fsync do journal", e);
+                }
+            }
+        } finally {
+            lockFsync.unlock();
+        }
+    }
+
+    private void executarFsync() {
+        while (ativo) {
+            lockFsync.lock();
+            try {
+                if (!fsyncSolicitado) {
+                    fsyncPendente.await(intervaloFsyncMs, TimeUnit.MILLISECONDS);
+                }
+                fsyncSolicitado = false;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                lockFsync.unlock();
+            }
+
+            try {
+                sincronizar();
+            } catch (RuntimeException e) {
+                log.error("Falha no fsync do journal", e);
+            }
+        }
+    }
+
+    /**
+     * Força no disco tudo o que foi escrito até agora e libera quem aguarda durabilidade.
+     */
+    void sincronizar() {
+        JournalSegment segmento;
+        long alvo;
+        long registros;
+        lockEscrita.lock();
+        try {
+            segmento = segmentoAtual;
+            alvo = posicaoEscrita;
+            registros = registrosEscritos;
+        } finally {
+            lockEscrita.unlock();
+        }
+        if (alvo <= posicaoDuravel) {
+            return;
+        }
+
+        // Segmentos anteriores já foram forçados na troca de segmento
+        tempoFsync.record(segmento::forcar);
+
+        lockFsync.lock();
+        try {
+            registrosPorFsync.record(registros - registrosDuraveis);
+            registrosDuraveis = registros;
+            posicaoDuravel = alvo;
+            fsyncConcluido.signalAll();
+        } finally {
+            lockFsync.unlock();
+        }
+    }
+
+    private long ultimaBase() throws IOException {
+        try (Stream<Path> arquivos = Files.list(diretorio)) {
+            return arquivos.mapToLong(JournalSegment::base).filter(base -> base >= 0).max().orElse(0L);
+        }
+    }
+
+    @PreDestroy
+    public void encerrar() throws IOException, InterruptedException {
+        lockEscrita.lock();
+        try {
+            ativo = false;
+        } finally {
+            lockEscrita.unlock();
+        }
+        lockFsync.lock();
+        try {
+            fsyncPendente.signal();
+            fsyncConcluido.signalAll();
+        } finally {
+            lockFsync.unlock();
+        }
+        threadFsync.join();
+        sincronizar();
+        lockEscrita.lock();
+        try {
+            segmentoAtual.close();
+        } finally {
+            lockEscrita.unlock();
+        }
+        log.info("Journal encerrado na posição {}", posicao());
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.miniautorizador.service.journal;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Journal desativado: os registros são descartados.
+ */
+@Component
+@ConditionalOnProperty(name = "autorizador.journal.habilitado", havingValue = "false", matchIfMissing = true)
+public class NoOpTransactionJournal implements TransactionJournal {
+
+    @Override
+    public void registrar(JournalEntry entry) {
+        // journal desativado
+    }
+}
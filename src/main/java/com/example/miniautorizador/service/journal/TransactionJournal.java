@@ -0,0 +1,15 @@
+package com.example.miniautorizador.service.journal;
+
+/**
+ * Registro append-only de todas as tentativas de autorização, aprovadas ou recusadas.
+ * Ativado pela propriedade {@code autorizador.journal.habilitado}.
+ */
+public interface TransactionJournal {
+
+    /**
+     * Acrescenta um registro ao journal.
+     *
+     * @param entry O registro da tentativa
+     */
+    void registrar(JournalEntry entry);
+}
@@ -0,0 +1,118 @@
+package com.example.miniautorizador.service.ledger;
+
+import com.example.miniautorizador.domain.CardNumberKey;
+import com.example.miniautorizador.domain.Cents;
+import com.example.miniautorizador.event.CartaoCriadoEvent;
+import com.example.miniautorizador.model.Cartao;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Saldos e hashes de senha de todos os cartões, mantidos em memória para o motor de autorização
+ * em memória. Acompanha a emissão de novos cartões. As contas são indexadas pela
+ * {@link CardNumberKey} do número, sem guardar o texto de cada um.
+ *
+ * Na inicialização, com o journal habilitado, é reconstruído pelo {@link LedgerRecovery} a partir
+ * do último snapshot e do journal; sem journal, é carregado do banco.
+ */
+@Slf4j
+@Component
+@DependsOn("entityManagerFactory")
+@ConditionalOnProperty(name = "autorizador.motor", havingValue = "memoria")
+public class BalanceLedger implements MeterBinder, SmartInitializingSingleton {
+
+    private static final String CONSULTA_CARTOES = "SELECT numero_cartao, senha, saldo FROM cartoes";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectProvider<LedgerRecovery> ledgerRecovery;
+    private final ConcurrentHashMap<CardNumberKey, LedgerAccount> contas = new ConcurrentHashMap<>();
+
+    @Autowired
+    public BalanceLedger(JdbcTemplate jdbcTemplate, ObjectProvider<LedgerRecovery> ledgerRecovery) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.ledgerRecovery = ledgerRecovery;
+    }
+
+    /**
+     * Executado depois que todos os singletons foram criados e antes de o servidor aceitar
+     * requisições, para que a recuperação possa usar beans que dependem do registro de métricas.
+     */
+    @Override
+    public void afterSingletonsInstantiated() {
+        LedgerRecovery recovery = ledgerRecovery.getIfAvailable();
+        if (recovery != null) {
+            recovery.recuperar(contas);
+        } else {
+            recarregar();
+        }
+    }
+
+    /**
+     * Carrega todos os cartões do banco, substituindo o conteúdo atual.
+     */
+    public void recarregar() {
+        long inicio = System.currentTimeMillis();
+        contas.clear();
+        jdbcTemplate.query(CONSULTA_CARTOES, rs -> {
+            LedgerAccount conta = new LedgerAccount(rs.getString(1), rs.getString(2), Cents.of(rs.getBigDecimal(3)));
+            contas.put(conta.getChave(), conta);
+        });
+        log.info("Saldos de {} cartões carregados em memória em {} ms", contas.size(), System.currentTimeMillis() - inicio);
+    }
+
+    /**
+     * Busca a conta de um cartão.
+     *
+     * @param numeroCartao O número do cartão
+     * @return A conta ou null se o cartão não existir
+     */
+    public LedgerAccount buscar(String numeroCartao) {
+        CardNumberKey chave = CardNumberKey.deDigitos(numeroCartao);
+        return chave != null ? contas.get(chave) : null;
+    }
+
+    /**
+     * Registra um cartão recém-emitido, após o commit da sua criação.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCartaoCriado(CartaoCriadoEvent event) {
+        registrar(event.getCartao());
+    }
+
+    public void registrar(Cartao cartao) {
+        LedgerAccount conta = new LedgerAccount(cartao.getNumeroCartao(), cartao.getSenha(), cartao.getSaldoCentavos());
+        contas.put(conta.getChave(), conta);
+    }
+
+    /**
+     * Visão somente leitura das contas, para o snapshot.
+     */
+    public Collection<LedgerAccount> contas() {
+        return Collections.unmodifiableCollection(contas.values());
+    }
+
+    public int quantidadeContas() {
+        return contas.size();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("ledger.contas", contas, ConcurrentHashMap::size)
+                .description("Cartões carregados no ledger em memória")
+                .register(registry);
+    }
+}
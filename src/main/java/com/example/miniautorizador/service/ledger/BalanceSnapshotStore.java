@@ -0,0 +1,158 @@
+package com.example.miniautorizador.service.ledger;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Arquivo com o último snapshot dos saldos do {@link BalanceLedger}.
+ *
+ * O snapshot guarda a posição do journal e o maior id de cartão no momento em que foi iniciado;
+ * a recuperação parte dele e reaplica apenas o que veio depois. É gravado em um arquivo temporário
+ * e renomeado atomicamente, com CRC32 no final: um snapshot incompleto nunca é usado.
+ */
+@Slf4j
+@Component
+@ConditionalOnExpression("'${autorizador.motor:banco}' == 'memoria' && ${autorizador.journal.habilitado:false}")
+public class BalanceSnapshotStore {
+
+    private static final String ARQUIVO = "saldos.snapshot";
+    private static final int MAGICO = 0x534E4150;
+    private static final int VERSAO = 1;
+
+    private final Path diretorio;
+
+    @Autowired
+    public BalanceSnapshotStore(@Value("${autorizador.memoria.snapshot.diretorio:data/snapshot}") String diretorio) {
+        this.diretorio = Paths.get(diretorio);
+    }
+
+    /**
+     * Cabeçalho de um snapshot lido.
+     */
+    public static class Cabecalho {
+        private final long posicaoJournal;
+        private final long maiorId;
+        private final long quantidadeContas;
+
+        Cabecalho(long posicaoJournal, long maiorId, long quantidadeContas) {
+            this.posicaoJournal = posicaoJournal;
+            this.maiorId = maiorId;
+            this.quantidadeContas = quantidadeContas;
+        }
+
+        public long getPosicaoJournal() {
+            return posicaoJournal;
+        }
+
+        public long getMaiorId() {
+            return maiorId;
+        }
+
+        public long getQuantidadeContas() {
+            return quantidadeContas;
+        }
+    }
+
+    /**
+     * Grava um novo snapshot, substituindo o anterior.
+     *
+     * @param posicaoJournal Posição do journal lida antes de percorrer as contas
+     * @param maiorId Maior id de cartão lido antes de percorrer as contas
+     * @param contas As contas do ledger
+     * @return A quantidade de contas gravadas
+     */
+    public long gravar(long posicaoJournal, long maiorId, Iterable<LedgerAccount> contas) throws IOException {
+        Files.createDirectories(diretorio);
+        Path temporario = diretorio.resolve(ARQUIVO + ".tmp");
+
+        long quantidade = 0;
+        try (FileOutputStream arquivo = new FileOutputStream(temporario.toFile())) {
+            CheckedOutputStream checked = new CheckedOutputStream(new BufferedOutputStream(arquivo, 1 << 16), new CRC32());
+            DataOutputStream out = new DataOutputStream(checked);
+            out.writeInt(MAGICO);
+            out.writeInt(VERSAO);
+            out.writeLong(posicaoJournal);
+            out.writeLong(maiorId);
+            for (LedgerAccount conta : contas) {
+                out.writeBoolean(true);
+                out.writeUTF(conta.getNumeroCartao());
+                out.writeUTF(conta.getSenha());
+                out.writeLong(conta.getSaldoCentavos());
+                quantidade++;
+            }
+            out.writeBoolean(false);
+            out.writeLong(quantidade);
+            out.flush();
+            out.writeLong(checked.getChecksum().getValue());
+            out.flush();
+            arquivo.getFD().sync();
+        }
+
+        Files.move(temporario, diretorio.resolve(ARQUIVO),
+                StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return quantidade;
+    }
+
+    /**
+     * Lê o último snapshot, entregando cada conta ao consumidor.
+     *
+     * @return O cabeçalho, ou null se não houver snapshot ou se ele for inválido; neste caso as
+     *         contas já entregues devem ser descartadas
+     */
+    public Cabecalho ler(Consumer<LedgerAccount> consumidor) {
+        Path arquivo = diretorio.resolve(ARQUIVO);
+        if (!Files.exists(arquivo)) {
+            return null;
+        }
+
+        try (InputStream entrada = Files.newInputStream(arquivo)) {
+            CheckedInputStream checked = new CheckedInputStream(new BufferedInputStream(entrada, 1 << 16), new CRC32());
+            DataInputStream in = new DataInputStream(checked);
+            if (in.readInt() != MAGICO || in.readInt() != VERSAO) {
+                log.warn("Snapshot de saldos em {} com formato desconhecido; ignorado", arquivo);
+                return null;
+            }
+
+            long posicaoJournal = in.readLong();
+            long maiorId = in.readLong();
+            long quantidade = 0;
+            while (in.readBoolean()) {
+                consumidor.accept(new LedgerAccount(in.readUTF(), in.readUTF(), in.readLong()));
+                quantidade++;
+            }
+            long quantidadeGravada = in.readLong();
+            long crcCalculado = checked.getChecksum().getValue();
+            if (quantidadeGravada != quantidade || in.readLong() != crcCalculado) {
+                log.warn("Snapshot de saldos em {} corrompido; ignorado", arquivo);
+                return null;
+            }
+            return new Cabecalho(posicaoJournal, maiorId, quantidade);
+        } catch (EOFException e) {
+            log.warn("Snapshot de saldos em {} incompleto; ignorado", arquivo);
+            return null;
+        } catch (IOException e) {
+            log.warn("Falha ao ler o snapshot de saldos em {}; ignorado", arquivo, e);
+            return null;
+        }
+    }
+}
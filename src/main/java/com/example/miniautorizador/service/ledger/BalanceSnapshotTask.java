@@ -0,0 +1,63 @@
+package com.example.miniautorizador.service.ledger;
+
+import com.example.miniautorizador.service.journal.MappedTransactionJournal;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+
+/**
+ * Grava periodicamente, e no encerramento, o snapshot dos saldos do {@link BalanceLedger}.
+ *
+ * A posição do journal e o maior id de cartão são lidos antes de percorrer as contas: todo débito
+ * registrado antes dessa posição já está refletido no saldo lido, e os posteriores são reaplicados
+ * na recuperação.
+ */
+@Slf4j
+@Component
+@ConditionalOnExpression("'${autorizador.motor:banco}' == 'memoria' && ${autorizador.journal.habilitado:false}")
+public class BalanceSnapshotTask {
+
+    private static final String MAIOR_ID = "SELECT COALESCE(MAX(id), 0) FROM cartoes";
+
+    private final BalanceLedger balanceLedger;
+    private final MappedTransactionJournal transactionJournal;
+    private final BalanceSnapshotStore snapshotStore;
+    private final JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public BalanceSnapshotTask(BalanceLedger balanceLedger,
+                               MappedTransactionJournal transactionJournal,
+                               BalanceSnapshotStore snapshotStore,
+                               JdbcTemplate jdbcTemplate) {
+        this.balanceLedger = balanceLedger;
+        this.transactionJournal = transactionJournal;
+        this.snapshotStore = snapshotStore;
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Scheduled(fixedDelayString = "${autorizador.memoria.snapshot.intervalo-ms:60000}",
+            initialDelayString = "${autorizador.memoria.snapshot.intervalo-ms:60000}")
+    public synchronized void gravarSnapshot() {
+        long inicio = System.currentTimeMillis();
+        long posicaoJournal = transactionJournal.posicao();
+        Long maiorId = jdbcTemplate.queryForObject(MAIOR_ID, Long.class);
+        try {
+            long quantidade = snapshotStore.gravar(posicaoJournal, maiorId != null ? maiorId : 0, balanceLedger.contas());
+            log.info("Snapshot de {} saldos gravado em {} ms (journal na posição {})",
+                    quantidade, System.currentTimeMillis() - inicio, posicaoJournal);
+        } catch (IOException e) {
+            log.error("Falha ao gravar o snapshot de saldos", e);
+        }
+    }
+
+    @PreDestroy
+    public void encerrar() {
+        gravarSnapshot();
+    }
+}
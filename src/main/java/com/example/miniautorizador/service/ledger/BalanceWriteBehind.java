@@ -0,0 +1,113 @@
+package com.example.miniautorizador.service.ledger;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Persiste de forma assíncrona, em lotes JDBC, os saldos alterados no {@link BalanceLedger}.
+ *
+ * Guarda apenas quais contas mudaram; na gravação lê o saldo corrente de cada uma, de modo que
+ * vários débitos no mesmo cartão entre duas gravações resultam em um único UPDATE.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "autorizador.motor", havingValue = "memoria")
+public class BalanceWriteBehind implements MeterBinder {
+
+    private static final String ATUALIZA_SALDO =
+            "UPDATE cartoes SET saldo = ?, version = version + 1 WHERE numero_cartao = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int tamanhoLote;
+    private final Set<LedgerAccount> alteradas = ConcurrentHashMap.newKeySet();
+
+    @Autowired
+    public BalanceWriteBehind(JdbcTemplate jdbcTemplate,
+                              @Value("${autorizador.memoria.write-behind.tamanho-lote:500}") int tamanhoLote) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.tamanhoLote = tamanhoLote;
+    }
+
+    /**
+     * Marca a conta para gravação no próximo ciclo.
+     */
+    public void marcarAlterada(LedgerAccount conta) {
+        alteradas.add(conta);
+    }
+
+    public int pendentes() {
+        return alteradas.size();
+    }
+
+    /**
+     * Grava no banco os saldos de todas as contas alteradas desde o último ciclo.
+     *
+     * @return A quantidade de cartões gravados
+     */
+    @Scheduled(fixedDelayString = "${autorizador.memoria.write-behind.intervalo-ms:100}")
+    public synchronized int gravarPendentes() {
+        int gravadas = 0;
+        List<LedgerAccount> lote = new ArrayList<>(Math.min(alteradas.size(), tamanhoLote));
+
+        Iterator<LedgerAccount> iterator = alteradas.iterator();
+        while (iterator.hasNext()) {
+            lote.add(iterator.next());
+            iterator.remove();
+
+            if (lote.size() == tamanhoLote) {
+                gravadas += gravar(lote);
+            }
+        }
+
+        if (!lote.isEmpty()) {
+            gravadas += gravar(lote);
+        }
+        return gravadas;
+    }
+
+    private int gravar(List<LedgerAccount> lote) {
+        List<Object[]> parametros = new ArrayList<>(lote.size());
+        for (LedgerAccount conta : lote) {
+            parametros.add(new Object[]{conta.getSaldo(), conta.getNumeroCartao()});
+        }
+
+        try {
+            jdbcTemplate.batchUpdate(ATUALIZA_SALDO, parametros);
+            return lote.size();
+        } catch (RuntimeException e) {
+            log.error("Falha ao gravar lote de {} saldos; as contas serão regravadas no próximo ciclo", lote.size(), e);
+            alteradas.addAll(lote);
+            return 0;
+        } finally {
+            lote.clear();
+        }
+    }
+
+    @PreDestroy
+    public void encerrar() {
+        int gravadas = gravarPendentes();
+        log.info("Write-behind encerrado; {} saldos gravados", gravadas);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("ledger.write-behind.pendentes", alteradas, Set::size)
+                .description("Cartões com saldo alterado aguardando gravação no banco")
+                .register(registry);
+    }
+}
@@ -0,0 +1,116 @@
+package com.example.miniautorizador.service.ledger;
+
+import com.example.miniautorizador.domain.CardNumberKey;
+import com.example.miniautorizador.domain.Cents;
+import com.example.miniautorizador.model.Cartao;
+
+import java.math.BigDecimal;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Conta de um cartão no {@link BalanceLedger}: hash da senha e saldo em centavos.
+ * O saldo é alterado apenas por compare-and-set, sem locks. O número do cartão é guardado como
+ * {@link CardNumberKey}, a mesma chave do mapa de contas.
+ */
+public class LedgerAccount {
+
+    /**
+     * Retorno de {@link #debitar(long)} quando o saldo não é suficiente.
+     */
+    public static final long SALDO_INSUFICIENTE = -1L;
+
+    private final CardNumberKey chave;
+    private final AtomicReference<String> senha;
+    private final AtomicLong saldoCentavos;
+
+    /**
+     * @throws IllegalArgumentException Se o número for inválido, como em {@link CardNumberKey#of(String)}
+     */
+    public LedgerAccount(String numeroCartao, String senha, long saldoCentavos) {
+        this(CardNumberKey.of(numeroCartao), senha, saldoCentavos);
+    }
+
+    public LedgerAccount(CardNumberKey chave, String senha, long saldoCentavos) {
+        this.chave = chave;
+        this.senha = new AtomicReference<>(senha);
+        this.saldoCentavos = new AtomicLong(saldoCentavos);
+    }
+
+    public CardNumberKey getChave() {
+        return chave;
+    }
+
+    /**
+     * O número do cartão, reconstruído da chave a cada chamada (gravação e snapshot).
+     */
+    public String getNumeroCartao() {
+        return chave.getValue();
+    }
+
+    public String getSenha() {
+        return senha.get();
+    }
+
+    /**
+     * Substitui o hash da senha, se ainda for o informado (refeito com o algoritmo atual).
+     *
+     * @return true se o hash foi substituído
+     */
+    public boolean trocarSenha(String senhaAtual, String novaSenha) {
+        return senha.compareAndSet(senhaAtual, novaSenha);
+    }
+
+    public long getSaldoCentavos() {
+        return saldoCentavos.get();
+    }
+
+    public BigDecimal getSaldo() {
+        return Cents.toBigDecimal(saldoCentavos.get());
+    }
+
+    /**
+     * Debita o valor se houver saldo suficiente.
+     *
+     * @param valorCentavos O valor em centavos
+     * @return O saldo resultante em centavos, ou {@link #SALDO_INSUFICIENTE} se o débito não foi aplicado
+     */
+    public long debitar(long valorCentavos) {
+        long atual;
+        do {
+            atual = saldoCentavos.get();
+            if (valorCentavos > atual) {
+                return SALDO_INSUFICIENTE;
+            }
+        } while (!saldoCentavos.compareAndSet(atual, atual - valorCentavos));
+        return atual - valorCentavos;
+    }
+
+    /**
+     * Reduz o saldo para o valor informado, se ele for menor que o atual. Usado na recuperação:
+     * como o saldo só diminui, o menor saldo resultante registrado é o saldo correto.
+     *
+     * @return true se o saldo foi alterado
+     */
+    public boolean reduzirPara(long novoSaldoCentavos) {
+        long atual;
+        do {
+            atual = saldoCentavos.get();
+            if (novoSaldoCentavos >= atual) {
+                return false;
+            }
+        } while (!saldoCentavos.compareAndSet(atual, novoSaldoCentavos));
+        return true;
+    }
+
+    /**
+     * Cria uma visão transiente do cartão para a cadeia de regras de autorização.
+     */
+    public Cartao toCartao() {
+        return Cartao.builder()
+                .numeroCartao(chave.getValue())
+                .senha(senha.get())
+                .saldo(getSaldo())
+                .build();
+    }
+}
@@ -0,0 +1,285 @@
+package com.example.miniautorizador.service.ledger;
+
+import com.example.miniautorizador.domain.CardNumberKey;
+import com.example.miniautorizador.domain.Cents;
+import com.example.miniautorizador.service.journal.CardToken;
+import com.example.miniautorizador.service.journal.CardTokenizer;
+import com.example.miniautorizador.service.journal.JournalEntry;
+import com.example.miniautorizador.service.journal.JournalReader;
+import com.example.miniautorizador.service.journal.MappedTransactionJournal;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Recupera os saldos do {@link BalanceLedger} na inicialização a partir do último snapshot e
+ * do journal de autorizações.
+ *
+ * <ol>
+ *     <li>Carrega o snapshot (ou, sem snapshot, todos os cartões do banco);</li>
+ *     <li>carrega do banco apenas os cartões emitidos depois do snapshot ({@code id > maiorId});</li>
+ *     <li>reaplica os registros do journal posteriores ao snapshot, em paralelo, particionados
+ *     pelo cartão.</li>
+ * </ol>
+ * O journal identifica o cartão só pelo {@link CardToken}: as contas carregadas são indexadas pelo
+ * token do número, e débitos de cartões que não estão entre elas exigem a leitura de toda a tabela.
+ * Cada registro aprovado traz o saldo resultante, e o saldo só diminui, então aplicar o menor
+ * saldo registrado é idempotente e independe da ordem entre débitos concorrentes do mesmo cartão.
+ * Contas corrigidas pela reaplicação são enviadas ao {@link BalanceWriteBehind}.
+ */
+@Slf4j
+@Component
+@ConditionalOnExpression("'${autorizador.motor:banco}' == 'memoria' && ${autorizador.journal.habilitado:false}")
+public class LedgerRecovery {
+
+    private static final String CONSULTA_CARTOES = "SELECT numero_cartao, senha, saldo FROM cartoes";
+    private static final String CONSULTA_CARTOES_NOVOS = CONSULTA_CARTOES + " WHERE id > ?";
+    private static final String CONTA_CARTOES = "SELECT COUNT(*) FROM cartoes";
+    private static final int TAMANHO_LOTE_REPLAY = 1024;
+
+    private final BalanceSnapshotStore snapshotStore;
+    private final MappedTransactionJournal transactionJournal;
+    private final JdbcTemplate jdbcTemplate;
+    private final BalanceWriteBehind balanceWriteBehind;
+    private final int particoes;
+    private final AtomicLong ultimaDuracaoMs = new AtomicLong();
+
+    @Autowired
+    public LedgerRecovery(BalanceSnapshotStore snapshotStore,
+                          MappedTransactionJournal transactionJournal,
+                          JdbcTemplate jdbcTemplate,
+                          BalanceWriteBehind balanceWriteBehind,
+                          @Value("${autorizador.memoria.recuperacao.particoes:0}") int particoes,
+                          MeterRegistry meterRegistry) {
+        this.snapshotStore = snapshotStore;
+        this.transactionJournal = transactionJournal;
+        this.jdbcTemplate = jdbcTemplate;
+        this.balanceWriteBehind = balanceWriteBehind;
+        this.particoes = particoes > 0 ? particoes : Runtime.getRuntime().availableProcessors();
+        TimeGauge.builder("ledger.recuperacao.duracao", ultimaDuracaoMs, TimeUnit.MILLISECONDS, AtomicLong::get)
+                .description("Duração da última recuperação de saldos")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Resultado de uma recuperação.
+     */
+    @Getter
+    public static class Relatorio {
+        private final boolean snapshotUsado;
+        private final long contasSnapshot;
+        private final long contasBanco;
+        private final long registrosReaplicados;
+        private final long contasCorrigidas;
+        private final long posicaoInicial;
+        private final long posicaoFinal;
+        private final long duracaoMs;
+
+        Relatorio(boolean snapshotUsado, long contasSnapshot, long contasBanco, long registrosReaplicados,
+                  long contasCorrigidas, long posicaoInicial, long posicaoFinal, long duracaoMs) {
+            this.snapshotUsado = snapshotUsado;
+            this.contasSnapshot = contasSnapshot;
+            this.contasBanco = contasBanco;
+            this.registrosReaplicados = registrosReaplicados;
+            this.contasCorrigidas = contasCorrigidas;
+            this.posicaoInicial = posicaoInicial;
+            this.posicaoFinal = posicaoFinal;
+            this.duracaoMs = duracaoMs;
+        }
+    }
+
+    /**
+     * Reconstrói as contas no mapa informado, substituindo seu conteúdo.
+     */
+    public Relatorio recuperar(Map<CardNumberKey, LedgerAccount> contas) {
+        long inicio = System.currentTimeMillis();
+        contas.clear();
+
+        BalanceSnapshotStore.Cabecalho snapshot = snapshotStore.ler(conta -> contas.put(conta.getChave(), conta));
+        long contasBanco;
+        long posicaoInicial;
+        if (snapshot == null) {
+            contas.clear();
+            contasBanco = carregar(contas, CONSULTA_CARTOES);
+            posicaoInicial = 0;
+        } else {
+            contasBanco = carregar(contas, CONSULTA_CARTOES_NOVOS, snapshot.getMaiorId());
+            contasBanco += completarFaltantes(contas);
+            posicaoInicial = snapshot.getPosicaoJournal();
+        }
+
+        Replay replay = reaplicar(contas, posicaoInicial);
+
+        long duracao = System.currentTimeMillis() - inicio;
+        ultimaDuracaoMs.set(duracao);
+        Relatorio relatorio = new Relatorio(snapshot != null, snapshot != null ? snapshot.getQuantidadeContas() : 0,
+                contasBanco, replay.registros, replay.corrigidas, posicaoInicial, replay.posicaoFinal, duracao);
+        log.info("Saldos recuperados em {} ms: {} contas do snapshot, {} do banco, {} registros do journal "
+                        + "reaplicados ({} a {}) em {} partições, {} contas corrigidas",
+                duracao, relatorio.getContasSnapshot(), contasBanco, replay.registros, posicaoInicial,
+                replay.posicaoFinal, particoes, replay.corrigidas);
+        return relatorio;
+    }
+
+    private long carregar(Map<CardNumberKey, LedgerAccount> contas, String consulta, Object... parametros) {
+        long[] carregadas = new long[1];
+        jdbcTemplate.query(consulta, rs -> {
+            LedgerAccount conta = new LedgerAccount(rs.getString(1), rs.getString(2), Cents.of(rs.getBigDecimal(3)));
+            if (contas.putIfAbsent(conta.getChave(), conta) == null) {
+                carregadas[0]++;
+            }
+        }, parametros);
+        return carregadas[0];
+    }
+
+    /**
+     * Cartões confirmados com id menor que o do snapshot, mas ainda não registrados no ledger
+     * quando ele foi gravado, não estão no snapshot nem em {@code id > maiorId}. A contagem
+     * detecta esse caso, que é raro, e só então percorre a tabela.
+     */
+    private long completarFaltantes(Map<CardNumberKey, LedgerAccount> contas) {
+        Long total = jdbcTemplate.queryForObject(CONTA_CARTOES, Long.class);
+        if (total == null || total <= contas.size()) {
+            return 0;
+        }
+        log.warn("{} cartões no banco e {} no snapshot; carregando os faltantes", total, contas.size());
+        return carregar(contas, CONSULTA_CARTOES);
+    }
+
+    private static class Replay {
+        private long registros;
+        private long corrigidas;
+        private long posicaoFinal;
+    }
+
+    private static class Particao {
+        private final List<LedgerAccount> corrigidas = new ArrayList<>();
+        private final Map<CardToken, Long> desconhecidas = new HashMap<>();
+    }
+
+    private Replay reaplicar(Map<CardNumberKey, LedgerAccount> contas, long desde) {
+        CardTokenizer tokenizer = transactionJournal.getTokenizer();
+        Map<CardToken, LedgerAccount> porToken = new ConcurrentHashMap<>(contas.size() * 4 / 3 + 1);
+        contas.values().parallelStream()
+                .forEach(conta -> porToken.put(tokenizer.tokenizar(conta.getNumeroCartao()), conta));
+
+        ExecutorService[] executores = new ExecutorService[particoes];
+        Particao[] estados = new Particao[particoes];
+        List<List<JournalEntry>> lotes = new ArrayList<>(particoes);
+        for (int i = 0; i < particoes; i++) {
+            final int indice = i;
+            executores[i] = Executors.newSingleThreadExecutor(r -> new Thread(r, "ledger-recuperacao-" + indice));
+            estados[i] = new Particao();
+            lotes.add(new ArrayList<>(TAMANHO_LOTE_REPLAY));
+        }
+
+        Replay replay = new Replay();
+        List<Future<?>> tarefas = new ArrayList<>();
+        try {
+            replay.posicaoFinal = new JournalReader(transactionJournal.getDiretorio(), tokenizer).ler(desde, entry -> {
+                if (!entry.isAprovada()) {
+                    return;
+                }
+                replay.registros++;
+                int particao = (entry.getTokenCartao().hashCode() & Integer.MAX_VALUE) % particoes;
+                List<JournalEntry> lote = lotes.get(particao);
+                lote.add(entry);
+                if (lote.size() == TAMANHO_LOTE_REPLAY) {
+                    tarefas.add(executores[particao].submit(() -> aplicar(porToken, lote, estados[particao])));
+                    lotes.set(particao, new ArrayList<>(TAMANHO_LOTE_REPLAY));
+                }
+            });
+            for (int i = 0; i < particoes; i++) {
+                List<JournalEntry> lote = lotes.get(i);
+                Particao estado = estados[i];
+                if (!lote.isEmpty()) {
+                    tarefas.add(executores[i].submit(() -> aplicar(porToken, lote, estado)));
+                }
+            }
+            for (Future<?> tarefa : tarefas) {
+                tarefa.get();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Falha ao ler o journal para recuperação dos saldos", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Recuperação dos saldos interrompida", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Falha ao reaplicar o journal", e.getCause());
+        } finally {
+            for (ExecutorService executor : executores) {
+                executor.shutdownNow();
+            }
+        }
+
+        Map<CardToken, Long> desconhecidas = new HashMap<>();
+        for (Particao estado : estados) {
+            estado.corrigidas.forEach(balanceWriteBehind::marcarAlterada);
+            replay.corrigidas += estado.corrigidas.size();
+            desconhecidas.putAll(estado.desconhecidas);
+        }
+        replay.corrigidas += carregarDesconhecidas(contas, desconhecidas);
+        return replay;
+    }
+
+    private void aplicar(Map<CardToken, LedgerAccount> contas, List<JournalEntry> lote, Particao estado) {
+        for (JournalEntry entry : lote) {
+            LedgerAccount conta = contas.get(entry.getTokenCartao());
+            if (conta == null) {
+                estado.desconhecidas.merge(entry.getTokenCartao(), entry.getSaldoResultanteCentavos(), Math::min);
+            } else if (conta.reduzirPara(entry.getSaldoResultanteCentavos())) {
+                estado.corrigidas.add(conta);
+            }
+        }
+    }
+
+    /**
+     * Cartões com débitos no journal que não estão no snapshot nem entre os novos do banco. Como o
+     * journal só tem o token, os cartões que faltam no mapa são carregados de toda a tabela.
+     */
+    private long carregarDesconhecidas(Map<CardNumberKey, LedgerAccount> contas, Map<CardToken, Long> desconhecidas) {
+        if (desconhecidas.isEmpty()) {
+            return 0;
+        }
+
+        log.warn("{} cartões do journal fora das contas carregadas; lendo todos os cartões", desconhecidas.size());
+        Set<CardNumberKey> conhecidas = new HashSet<>(contas.keySet());
+        carregar(contas, CONSULTA_CARTOES);
+
+        CardTokenizer tokenizer = transactionJournal.getTokenizer();
+        long corrigidas = 0;
+        for (LedgerAccount conta : contas.values()) {
+            if (conhecidas.contains(conta.getChave())) {
+                continue;
+            }
+            Long saldo = desconhecidas.get(tokenizer.tokenizar(conta.getNumeroCartao()));
+            if (saldo != null && conta.reduzirPara(saldo)) {
+                balanceWriteBehind.marcarAlterada(conta);
+                corrigidas++;
+            }
+        }
+        return corrigidas;
+    }
+}
@@ -0,0 +1,126 @@
+package com.example.miniautorizador.controller.reactive;
+
+import com.example.miniautorizador.dto.CartaoDto;
+import com.example.miniautorizador.dto.TransacaoDto;
+import com.example.miniautorizador.repository.CartaoRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("reativo")
+public class ReactiveControllerE2ETest {
+
+    private static final String NUMERO_CARTAO = "6549873025634501";
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Autowired
+    private CartaoRepository cartaoRepository;
+
+    @BeforeEach
+    public void setup() {
+        cartaoRepository.deleteAll();
+        webTestClient = webTestClient.mutate()
+                .responseTimeout(Duration.ofSeconds(30))
+                .defaultHeaders(headers -> headers.setBasicAuth("user", "password"))
+                .build();
+    }
+
+    @Test
+    public void testCriarCartaoEConsultarSaldoReativo() {
+        criarCartao().expectStatus().isCreated()
+                .expectBody().json("{\"numeroCartao\":\"" + NUMERO_CARTAO + "\",\"senha\":\"1234\"}");
+
+        criarCartao().expectStatus().isEqualTo(HttpStatus.UNPROCESSABLE_ENTITY)
+                .expectBody().json("{\"numeroCartao\":\"" + NUMERO_CARTAO + "\",\"senha\":\"1234\"}");
+
+        webTestClient.get().uri("/cartoes/" + NUMERO_CARTAO).exchange()
+                .expectStatus().isOk()
+                .expectBody(String.class).isEqualTo("500.00");
+
+        webTestClient.get().uri("/cartoes/1111222233334444").exchange()
+                .expectStatus().isNotFound();
+    }
+
+    @Test
+    public void testTransacoesReativas_MesmosStatusECodigos() {
+        criarCartao().expectStatus().isCreated();
+
+        transacao(NUMERO_CARTAO, "1234", "100.00")
+                .expectStatus().isCreated()
+                .expectBody(String.class).isEqualTo("OK");
+        transacao(NUMERO_CARTAO, "9999", "10.00")
+                .expectStatus().isEqualTo(HttpStatus.UNPROCESSABLE_ENTITY)
+                .expectBody(String.class).isEqualTo("SENHA_INVALIDA");
+        transacao(NUMERO_CARTAO, "1234", "400.01")
+                .expectStatus().isEqualTo(HttpStatus.UNPROCESSABLE_ENTITY)
+                .expectBody(String.class).isEqualTo("SALDO_INSUFICIENTE");
+        transacao("1111222233334444", "1234", "10.00")
+                .expectStatus().isEqualTo(HttpStatus.UNPROCESSABLE_ENTITY)
+                .expectBody(String.class).isEqualTo("CARTAO_INEXISTENTE");
+        transacao(NUMERO_CARTAO, "1234", "0.00")
+                .expectStatus().isEqualTo(HttpStatus.UNPROCESSABLE_ENTITY)
+                .expectBody(String.class).isEqualTo("VALOR_INVALIDO");
+
+        webTestClient.get().uri("/cartoes/" + NUMERO_CARTAO).exchange()
+                .expectStatus().isOk()
+                .expectBody(String.class).isEqualTo("400.00");
+    }
+
+    @Test
+    public void testTransacoesConcorrentesReativas_NaoDebitamAlemDoSaldo() throws Exception {
+        criarCartao().expectStatus().isCreated();
+
+        ExecutorService executor = Executors.newFixedThreadPool(16);
+        List<Future<HttpStatus>> respostas = new ArrayList<>();
+        for (int i = 0; i < 60; i++) {
+            respostas.add(executor.submit(() ->
+                    transacao(NUMERO_CARTAO, "1234", "10.00").returnResult(String.class).getStatus()));
+        }
+        List<HttpStatus> status = new ArrayList<>();
+        for (Future<HttpStatus> resposta : respostas) {
+            status.add(resposta.get());
+        }
+        executor.shutdown();
+
+        assertEquals(50, status.stream().filter(HttpStatus.CREATED::equals).count());
+        assertEquals(new BigDecimal("0.00"), cartaoRepository.findSaldoByNumeroCartao(NUMERO_CARTAO));
+    }
+
+    @Test
+    public void testSemCredenciais_DeveRetornar401() {
+        webTestClient.mutate()
+                .defaultHeaders(headers -> headers.remove("Authorization"))
+                .build()
+                .get().uri("/cartoes/" + NUMERO_CARTAO).exchange()
+                .expectStatus().isUnauthorized();
+    }
+
+    private WebTestClient.ResponseSpec criarCartao() {
+        return webTestClient.post().uri("/cartoes")
+                .bodyValue(new CartaoDto(NUMERO_CARTAO, "1234"))
+                .exchange();
+    }
+
+    private WebTestClient.ResponseSpec transacao(String numeroCartao, String senha, String valor) {
+        return webTestClient.post().uri("/transacoes")
+                .bodyValue(new TransacaoDto(numeroCartao, senha, new BigDecimal(valor)))
+                .exchange();
+    }
+}
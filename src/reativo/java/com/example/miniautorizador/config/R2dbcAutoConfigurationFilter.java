@@ -0,0 +1,27 @@
+package com.example.miniautorizador.config;
+
+import org.springframework.boot.autoconfigure.AutoConfigurationImportFilter;
+import org.springframework.boot.autoconfigure.AutoConfigurationMetadata;
+
+/**
+ * Desliga a autoconfiguração do R2DBC, presente no classpath apenas no build {@code -Preativo}.
+ *
+ * Um {@code ConnectionFactory} como bean desligaria o {@code DataSource} que o JPA continua usando;
+ * no perfil {@code reativo}, o {@code ReactiveCartaoRepository} cria o próprio pool a partir de
+ * {@code reativo.r2dbc.*}. O filtro dispensa o {@code spring.autoconfigure.exclude} na configuração
+ * e não interfere nas exclusões que ela já tem.
+ */
+public class R2dbcAutoConfigurationFilter implements AutoConfigurationImportFilter {
+
+    private static final String R2DBC_AUTO_CONFIGURATION =
+            "org.springframework.boot.autoconfigure.r2dbc.R2dbcAutoConfiguration";
+
+    @Override
+    public boolean[] match(String[] autoConfigurationClasses, AutoConfigurationMetadata autoConfigurationMetadata) {
+        boolean[] incluir = new boolean[autoConfigurationClasses.length];
+        for (int i = 0; i < autoConfigurationClasses.length; i++) {
+            incluir[i] = !R2DBC_AUTO_CONFIGURATION.equals(autoConfigurationClasses[i]);
+        }
+        return incluir;
+    }
+}
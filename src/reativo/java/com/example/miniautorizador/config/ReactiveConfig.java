@@ -0,0 +1,34 @@
+package com.example.miniautorizador.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+/**
+ * Configuração do perfil {@code reativo}: WebFlux sobre Netty, com o acesso ao banco das
+ * transações, emissões e consultas de saldo feito por R2DBC.
+ *
+ * O BCrypt (senhas dos cartões e credenciais HTTP Basic) é executado no
+ * {@link com.example.miniautorizador.security.PinHashingExecutor}, fora dos event loops do Netty,
+ * com os mesmos limites do perfil padrão ({@code cartao.senha.hash.*}).
+ */
+@Configuration
+@Profile("reativo")
+public class ReactiveConfig {
+
+    public ReactiveConfig(@Value("${autorizador.motor:banco}") String motor) {
+        if (!"banco".equals(motor)) {
+            throw new IllegalStateException("O perfil reativo requer autorizador.motor=banco, configurado: " + motor);
+        }
+    }
+
+    /**
+     * Com o Tomcat também no classpath, o Spring Boot o escolheria para o WebFlux.
+     */
+    @Bean
+    public NettyReactiveWebServerFactory nettyReactiveWebServerFactory() {
+        return new NettyReactiveWebServerFactory();
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.miniautorizador.config;
+
+import com.example.miniautorizador.security.AuthenticationProviderFactory;
+import com.example.miniautorizador.security.PinHashingExecutor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.security.authentication.ProviderManager;
+import org.springframework.security.authentication.ReactiveAuthenticationManager;
+import org.springframework.security.config.annotation.web.reactive.EnableWebFluxSecurity;
+import org.springframework.security.config.web.server.ServerHttpSecurity;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.web.server.SecurityWebFilterChain;
+import org.springframework.security.web.server.context.NoOpServerSecurityContextRepository;
+import reactor.core.publisher.Mono;
+
+/**
+ * Segurança do perfil {@code reativo}, com as mesmas regras de {@link SecurityConfig}. A
+ * autenticação usa o mesmo provedor; o BCrypt das credenciais roda no {@link PinHashingExecutor},
+ * com a prioridade da autorização, como o das senhas dos cartões.
+ */
+@Configuration
+@EnableWebFluxSecurity
+@Profile("reativo")
+public class ReactiveSecurityConfig {
+
+    @Bean
+    public SecurityWebFilterChain securityWebFilterChain(ServerHttpSecurity http) {
+        return http
+            .csrf().disable()
+            .authorizeExchange()
+                .pathMatchers("/cartoes/**", "/transacoes/**", "/actuator/**").authenticated()
+                .anyExchange().denyAll()
+            .and()
+            .httpBasic()
+            .and()
+            .securityContextRepository(NoOpServerSecurityContextRepository.getInstance())
+            .build();
+    }
+
+    @Bean
+    public ReactiveAuthenticationManager reactiveAuthenticationManager(
+            AuthenticationProviderFactory authenticationProviderFactory,
+            PinHashingExecutor pinHashingExecutor) {
+        ProviderManager providerManager = new ProviderManager(authenticationProviderFactory.criar());
+        return authentication -> Mono.defer(() -> Mono.fromFuture(pinHashingExecutor.submeter(
+                        PinHashingExecutor.Prioridade.AUTORIZACAO, () -> providerManager.authenticate(authentication))))
+                .filter(Authentication::isAuthenticated);
+    }
+}
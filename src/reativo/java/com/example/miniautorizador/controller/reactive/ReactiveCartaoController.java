@@ -0,0 +1,76 @@
+package com.example.miniautorizador.controller.reactive;
+
+import com.example.miniautorizador.dto.CartaoDto;
+import com.example.miniautorizador.dto.EmissaoLoteDto;
+import com.example.miniautorizador.service.CartaoEmissaoLoteService;
+import com.example.miniautorizador.service.reactive.ReactiveCartaoService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import javax.validation.Valid;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+
+/**
+ * Equivalente WebFlux do {@link com.example.miniautorizador.controller.CartaoController}, com os
+ * mesmos status e corpos. A emissão em lote usa o serviço bloqueante, fora dos event loops, sobre
+ * o corpo já recebido por inteiro.
+ */
+@RestController
+@Profile("reativo")
+@RequestMapping("/cartoes")
+public class ReactiveCartaoController {
+
+    private final ReactiveCartaoService cartaoService;
+    private final CartaoEmissaoLoteService cartaoEmissaoLoteService;
+
+    @Autowired
+    public ReactiveCartaoController(ReactiveCartaoService cartaoService,
+                                    CartaoEmissaoLoteService cartaoEmissaoLoteService) {
+        this.cartaoService = cartaoService;
+        this.cartaoEmissaoLoteService = cartaoEmissaoLoteService;
+    }
+
+    @PostMapping
+    public Mono<ResponseEntity<CartaoDto>> criarCartao(@Valid @RequestBody CartaoDto cartaoDto) {
+        return cartaoService.criarCartao(cartaoDto)
+                .map(cartaoCriado -> new ResponseEntity<>(cartaoCriado, HttpStatus.CREATED));
+    }
+
+    @PostMapping(value = "/lote", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public Mono<ResponseEntity<EmissaoLoteDto>> criarCartoesEmLote(@RequestBody Flux<DataBuffer> conteudo) {
+        return DataBufferUtils.join(conteudo)
+                .publishOn(Schedulers.boundedElastic())
+                .map(buffer -> {
+                    try (InputStream entrada = buffer.asInputStream(true)) {
+                        EmissaoLoteDto resultado = cartaoEmissaoLoteService.emitir(entrada);
+                        return new ResponseEntity<>(resultado,
+                                resultado.getErro() == null ? HttpStatus.OK : HttpStatus.BAD_REQUEST);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+    }
+
+    @GetMapping("/{numeroCartao}")
+    public Mono<ResponseEntity<BigDecimal>> obterSaldo(@PathVariable String numeroCartao) {
+        return cartaoService.obterSaldo(numeroCartao)
+                .map(saldo -> new ResponseEntity<>(saldo, HttpStatus.OK));
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.miniautorizador.controller.reactive;
+
+import com.example.miniautorizador.dto.ResultadoTransacaoDto;
+import com.example.miniautorizador.dto.TransacaoDto;
+import com.example.miniautorizador.service.TransacaoLoteService;
+import com.example.miniautorizador.service.reactive.ReactiveTransacaoService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import javax.validation.Valid;
+import java.util.List;
+
+/**
+ * Equivalente WebFlux do {@link com.example.miniautorizador.controller.TransacaoController}, com
+ * os mesmos status e corpos. O lote usa o processamento bloqueante do motor padrão, fora dos
+ * event loops.
+ */
+@RestController
+@Profile("reativo")
+@RequestMapping("/transacoes")
+public class ReactiveTransacaoController {
+
+    private final ReactiveTransacaoService transacaoService;
+    private final TransacaoLoteService transacaoLoteService;
+
+    @Autowired
+    public ReactiveTransacaoController(ReactiveTransacaoService transacaoService,
+                                       TransacaoLoteService transacaoLoteService) {
+        this.transacaoService = transacaoService;
+        this.transacaoLoteService = transacaoLoteService;
+    }
+
+    @PostMapping
+    public Mono<ResponseEntity<String>> realizarTransacao(@Valid @RequestBody TransacaoDto transacaoDto) {
+        return transacaoService.processarTransacao(transacaoDto)
+                .map(resultado -> resultado.isAprovada()
+                        ? new ResponseEntity<>("OK", HttpStatus.CREATED)
+                        : new ResponseEntity<>(resultado.getErro().toString(), HttpStatus.UNPROCESSABLE_ENTITY));
+    }
+
+    @PostMapping("/lote")
+    public Mono<ResponseEntity<List<ResultadoTransacaoDto>>> realizarLote(@RequestBody List<TransacaoDto> transacoes) {
+        return Mono.fromCallable(() -> new ResponseEntity<>(transacaoLoteService.processarLote(transacoes), HttpStatus.OK))
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+}
@@ -0,0 +1,119 @@
+package com.example.miniautorizador.exception;
+
+import com.example.miniautorizador.dto.CartaoDto;
+import com.example.miniautorizador.dto.TransacaoDto;
+import com.example.miniautorizador.enums.AutorizacaoErro;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.validation.FieldError;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.bind.support.WebExchangeBindException;
+import org.springframework.web.server.ResponseStatusException;
+
+import javax.validation.ConstraintViolationException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Tratamento de exceções do perfil {@code reativo}, com os mesmos status e corpos do
+ * {@link GlobalExceptionHandler}.
+ */
+@RestControllerAdvice
+@Profile("reativo")
+public class ReactiveExceptionHandler {
+
+    @ExceptionHandler(WebExchangeBindException.class)
+    public ResponseEntity<Object> handleWebExchangeBindException(WebExchangeBindException ex) {
+        if (ex.getTarget() instanceof TransacaoDto) {
+            for (FieldError error : ex.getBindingResult().getFieldErrors()) {
+                AutorizacaoErro erro = AutorizacaoErro.doCampoInvalido(error.getField());
+                if (erro != null) {
+                    return new ResponseEntity<>(erro.toString(), HttpStatus.UNPROCESSABLE_ENTITY);
+                }
+            }
+        }
+
+        Map<String, String> errors = new HashMap<>();
+        ex.getBindingResult().getFieldErrors().forEach(error ->
+                errors.put(error.getField(), error.getDefaultMessage()));
+
+        return new ResponseEntity<>(errors, HttpStatus.BAD_REQUEST);
+    }
+
+    @ExceptionHandler(ConstraintViolationException.class)
+    public ResponseEntity<Object> handleConstraintViolationException(ConstraintViolationException ex) {
+        Map<String, String> errors = new HashMap<>();
+        ex.getConstraintViolations().forEach(violation ->
+                errors.put(violation.getPropertyPath().toString(), violation.getMessage()));
+
+        return new ResponseEntity<>(errors, HttpStatus.BAD_REQUEST);
+    }
+
+    @ExceptionHandler(CartaoJaExistenteException.class)
+    public ResponseEntity<CartaoDto> handleCartaoJaExistenteException(CartaoJaExistenteException ex) {
+        return new ResponseEntity<>(ex.getCartaoDto(), HttpStatus.UNPROCESSABLE_ENTITY);
+    }
+
+    @ExceptionHandler(CartaoNaoEncontradoException.class)
+    public ResponseEntity<Void> handleCartaoNaoEncontradoException(CartaoNaoEncontradoException ex) {
+        return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+    }
+
+    @ExceptionHandler(TransacaoNaoAutorizadaException.class)
+    public ResponseEntity<String> handleTransacaoNaoAutorizadaException(TransacaoNaoAutorizadaException ex) {
+        return new ResponseEntity<>(ex.getErro().toString(), HttpStatus.UNPROCESSABLE_ENTITY);
+    }
+
+    @ExceptionHandler(LoteExcedidoException.class)
+    public ResponseEntity<Object> handleLoteExcedidoException(LoteExcedidoException ex) {
+        Map<String, String> error = new HashMap<>();
+        error.put("message", ex.getMessage());
+
+        return new ResponseEntity<>(error, HttpStatus.PAYLOAD_TOO_LARGE);
+    }
+
+    @ExceptionHandler(ObjectOptimisticLockingFailureException.class)
+    public ResponseEntity<Object> handleObjectOptimisticLockingFailureException(
+            ObjectOptimisticLockingFailureException ex) {
+        Map<String, String> error = new HashMap<>();
+        error.put("message", GlobalExceptionHandler.MENSAGEM_CONFLITO);
+
+        return new ResponseEntity<>(error, HttpStatus.CONFLICT);
+    }
+
+    /**
+     * Erros do próprio WebFlux (corpo ilegível, tipo de conteúdo não suportado) mantêm o seu status,
+     * como os tratados pelo {@code ResponseEntityExceptionHandler} no servlet.
+     */
+    @ExceptionHandler(ResponseStatusException.class)
+    public ResponseEntity<Void> handleResponseStatusException(ResponseStatusException ex) {
+        return new ResponseEntity<>(ex.getStatus());
+    }
+
+    /**
+     * Fila do pool de BCrypt cheia: recusa imediata, com o tempo sugerido para a nova tentativa.
+     */
+    @ExceptionHandler(ServicoSobrecarregadoException.class)
+    public ResponseEntity<Object> handleServicoSobrecarregadoException(
+            ServicoSobrecarregadoException ex) {
+        Map<String, String> error = new HashMap<>();
+        error.put("message", ex.getMessage());
+
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSegundos()))
+                .body(error);
+    }
+
+    @ExceptionHandler(Exception.class)
+    public ResponseEntity<Object> handleAllExceptions(Exception ex) {
+        Map<String, String> error = new HashMap<>();
+        error.put("message", GlobalExceptionHandler.MENSAGEM_ERRO_INTERNO);
+        error.put("details", ex.getMessage());
+
+        return new ResponseEntity<>(error, HttpStatus.INTERNAL_SERVER_ERROR);
+    }
+}
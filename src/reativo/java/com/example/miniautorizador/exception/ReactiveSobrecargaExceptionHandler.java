@@ -0,0 +1,55 @@
+package com.example.miniautorizador.exception;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebExceptionHandler;
+import reactor.core.publisher.Mono;
+
+import java.util.Collections;
+
+/**
+ * Responde 503 com {@code Retry-After} quando a fila de hashes recusa o BCrypt das credenciais
+ * HTTP Basic. A autenticação roda em um filtro, antes dos controllers, e as exceções dos filtros
+ * não chegam ao {@link ReactiveExceptionHandler}; o corpo é o mesmo que ele produz.
+ */
+@Component
+@Profile("reativo")
+@Order(-2)
+public class ReactiveSobrecargaExceptionHandler implements WebExceptionHandler {
+
+    private final ObjectMapper objectMapper;
+
+    @Autowired
+    public ReactiveSobrecargaExceptionHandler(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public Mono<Void> handle(ServerWebExchange exchange, Throwable ex) {
+        ServerHttpResponse response = exchange.getResponse();
+        if (!(ex instanceof ServicoSobrecarregadoException) || response.isCommitted()) {
+            return Mono.error(ex);
+        }
+
+        byte[] corpo;
+        try {
+            corpo = objectMapper.writeValueAsBytes(Collections.singletonMap("message", ex.getMessage()));
+        } catch (JsonProcessingException e) {
+            return Mono.error(ex);
+        }
+        response.setStatusCode(HttpStatus.SERVICE_UNAVAILABLE);
+        response.getHeaders().set(HttpHeaders.RETRY_AFTER,
+                String.valueOf(((ServicoSobrecarregadoException) ex).getRetryAfterSegundos()));
+        response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(corpo)));
+    }
+}
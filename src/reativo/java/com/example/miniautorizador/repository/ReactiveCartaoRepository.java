@@ -0,0 +1,141 @@
+package com.example.miniautorizador.repository;
+
+import com.example.miniautorizador.model.Cartao;
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import io.r2dbc.spi.Row;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+
+import javax.annotation.PreDestroy;
+import java.math.BigDecimal;
+
+/**
+ * Repositório reativo da tabela {@code cartoes}, usado pelo perfil {@code reativo}.
+ *
+ * As consultas são SQL explícito sobre um {@link DatabaseClient} com pool R2DBC próprio. O pool
+ * não é registrado como bean: um {@code ConnectionFactory} no contexto desativaria a
+ * configuração automática do DataSource, que o JPA continua usando nas demais operações.
+ */
+@Repository
+@Profile("reativo")
+public class ReactiveCartaoRepository {
+
+    private static final String CONSULTA_CARTAO =
+            "SELECT id, numero_cartao, senha, saldo, version FROM cartoes WHERE numero_cartao = :numeroCartao";
+    private static final String CONSULTA_SALDO = "SELECT saldo FROM cartoes WHERE numero_cartao = :numeroCartao";
+    private static final String CONSULTA_EXISTENCIA = "SELECT 1 FROM cartoes WHERE numero_cartao = :numeroCartao";
+    private static final String DEBITA_SALDO = "UPDATE cartoes SET saldo = saldo - :valor, version = version + 1 "
+            + "WHERE numero_cartao = :numeroCartao AND saldo >= :valor";
+    private static final String INSERE_CARTAO = "INSERT INTO cartoes (numero_cartao, senha, saldo, version) "
+            + "VALUES (:numeroCartao, :senha, :saldo, 0)";
+
+    private final ConnectionPool connectionPool;
+    private final DatabaseClient databaseClient;
+
+    @Autowired
+    public ReactiveCartaoRepository(@Value("${reativo.r2dbc.url}") String url,
+                                    @Value("${reativo.r2dbc.usuario:}") String usuario,
+                                    @Value("${reativo.r2dbc.senha:}") String senha,
+                                    @Value("${reativo.r2dbc.pool.tamanho-inicial:10}") int tamanhoInicial,
+                                    @Value("${reativo.r2dbc.pool.tamanho-maximo:50}") int tamanhoMaximo) {
+        ConnectionFactoryOptions.Builder opcoes = ConnectionFactoryOptions.parse(url).mutate();
+        if (!usuario.isEmpty()) {
+            opcoes.option(ConnectionFactoryOptions.USER, usuario);
+        }
+        if (!senha.isEmpty()) {
+            opcoes.option(ConnectionFactoryOptions.PASSWORD, senha);
+        }
+        this.connectionPool = new ConnectionPool(ConnectionPoolConfiguration
+                .builder(ConnectionFactories.get(opcoes.build()))
+                .name("cartoes-reativo")
+                .initialSize(Math.min(tamanhoInicial, tamanhoMaximo))
+                .maxSize(tamanhoMaximo)
+                .build());
+        this.databaseClient = DatabaseClient.create(connectionPool);
+    }
+
+    /**
+     * Busca um cartão pelo número.
+     *
+     * @param numeroCartao o número do cartão a ser buscado
+     * @return o cartão encontrado, ou vazio se não existir
+     */
+    public Mono<Cartao> buscarPorNumero(String numeroCartao) {
+        return databaseClient.sql(CONSULTA_CARTAO)
+                .bind("numeroCartao", numeroCartao)
+                .map((row, metadata) -> mapear(row))
+                .one();
+    }
+
+    /**
+     * Lê apenas o saldo de um cartão.
+     *
+     * @param numeroCartao o número do cartão
+     * @return o saldo, ou vazio se o cartão não existir
+     */
+    public Mono<BigDecimal> buscarSaldo(String numeroCartao) {
+        return databaseClient.sql(CONSULTA_SALDO)
+                .bind("numeroCartao", numeroCartao)
+                .map((row, metadata) -> row.get(0, BigDecimal.class))
+                .one();
+    }
+
+    public Mono<Boolean> existePorNumero(String numeroCartao) {
+        return databaseClient.sql(CONSULTA_EXISTENCIA)
+                .bind("numeroCartao", numeroCartao)
+                .map((row, metadata) -> Boolean.TRUE)
+                .one()
+                .defaultIfEmpty(Boolean.FALSE);
+    }
+
+    /**
+     * Debita o valor do saldo em um único UPDATE condicional, somente se houver saldo suficiente.
+     * A versão é incrementada para que escritas otimistas concorrentes do JPA detectem a alteração.
+     *
+     * @param numeroCartao o número do cartão
+     * @param valor o valor a ser debitado
+     * @return a quantidade de linhas alteradas (0 se o saldo for insuficiente ou o cartão não existir)
+     */
+    public Mono<Integer> debitarSaldoSeSuficiente(String numeroCartao, BigDecimal valor) {
+        return databaseClient.sql(DEBITA_SALDO)
+                .bind("numeroCartao", numeroCartao)
+                .bind("valor", valor)
+                .fetch()
+                .rowsUpdated();
+    }
+
+    /**
+     * Insere um cartão novo; um número já cadastrado resulta em
+     * {@link org.springframework.dao.DataIntegrityViolationException}.
+     */
+    public Mono<Integer> inserir(Cartao cartao) {
+        return databaseClient.sql(INSERE_CARTAO)
+                .bind("numeroCartao", cartao.getNumeroCartao())
+                .bind("senha", cartao.getSenha())
+                .bind("saldo", cartao.getSaldo())
+                .fetch()
+                .rowsUpdated();
+    }
+
+    private static Cartao mapear(Row row) {
+        return Cartao.builder()
+                .id(row.get("id", Long.class))
+                .numeroCartao(row.get("numero_cartao", String.class))
+                .senha(row.get("senha", String.class))
+                .saldo(row.get("saldo", BigDecimal.class))
+                .version(row.get("version", Long.class))
+                .build();
+    }
+
+    @PreDestroy
+    public void encerrar() {
+        connectionPool.dispose();
+    }
+}
@@ -0,0 +1,130 @@
+package com.example.miniautorizador.service.reactive;
+
+import com.example.miniautorizador.cache.BalanceCache;
+import com.example.miniautorizador.cache.CardExistenceFilter;
+import com.example.miniautorizador.domain.CardNumber;
+import com.example.miniautorizador.domain.Cents;
+import com.example.miniautorizador.domain.Money;
+import com.example.miniautorizador.dto.CartaoDto;
+import com.example.miniautorizador.event.CartaoCriadoEvent;
+import com.example.miniautorizador.exception.CartaoJaExistenteException;
+import com.example.miniautorizador.exception.CartaoNaoEncontradoException;
+import com.example.miniautorizador.model.Cartao;
+import com.example.miniautorizador.repository.ReactiveCartaoRepository;
+import com.example.miniautorizador.security.PinHasher;
+import com.example.miniautorizador.security.PinHashingExecutor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+
+/**
+ * Emissão de cartões e consulta de saldo no perfil {@code reativo}, com as mesmas regras do
+ * {@link com.example.miniautorizador.service.CartaoService}.
+ *
+ * O hash da senha é calculado no {@link PinHashingExecutor}, com a prioridade da emissão, sem
+ * ocupar outra thread enquanto aguarda a fila. O evento de criação é publicado depois do INSERT, antes da resposta: o cliente nunca
+ * recebe o 201 de um cartão ainda desconhecido pelo {@link CardExistenceFilter}.
+ */
+@Service
+@Profile("reativo")
+public class ReactiveCartaoService {
+
+    private final ReactiveCartaoRepository cartaoRepository;
+    private final Money saldoInicial;
+    private final ApplicationEventPublisher eventPublisher;
+    private final BalanceCache balanceCache;
+    private final CardExistenceFilter cardExistenceFilter;
+    private final PinHashingExecutor pinHashingExecutor;
+    private final PinHasher pinHasher;
+    private final boolean verificarLuhn;
+
+    @Autowired
+    public ReactiveCartaoService(ReactiveCartaoRepository cartaoRepository, Money saldoInicial,
+                                 ApplicationEventPublisher eventPublisher, BalanceCache balanceCache,
+                                 ObjectProvider<CardExistenceFilter> cardExistenceFilter,
+                                 PinHashingExecutor pinHashingExecutor,
+                                 PinHasher pinHasher,
+                                 @Value("${cartao.numero.luhn.habilitado:false}") boolean verificarLuhn) {
+        this.cartaoRepository = cartaoRepository;
+        this.saldoInicial = saldoInicial;
+        this.eventPublisher = eventPublisher;
+        this.balanceCache = balanceCache;
+        this.cardExistenceFilter = cardExistenceFilter.getIfAvailable();
+        this.pinHashingExecutor = pinHashingExecutor;
+        this.pinHasher = pinHasher;
+        this.verificarLuhn = verificarLuhn;
+    }
+
+    /**
+     * Cria um cartão; um número já emitido resulta em {@link CartaoJaExistenteException}.
+     */
+    public Mono<CartaoDto> criarCartao(CartaoDto cartaoDto) {
+        if (cartaoDto.getNumeroCartao() == null || cartaoDto.getSenha() == null) {
+            return Mono.error(new IllegalArgumentException("Número do cartão e senha não podem ser nulos"));
+        }
+
+        String numeroCartao = CardNumber.of(cartaoDto.getNumeroCartao(), verificarLuhn).getValue();
+        return cartaoRepository.existePorNumero(numeroCartao)
+                .flatMap(existe -> existe
+                        ? Mono.<Cartao>error(new CartaoJaExistenteException("Cartão já existente", cartaoDto))
+                        : Mono.defer(() -> Mono.fromFuture(pinHashingExecutor.submeter(
+                                PinHashingExecutor.Prioridade.EMISSAO,
+                                () -> criarNovoCartao(numeroCartao, cartaoDto.getSenha())))))
+                .flatMap(cartao -> cartaoRepository.inserir(cartao)
+                        .onErrorMap(DataIntegrityViolationException.class,
+                                e -> new CartaoJaExistenteException("Cartão já existente", cartaoDto))
+                        .thenReturn(cartao))
+                .map(cartao -> {
+                    eventPublisher.publishEvent(new CartaoCriadoEvent(cartao));
+                    return cartaoDto;
+                });
+    }
+
+    /**
+     * Retorna o saldo do cartão, do {@link BalanceCache} ou, na primeira leitura, do banco.
+     * Cartões que o {@link CardExistenceFilter} descarta não chegam ao banco.
+     */
+    public Mono<BigDecimal> obterSaldo(String numeroCartao) {
+        if (numeroCartao == null) {
+            return Mono.error(new IllegalArgumentException("Número do cartão não pode ser nulo"));
+        }
+
+        if (cardExistenceFilter != null && !cardExistenceFilter.podeExistir(numeroCartao)) {
+            return Mono.error(new CartaoNaoEncontradoException("Cartão não encontrado"));
+        }
+
+        Long saldoCentavos = balanceCache.buscarSePresente(numeroCartao);
+        if (saldoCentavos != null) {
+            return Mono.just(Cents.toBigDecimal(saldoCentavos));
+        }
+
+        long geracao = cardExistenceFilter != null ? cardExistenceFilter.iniciarConsulta() : 0;
+        return cartaoRepository.buscarSaldo(numeroCartao)
+                .map(saldo -> {
+                    long centavos = Cents.of(saldo);
+                    balanceCache.registrar(numeroCartao, centavos);
+                    return Cents.toBigDecimal(centavos);
+                })
+                .switchIfEmpty(Mono.defer(() -> {
+                    if (cardExistenceFilter != null) {
+                        cardExistenceFilter.registrarInexistente(numeroCartao, geracao);
+                    }
+                    return Mono.error(new CartaoNaoEncontradoException("Cartão não encontrado"));
+                }));
+    }
+
+    private Cartao criarNovoCartao(String numeroCartao, String senha) {
+        return Cartao.builder()
+                .numeroCartao(numeroCartao)
+                .senha(pinHasher.criar(senha).getHashedValue())
+                .saldo(saldoInicial.getAmount())
+                .build();
+    }
+}
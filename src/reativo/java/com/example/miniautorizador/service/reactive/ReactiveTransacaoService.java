@@ -0,0 +1,152 @@
+package com.example.miniautorizador.service.reactive;
+
+import com.example.miniautorizador.cache.BalanceCache;
+import com.example.miniautorizador.cache.CardExistenceFilter;
+import com.example.miniautorizador.domain.Cents;
+import com.example.miniautorizador.dto.TransacaoDto;
+import com.example.miniautorizador.enums.AutorizacaoErro;
+import com.example.miniautorizador.model.Cartao;
+import com.example.miniautorizador.repository.ReactiveCartaoRepository;
+import com.example.miniautorizador.security.PinHashingExecutor;
+import com.example.miniautorizador.service.authorization.AuthorizationChain;
+import com.example.miniautorizador.service.authorization.ResultadoAutorizacao;
+import com.example.miniautorizador.service.journal.JournalEntry;
+import com.example.miniautorizador.service.journal.TransactionJournal;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.Optional;
+
+/**
+ * Processa transações no perfil {@code reativo}, sem bloquear threads enquanto o banco responde.
+ *
+ * O cartão é lido por R2DBC e a mesma {@link AuthorizationChain} do motor padrão avalia a
+ * transação no {@link PinHashingExecutor}, onde o BCrypt pode rodar, com a prioridade da
+ * autorização: a fila cheia recusa a transação com {@link
+ * com.example.miniautorizador.exception.ServicoSobrecarregadoException}. O débito é um UPDATE
+ * condicional ({@code saldo >= valor}), como na estratégia atômica: a decisão final de saldo é do
+ * banco, sem lock na JVM nem retentativas. Cada tentativa é registrada no journal, inclusive as
+ * que terminam em erro, em uma thread que pode aguardar o fsync; o débito já foi gravado, então
+ * uma falha do journal só é contada em {@code journal.registro.falhas}, sem mudar a resposta.
+ */
+@Slf4j
+@Service
+@Profile("reativo")
+public class ReactiveTransacaoService {
+
+    private final ReactiveCartaoRepository cartaoRepository;
+    private final AuthorizationChain authorizationChain;
+    private final BalanceCache balanceCache;
+    private final CardExistenceFilter cardExistenceFilter;
+    private final TransactionJournal transactionJournal;
+    private final PinHashingExecutor pinHashingExecutor;
+    private final Counter falhasJournal;
+
+    @Autowired
+    public ReactiveTransacaoService(ReactiveCartaoRepository cartaoRepository,
+                                    AuthorizationChain authorizationChain,
+                                    BalanceCache balanceCache,
+                                    ObjectProvider<CardExistenceFilter> cardExistenceFilter,
+                                    TransactionJournal transactionJournal,
+                                    PinHashingExecutor pinHashingExecutor,
+                                    MeterRegistry meterRegistry) {
+        this.cartaoRepository = cartaoRepository;
+        this.authorizationChain = authorizationChain;
+        this.balanceCache = balanceCache;
+        this.cardExistenceFilter = cardExistenceFilter.getIfAvailable();
+        this.transactionJournal = transactionJournal;
+        this.pinHashingExecutor = pinHashingExecutor;
+        this.falhasJournal = Counter.builder("journal.registro.falhas")
+                .description("Tentativas já decididas que não puderam ser registradas no journal")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Autoriza e debita uma transação.
+     *
+     * @param transacaoDto Os dados da transação, já validados
+     * @return A aprovação com o saldo do cartão após o débito, ou a recusa
+     */
+    public Mono<ResultadoAutorizacao> processarTransacao(TransacaoDto transacaoDto) {
+        String numeroCartao = transacaoDto.getNumeroCartao();
+        long valorCentavos = Cents.ofSaturated(transacaoDto.getValor());
+        Mono<ResultadoAutorizacao> resultado;
+        if (cardExistenceFilter != null && !cardExistenceFilter.podeExistir(numeroCartao)) {
+            resultado = Mono.just(ResultadoAutorizacao.recusada(AutorizacaoErro.CARTAO_INEXISTENTE));
+        } else {
+            long geracao = cardExistenceFilter != null ? cardExistenceFilter.iniciarConsulta() : 0;
+            resultado = cartaoRepository.buscarPorNumero(numeroCartao)
+                    .map(Optional::of)
+                    .defaultIfEmpty(Optional.empty())
+                    .flatMap(cartao -> Mono.defer(() -> Mono.fromFuture(pinHashingExecutor.submeter(
+                            PinHashingExecutor.Prioridade.AUTORIZACAO,
+                            () -> autorizar(transacaoDto, valorCentavos, cartao, geracao)))))
+                    .flatMap(autorizacao -> autorizacao.isAprovada()
+                            ? debitar(numeroCartao, valorCentavos)
+                                    .doOnNext(debito -> {
+                                        if (!debito.isAprovada()) {
+                                            authorizationChain.desfazer(transacaoDto, valorCentavos);
+                                        }
+                                    })
+                                    .doOnError(e -> authorizationChain.desfazer(transacaoDto, valorCentavos))
+                            : Mono.just(autorizacao));
+        }
+        return resultado
+                .onErrorResume(e -> registrar(JournalEntry.falha(numeroCartao, valorCentavos,
+                        JournalEntry.Falha.ERRO)).then(Mono.error(e)))
+                .flatMap(autorizacao -> registrar(numeroCartao, valorCentavos, autorizacao));
+    }
+
+    private ResultadoAutorizacao autorizar(TransacaoDto transacaoDto, long valorCentavos, Optional<Cartao> cartao,
+                                           long geracao) {
+        ResultadoAutorizacao resultado = authorizationChain.authorize(transacaoDto, valorCentavos, cartao.orElse(null));
+        if (resultado.getErro() == AutorizacaoErro.CARTAO_INEXISTENTE && cardExistenceFilter != null) {
+            cardExistenceFilter.registrarInexistente(transacaoDto.getNumeroCartao(), geracao);
+        }
+        return resultado;
+    }
+
+    /**
+     * Debita no banco e lê o saldo resultante para o cache de saldos. Sem transação entre as duas
+     * instruções, a leitura pode já incluir débitos concorrentes, o que o cache tolera.
+     */
+    private Mono<ResultadoAutorizacao> debitar(String numeroCartao, long valorCentavos) {
+        return cartaoRepository.debitarSaldoSeSuficiente(numeroCartao, Cents.toBigDecimal(valorCentavos))
+                .flatMap(linhasAlteradas -> {
+                    if (linhasAlteradas == 0) {
+                        return Mono.just(ResultadoAutorizacao.recusada(AutorizacaoErro.SALDO_INSUFICIENTE));
+                    }
+                    return cartaoRepository.buscarSaldo(numeroCartao).map(saldo -> {
+                        long saldoCentavos = Cents.of(saldo);
+                        balanceCache.atualizarAposDebito(numeroCartao, saldoCentavos);
+                        return ResultadoAutorizacao.aprovada(saldoCentavos);
+                    });
+                });
+    }
+
+    private Mono<ResultadoAutorizacao> registrar(String numeroCartao, long valorCentavos,
+                                                 ResultadoAutorizacao resultado) {
+        JournalEntry entrada = resultado.isAprovada()
+                ? JournalEntry.aprovada(numeroCartao, valorCentavos, resultado.getSaldoCentavos())
+                : JournalEntry.recusada(numeroCartao, valorCentavos, resultado.getErro(),
+                        JournalEntry.SALDO_DESCONHECIDO);
+        return registrar(entrada).thenReturn(resultado);
+    }
+
+    private Mono<Void> registrar(JournalEntry entrada) {
+        return Mono.<Void>fromRunnable(() -> transactionJournal.registrar(entrada))
+                .subscribeOn(Schedulers.boundedElastic())
+                .onErrorResume(e -> {
+                    falhasJournal.increment();
+                    log.error("Falha ao registrar a tentativa no journal; o resultado já decidido é mantido", e);
+                    return Mono.empty();
+                });
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.miniautorizador.benchmark;
+
+import com.example.miniautorizador.cache.PinVerificationCache;
+import com.example.miniautorizador.domain.Cents;
+import com.example.miniautorizador.dto.TransacaoDto;
+import com.example.miniautorizador.model.Cartao;
+import com.example.miniautorizador.security.PinHasher;
+import com.example.miniautorizador.security.PinHashingExecutor;
+import com.example.miniautorizador.service.PinRehashService;
+import com.example.miniautorizador.service.authorization.AuthorizationChain;
+import com.example.miniautorizador.service.authorization.CardExistsRule;
+import com.example.miniautorizador.service.authorization.PasswordValidRule;
+import com.example.miniautorizador.service.authorization.ResultadoAutorizacao;
+import com.example.miniautorizador.service.authorization.SufficientBalanceRule;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cadeia padrão de regras, com a senha já confirmada no cache (sem BCrypt). Cada medição inclui a
+ * conversão do valor para centavos, feita pelos motores ao receber a transação.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AuthorizationChainBenchmark {
+
+    private AuthorizationChain chain;
+    private Cartao cartao;
+    private TransacaoDto aprovada;
+    private TransacaoDto saldoInsuficiente;
+
+    @Setup
+    public void setup() {
+        PinHasher pinHasher = new PinHasher("bcrypt", 10, "", 4096, 3, 1);
+        PinVerificationCache pinVerificationCache = new PinVerificationCache(true, 1000, 300,
+                new SimpleMeterRegistry(), new PinHashingExecutor(0, 1000, 100, 100, 1, new SimpleMeterRegistry()), pinHasher);
+        chain = new AuthorizationChain(Arrays.asList(
+                new CardExistsRule(),
+                new PasswordValidRule(pinVerificationCache, new PinRehashService(false, 0, 0, 0, 0,
+                        null, null, null, null, pinHasher, new SimpleMeterRegistry())),
+                new SufficientBalanceRule()),
+                new SimpleMeterRegistry());
+        cartao = Cartao.builder()
+                .numeroCartao("1234567890123456")
+                .senha(pinHasher.criar("1234").getHashedValue())
+                .saldo(new BigDecimal("500.00"))
+                .build();
+        aprovada = new TransacaoDto("1234567890123456", "1234", new BigDecimal("10.00"));
+        saldoInsuficiente = new TransacaoDto("1234567890123456", "1234", new BigDecimal("600.00"));
+        pinVerificationCache.verificar(cartao, "1234");
+    }
+
+    @Benchmark
+    public ResultadoAutorizacao aprovada() {
+        return chain.authorize(aprovada, Cents.ofSaturated(aprovada.getValor()), cartao);
+    }
+
+    @Benchmark
+    public ResultadoAutorizacao recusada_cartaoInexistente() {
+        return chain.authorize(aprovada, Cents.ofSaturated(aprovada.getValor()), null);
+    }
+
+    @Benchmark
+    public ResultadoAutorizacao recusada_saldoInsuficiente() {
+        return chain.authorize(saldoInsuficiente, Cents.ofSaturated(saldoInsuficiente.getValor()), cartao);
+    }
+}
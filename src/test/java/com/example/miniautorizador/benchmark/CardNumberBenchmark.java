@@ -0,0 +1,128 @@
+package com.example.miniautorizador.benchmark;
+
+import com.example.miniautorizador.domain.CardNumber;
+import com.example.miniautorizador.domain.CardNumberKey;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Normalização, mascaramento e indexação do número do cartão.
+ *
+ * Os métodos {@code *_regex} reproduzem a implementação anterior de {@link CardNumber} (remoção
+ * dos não dígitos com {@code replaceAll} e máscara montada em laço), para comparação com o
+ * scanner atual. Os índices comparam a busca de um número recém-recebido (texto novo, sem hash
+ * em cache) por {@link String} e por {@link CardNumberKey}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CardNumberBenchmark {
+
+    private static final int CARTOES = 100_000;
+
+    private String numero = "1234567890123456";
+    private String numeroFormatado = "1234 5678-9012 3456";
+    private char[] numeroRecebido = numero.toCharArray();
+    private CardNumber cardNumber;
+    private Map<String, Integer> indiceTexto;
+    private Map<CardNumberKey, Integer> indiceChave;
+
+    @Setup
+    public void setup() {
+        cardNumber = CardNumber.of(numero);
+        indiceTexto = new HashMap<>();
+        indiceChave = new HashMap<>();
+        for (int i = 0; i < CARTOES; i++) {
+            String numeroCartao = Long.toString(1234567890000000L + i * 7919L);
+            indiceTexto.put(numeroCartao, i);
+            indiceChave.put(CardNumberKey.of(numeroCartao), i);
+        }
+        indiceTexto.put(numero, -1);
+        indiceChave.put(CardNumberKey.of(numero), -1);
+    }
+
+    @Benchmark
+    public CardNumber of_somenteDigitos() {
+        return CardNumber.of(numero);
+    }
+
+    @Benchmark
+    public String of_somenteDigitos_regex() {
+        return normalizarRegex(numero);
+    }
+
+    @Benchmark
+    public CardNumber of_formatado() {
+        return CardNumber.of(numeroFormatado);
+    }
+
+    @Benchmark
+    public String of_formatado_regex() {
+        return normalizarRegex(numeroFormatado);
+    }
+
+    @Benchmark
+    public CardNumber of_luhn() {
+        return CardNumber.of("4111111111111111", true);
+    }
+
+    @Benchmark
+    public String getMasked() {
+        return CardNumber.of(numero).getMasked();
+    }
+
+    @Benchmark
+    public String getMasked_cache() {
+        return cardNumber.getMasked();
+    }
+
+    @Benchmark
+    public String getMasked_regex() {
+        return mascararLaco(normalizarRegex(numero));
+    }
+
+    @Benchmark
+    public Integer indice_texto() {
+        return indiceTexto.get(new String(numeroRecebido));
+    }
+
+    @Benchmark
+    public Integer indice_chave() {
+        return indiceChave.get(CardNumberKey.of(new String(numeroRecebido)));
+    }
+
+    private static String normalizarRegex(String value) {
+        String normalized = value.replaceAll("[^0-9]", "");
+        if (normalized.length() < 13 || normalized.length() > 19) {
+            throw new IllegalArgumentException("Número do cartão deve ter entre 13 e 19 dígitos");
+        }
+        return normalized;
+    }
+
+    private static String mascararLaco(String value) {
+        String firstSix = value.substring(0, 6);
+        String lastFour = value.substring(value.length() - 4);
+
+        StringBuilder middle = new StringBuilder();
+        for (int i = 0; i < value.length() - 10; i++) {
+            middle.append("X");
+        }
+
+        return firstSix + middle.toString() + lastFour;
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.miniautorizador.benchmark;
+
+import com.example.miniautorizador.domain.Cents;
+import com.example.miniautorizador.domain.Money;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compara o débito com {@link Money} (BigDecimal) e com {@link Cents} (long).
+ * Com {@code -prof gc} em {@code jmh.args}, mostra também a alocação por operação.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MoneyBenchmark {
+
+    private BigDecimal saldo = new BigDecimal("500.00");
+    private BigDecimal valor = new BigDecimal("10.00");
+    private long saldoCentavos = 50000;
+    private long valorCentavos = 1000;
+
+    /**
+     * Caminho anterior: regra de saldo e débito convertem e comparam com BigDecimal.
+     */
+    @Benchmark
+    public Money money_debito() {
+        Money saldoAtual = Money.of(saldo);
+        Money valorTransacao = Money.of(valor);
+        if (valorTransacao.isZero() || valorTransacao.isNegative() || valorTransacao.isGreaterThan(saldoAtual)) {
+            return saldoAtual;
+        }
+        return saldoAtual.subtract(valorTransacao);
+    }
+
+    /**
+     * Caminho atual, já em centavos.
+     */
+    @Benchmark
+    public long cents_debito() {
+        if (valorCentavos <= 0 || valorCentavos > saldoCentavos) {
+            return saldoCentavos;
+        }
+        return Cents.subtract(saldoCentavos, valorCentavos);
+    }
+
+    /**
+     * Caminho atual incluindo as conversões nas fronteiras da API e da persistência.
+     */
+    @Benchmark
+    public BigDecimal cents_debitoComConversao() {
+        long saldoAtual = Cents.of(saldo);
+        long valorTransacao = Cents.ofSaturated(valor);
+        if (valorTransacao <= 0 || valorTransacao > saldoAtual) {
+            return saldo;
+        }
+        return Cents.toBigDecimal(Cents.subtract(saldoAtual, valorTransacao));
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.miniautorizador.benchmark;
+
+import com.example.miniautorizador.cache.PinVerificationCache;
+import com.example.miniautorizador.model.Cartao;
+import com.example.miniautorizador.security.PinHasher;
+import com.example.miniautorizador.security.PinHashingExecutor;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Verificação de senha, por algoritmo de hash ({@code cartao.senha.algoritmo}), e acerto no
+ * {@link PinVerificationCache}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PinBenchmark {
+
+    private static final String CHAVE_HMAC = "bWluaS1hdXRvcml6YWRvci1iZW5jaG1hcmstY2hhdmU=";
+
+    @Param({"bcrypt", "hmac-sha256", "argon2"})
+    private String algoritmo;
+
+    private PinHasher pinHasher;
+    private Cartao cartao;
+    private PinVerificationCache pinVerificationCache;
+
+    @Setup
+    public void setup() {
+        pinHasher = new PinHasher(algoritmo, 10, CHAVE_HMAC, 4096, 3, 1);
+        String hash = pinHasher.criar("1234").getHashedValue();
+        cartao = Cartao.builder().numeroCartao("1234567890123456").senha(hash).saldo(new BigDecimal("500.00")).build();
+        pinVerificationCache = new PinVerificationCache(true, 1000, 300, new SimpleMeterRegistry(),
+                new PinHashingExecutor(0, 1000, 100, 100, 1, new SimpleMeterRegistry()), pinHasher);
+        pinVerificationCache.verificar(cartao, "1234");
+    }
+
+    @Benchmark
+    public boolean matches_correta() {
+        return pinHasher.verificar(cartao, "1234");
+    }
+
+    @Benchmark
+    public boolean matches_incorreta() {
+        return pinHasher.verificar(cartao, "4321");
+    }
+
+    @Benchmark
+    public boolean cache_acerto() {
+        return pinVerificationCache.verificar(cartao, "1234");
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.miniautorizador.benchmark;
+
+import com.example.miniautorizador.dto.TransacaoDto;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Leitura e escrita de {@link TransacaoDto} em JSON, com a configuração padrão do Spring.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TransacaoDtoJsonBenchmark {
+
+    private ObjectReader reader;
+    private ObjectWriter writer;
+    private byte[] json;
+    private TransacaoDto transacaoDto;
+
+    @Setup
+    public void setup() throws IOException {
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        reader = objectMapper.readerFor(TransacaoDto.class);
+        writer = objectMapper.writerFor(TransacaoDto.class);
+        transacaoDto = new TransacaoDto("1234567890123456", "1234", new BigDecimal("10.00"));
+        json = "{\"numeroCartao\":\"1234567890123456\",\"senhaCartao\":\"1234\",\"valor\":10.00}"
+                .getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public TransacaoDto ler() throws IOException {
+        return reader.readValue(json);
+    }
+
+    @Benchmark
+    public byte[] escrever() throws IOException {
+        return writer.writeValueAsBytes(transacaoDto);
+    }
+}
@@ -0,0 +1,95 @@
+package com.example.miniautorizador.benchmark;
+
+import com.example.miniautorizador.MiniAutorizadorApplication;
+import com.example.miniautorizador.domain.Cents;
+import com.example.miniautorizador.dto.TransacaoDto;
+import com.example.miniautorizador.model.Cartao;
+import com.example.miniautorizador.repository.CartaoRepository;
+import com.example.miniautorizador.security.PinHasher;
+import com.example.miniautorizador.service.TransacaoService;
+import com.example.miniautorizador.service.authorization.ResultadoAutorizacao;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link TransacaoService#processarTransacao(TransacaoDto)} com a aplicação completa sobre o H2
+ * em memória (configuração de {@code src/test/resources}), incluindo aspectos e transação.
+ * As transações se alternam entre {@code cartoes} cartões. Uma primeira transação por cartão,
+ * na preparação, deixa a senha confirmada no cache, de modo que a medição não inclui o BCrypt.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TransacaoServiceBenchmark {
+
+    private static final String SENHA = "1234";
+
+    @Param({"100"})
+    private int cartoes;
+
+    @Param({"otimista", "atomica"})
+    private String estrategia;
+
+    private ConfigurableApplicationContext contexto;
+    private TransacaoService transacaoService;
+    private TransacaoDto[] transacoes;
+    private int proxima;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        contexto = new SpringApplicationBuilder(MiniAutorizadorApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--transacao.debito.estrategia=" + estrategia,
+                        "--cartao.saldo.inicial=99999999.99",
+                        "--spring.jpa.show-sql=false",
+                        "--logging.level.root=WARN");
+        transacaoService = contexto.getBean(TransacaoService.class);
+
+        String hash = contexto.getBean(PinHasher.class).criar(SENHA).getHashedValue();
+        List<Cartao> novos = new ArrayList<>(cartoes);
+        transacoes = new TransacaoDto[cartoes];
+        for (int i = 0; i < cartoes; i++) {
+            String numero = String.format("4%015d", i);
+            novos.add(Cartao.builder().numeroCartao(numero).senha(hash).saldo(new BigDecimal("99999999.99")).build());
+            transacoes[i] = new TransacaoDto(numero, SENHA, new BigDecimal("0.01"));
+        }
+        contexto.getBean(CartaoRepository.class).saveAll(novos);
+        for (TransacaoDto transacao : transacoes) {
+            transacaoService.processarTransacao(transacao, Cents.ofSaturated(transacao.getValor()));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        contexto.close();
+    }
+
+    @Benchmark
+    public ResultadoAutorizacao processarTransacao() {
+        TransacaoDto transacao = transacoes[proxima];
+        proxima = proxima + 1 == transacoes.length ? 0 : proxima + 1;
+        return transacaoService.processarTransacao(transacao, Cents.ofSaturated(transacao.getValor()));
+    }
+}
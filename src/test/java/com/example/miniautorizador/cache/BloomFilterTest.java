@@ -0,0 +1,45 @@
+package com.example.miniautorizador.cache;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BloomFilterTest {
+
+    private static final int CAPACIDADE = 10000;
+
+    @Test
+    void podeConter_NumerosAdicionados_NuncaDeveNegar() {
+        BloomFilter filtro = new BloomFilter(CAPACIDADE, 0.01);
+        for (int i = 0; i < CAPACIDADE; i++) {
+            filtro.adicionar(numero(i));
+        }
+
+        for (int i = 0; i < CAPACIDADE; i++) {
+            assertTrue(filtro.podeConter(numero(i)));
+        }
+    }
+
+    @Test
+    void podeConter_NumerosNaoAdicionados_DeveRespeitarTaxaDeFalsosPositivos() {
+        BloomFilter filtro = new BloomFilter(CAPACIDADE, 0.01);
+        for (int i = 0; i < CAPACIDADE; i++) {
+            filtro.adicionar(numero(i));
+        }
+
+        int falsosPositivos = 0;
+        for (int i = CAPACIDADE; i < CAPACIDADE * 11; i++) {
+            if (filtro.podeConter(numero(i))) {
+                falsosPositivos++;
+            }
+        }
+
+        // 1% esperado em 100000 consultas, com folga para a variação
+        assertTrue(falsosPositivos < 2000, "Falsos positivos: " + falsosPositivos);
+        assertEquals(7, filtro.getQuantidadeHashes());
+    }
+
+    private static String numero(int indice) {
+        return String.format("5%015d", indice);
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.miniautorizador.cache;
+
+import com.example.miniautorizador.event.CartaoCriadoEvent;
+import com.example.miniautorizador.model.Cartao;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+public class CardExistenceFilterTest {
+
+    private static final String EMITIDO = "1111222233334444";
+    private static final String NOVO = "5555666677778888";
+
+    private final List<String> tabela = new ArrayList<>();
+    private CardExistenceFilter filtro;
+
+    @BeforeEach
+    void setup() throws Exception {
+        JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+        doAnswer(invocacao -> {
+            RowCallbackHandler handler = invocacao.getArgument(1);
+            for (String numero : tabela) {
+                ResultSet rs = mock(ResultSet.class);
+                when(rs.getString(1)).thenReturn(numero);
+                handler.processRow(rs);
+            }
+            return null;
+        }).when(jdbcTemplate).query(anyString(), any(RowCallbackHandler.class));
+
+        tabela.add(EMITIDO);
+        filtro = new CardExistenceFilter(jdbcTemplate, 1000, 0.01, 100, 60, new SimpleMeterRegistry());
+        filtro.afterSingletonsInstantiated();
+    }
+
+    @Test
+    void recarregar_CartaoInseridoForaDaInstancia_DevePassarASerAceito() {
+        assertTrue(filtro.podeExistir(EMITIDO));
+        assertFalse(filtro.podeExistir(NOVO));
+
+        tabela.add(NOVO);
+        assertFalse(filtro.podeExistir(NOVO));
+
+        filtro.recarregar();
+        assertTrue(filtro.podeExistir(NOVO));
+    }
+
+    @Test
+    void registrarInexistente_ConsultaAnteriorAoCommitDaEmissao_NaoDeveGravarNoCacheNegativo() {
+        CartaoCriadoEvent evento = new CartaoCriadoEvent(Cartao.builder().numeroCartao(NOVO).build());
+        filtro.onCartaoCriado(evento);
+
+        // A consulta começa antes do commit da emissão e não encontra o cartão
+        long geracao = filtro.iniciarConsulta();
+        filtro.onCartaoCriadoConfirmado(evento);
+        filtro.registrarInexistente(NOVO, geracao);
+
+        assertTrue(filtro.podeExistir(NOVO));
+    }
+
+    @Test
+    void registrarInexistente_FalsoPositivo_DeveSerRecusadoPeloCacheNegativo() {
+        // Emissão desfeita: o número fica no filtro sem existir no banco
+        filtro.onCartaoCriado(new CartaoCriadoEvent(Cartao.builder().numeroCartao(NOVO).build()));
+
+        filtro.registrarInexistente(NOVO, filtro.iniciarConsulta());
+
+        assertFalse(filtro.podeExistir(NOVO));
+        filtro.recarregar();
+        assertFalse(filtro.podeExistir(NOVO));
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.miniautorizador.cache;
+
+import com.example.miniautorizador.model.Cartao;
+import com.example.miniautorizador.security.PinHasher;
+import com.example.miniautorizador.security.PinHashingExecutor;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class PinVerificationCacheTest {
+
+    private final PinHasher pinHasher = spy(new PinHasher("bcrypt", 10, "", 4096, 3, 1));
+    private PinVerificationCache pinVerificationCache;
+    private Cartao cartao;
+
+    @BeforeEach
+    void setUp() {
+        pinVerificationCache = new PinVerificationCache(true, 100, 60, new SimpleMeterRegistry(),
+                new PinHashingExecutor(0, 1000, 100, 100, 1, new SimpleMeterRegistry()), pinHasher);
+        cartao = Cartao.builder()
+                .numeroCartao("1234567890123456")
+                .senha(pinHasher.criar("1234").getHashedValue())
+                .saldo(new BigDecimal("500.00"))
+                .build();
+    }
+
+    @Test
+    void verificar_SenhaCorretaRepetida_DeveUsarCache() {
+        assertTrue(pinVerificationCache.verificar(cartao, "1234"));
+        assertTrue(pinVerificationCache.verificar(cartao, "1234"));
+
+        verify(pinHasher, times(1)).verificar(cartao, "1234");
+        assertEquals(1, pinVerificationCache.estatisticas().hitCount());
+        assertEquals(1, pinVerificationCache.estatisticas().missCount());
+    }
+
+    @Test
+    void verificar_SenhaIncorreta_NuncaDeveSerArmazenada() {
+        assertTrue(pinVerificationCache.verificar(cartao, "1234"));
+        assertFalse(pinVerificationCache.verificar(cartao, "4321"));
+        assertFalse(pinVerificationCache.verificar(cartao, "4321"));
+
+        verify(pinHasher, times(2)).verificar(cartao, "4321");
+    }
+
+    @Test
+    void verificar_HashAlterado_DeveInvalidarEntradaAnterior() {
+        assertTrue(pinVerificationCache.verificar(cartao, "1234"));
+
+        cartao.setSenha(pinHasher.criar("5678").getHashedValue());
+
+        assertFalse(pinVerificationCache.verificar(cartao, "1234"));
+        assertTrue(pinVerificationCache.verificar(cartao, "5678"));
+    }
+
+    @Test
+    void verificar_CacheDesabilitado_DeveSempreVerificarHash() {
+        PinVerificationCache desabilitado = new PinVerificationCache(false, 100, 60, new SimpleMeterRegistry(),
+                new PinHashingExecutor(0, 1000, 100, 100, 1, new SimpleMeterRegistry()), pinHasher);
+
+        assertTrue(desabilitado.verificar(cartao, "1234"));
+        assertTrue(desabilitado.verificar(cartao, "1234"));
+
+        verify(pinHasher, times(2)).verificar(cartao, "1234");
+    }
+}
@@ -0,0 +1,139 @@
+package com.example.miniautorizador.concurrency;
+
+import com.example.miniautorizador.dto.CartaoDto;
+import com.example.miniautorizador.dto.TransacaoDto;
+import com.example.miniautorizador.model.Cartao;
+import com.example.miniautorizador.repository.CartaoRepository;
+import com.example.miniautorizador.service.PinRehashService;
+import com.example.miniautorizador.service.authorization.AmountLimitRule;
+import com.example.miniautorizador.service.authorization.TransactionCountLimitRule;
+import com.example.miniautorizador.service.debit.DebitStrategy;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.http.MediaType;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doAnswer;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.httpBasic;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * A gravação de um novo hash de senha incrementa a versão do cartão; a transação que estava em
+ * andamento perde a disputa e é repetida, sem consumir o limite por cartão de novo.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@TestPropertySource(properties = {
+        "cartao.senha.rehash.habilitado=true",
+        "cartao.senha.rehash.intervalo-ms=3600000",
+        "cartao.senha.rehash.contagem.intervalo-ms=3600000",
+        "transacao.limite.quantidade.maxima=10",
+        "transacao.limite.valor.maximo=1000.00"
+})
+public class PinRehashConflitoTest {
+
+    private static final String NUMERO_CARTAO = "1234567890123456";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private CartaoRepository cartaoRepository;
+
+    @Autowired
+    private PinRehashService pinRehashService;
+
+    @Autowired
+    private TransactionCountLimitRule transactionCountLimitRule;
+
+    @Autowired
+    private AmountLimitRule amountLimitRule;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @SpyBean
+    private DebitStrategy debitStrategy;
+
+    @BeforeEach
+    public void setup() {
+        cartaoRepository.deleteAll();
+        pinRehashService.gravarPendentes();
+    }
+
+    @Test
+    public void testRehashDuranteATransacao_RetentativaNaoDeveCobrarDeNovo() throws Exception {
+        mockMvc.perform(post("/cartoes")
+                .with(httpBasic("user", "password"))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new CartaoDto(NUMERO_CARTAO, "1234"))))
+                .andExpect(status().isCreated());
+        Cartao cartao = cartaoRepository.findByNumeroCartao(NUMERO_CARTAO);
+        String hashLegado = new BCryptPasswordEncoder().encode("1234");
+        cartao.setSenha(hashLegado);
+        cartaoRepository.save(cartao);
+
+        // A primeira transação confirma a senha e agenda o novo hash
+        transacao();
+        assertEquals(1, pinRehashService.getPendentes());
+
+        // Na segunda, o lote de rehash é gravado, por outra thread, antes do commit
+        ExecutorService gravacao = Executors.newSingleThreadExecutor();
+        AtomicBoolean primeiraTentativa = new AtomicBoolean(true);
+        doAnswer(invocacao -> {
+            if (primeiraTentativa.getAndSet(false)) {
+                assertEquals(1, (int) gravacao.submit(pinRehashService::gravarPendentes).get());
+            }
+            return invocacao.callRealMethod();
+        }).when(debitStrategy).debitar(any(), anyLong());
+        double conflitosAntes = meterRegistry.counter("transacoes.conflitos").count();
+
+        try {
+            transacao();
+        } finally {
+            gravacao.shutdown();
+        }
+
+        assertEquals(conflitosAntes + 1, meterRegistry.counter("transacoes.conflitos").count());
+        assertEquals(2, transactionCountLimitRule.total(NUMERO_CARTAO));
+        assertEquals(2000, amountLimitRule.total(NUMERO_CARTAO));
+        assertTrue(cartaoRepository.findByNumeroCartao(NUMERO_CARTAO).getSenha().startsWith("{bcrypt}"));
+        mockMvc.perform(get("/cartoes/" + NUMERO_CARTAO)
+                .with(httpBasic("user", "password")))
+                .andExpect(status().isOk())
+                .andExpect(content().string("480.00"));
+    }
+
+    private void transacao() throws Exception {
+        mockMvc.perform(post("/transacoes")
+                .with(httpBasic("user", "password"))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(
+                        new TransacaoDto(NUMERO_CARTAO, "1234", new BigDecimal("10.00")))))
+                .andExpect(status().isCreated())
+                .andExpect(content().string("OK"));
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.miniautorizador.concurrency;
+
+import com.example.miniautorizador.service.ledger.BalanceWriteBehind;
+import org.junit.jupiter.api.AfterEach;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.TestPropertySource;
+
+/**
+ * Com o motor em memória, a concorrência no mesmo cartão é resolvida por CAS no saldo.
+ */
+@TestPropertySource(properties = "autorizador.motor=memoria")
+public class TransacaoConcorrenciaMemoriaTest extends TransacaoConcorrenciaTest {
+
+    @Autowired
+    private BalanceWriteBehind balanceWriteBehind;
+
+    /**
+     * Grava os saldos pendentes antes do próximo teste, para que o ciclo agendado não altere a
+     * versão dos cartões durante a limpeza da tabela.
+     */
+    @AfterEach
+    public void gravarSaldosPendentes() {
+        balanceWriteBehind.gravarPendentes();
+    }
+
+    @Override
+    protected boolean deveAprovarTodasNoCartaoQuente() {
+        return true;
+    }
+}
@@ -0,0 +1,12 @@
+package com.example.miniautorizador.concurrency;
+
+import org.springframework.test.context.TestPropertySource;
+
+@TestPropertySource(properties = "transacao.debito.estrategia=pessimista")
+public class TransacaoConcorrenciaPessimistaTest extends TransacaoConcorrenciaTest {
+
+    @Override
+    protected boolean deveAprovarTodasNoCartaoQuente() {
+        return true;
+    }
+}
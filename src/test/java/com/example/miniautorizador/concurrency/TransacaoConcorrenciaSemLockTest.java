@@ -0,0 +1,10 @@
+package com.example.miniautorizador.concurrency;
+
+import org.springframework.test.context.TestPropertySource;
+
+/**
+ * Sem o lock por cartão na JVM, a concorrência é resolvida apenas pelo @Version e pelas retentativas.
+ */
+@TestPropertySource(properties = "transacao.lock.habilitado=false")
+public class TransacaoConcorrenciaSemLockTest extends TransacaoConcorrenciaTest {
+}
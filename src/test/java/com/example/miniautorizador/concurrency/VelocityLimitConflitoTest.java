@@ -0,0 +1,116 @@
+package com.example.miniautorizador.concurrency;
+
+import com.example.miniautorizador.dto.CartaoDto;
+import com.example.miniautorizador.dto.TransacaoDto;
+import com.example.miniautorizador.repository.CartaoRepository;
+import com.example.miniautorizador.service.authorization.AmountLimitRule;
+import com.example.miniautorizador.service.authorization.TransactionCountLimitRule;
+import com.example.miniautorizador.service.debit.DebitStrategy;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doAnswer;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.httpBasic;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Uma transação que perde a disputa pela versão do cartão e é repetida consome o limite por
+ * cartão uma única vez.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@TestPropertySource(properties = {
+        "transacao.limite.quantidade.maxima=10",
+        "transacao.limite.valor.maximo=1000.00"
+})
+public class VelocityLimitConflitoTest {
+
+    private static final String NUMERO_CARTAO = "1234567890123456";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private CartaoRepository cartaoRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private TransactionCountLimitRule transactionCountLimitRule;
+
+    @Autowired
+    private AmountLimitRule amountLimitRule;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @SpyBean
+    private DebitStrategy debitStrategy;
+
+    @BeforeEach
+    public void setup() {
+        cartaoRepository.deleteAll();
+    }
+
+    @Test
+    public void testConflitoDeVersao_RetentativaNaoDeveConsumirOLimiteDeNovo() throws Exception {
+        mockMvc.perform(post("/cartoes")
+                .with(httpBasic("user", "password"))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new CartaoDto(NUMERO_CARTAO, "1234"))))
+                .andExpect(status().isCreated());
+
+        // Na primeira tentativa, outra transação altera o cartão antes do commit
+        TransactionTemplate transacaoConcorrente = new TransactionTemplate(transactionManager);
+        transacaoConcorrente.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        AtomicBoolean primeiraTentativa = new AtomicBoolean(true);
+        doAnswer(invocacao -> {
+            if (primeiraTentativa.getAndSet(false)) {
+                transacaoConcorrente.executeWithoutResult(status -> jdbcTemplate.update(
+                        "UPDATE cartoes SET version = version + 1 WHERE numero_cartao = ?", NUMERO_CARTAO));
+            }
+            return invocacao.callRealMethod();
+        }).when(debitStrategy).debitar(any(), anyLong());
+        double conflitosAntes = meterRegistry.counter("transacoes.conflitos").count();
+
+        mockMvc.perform(post("/transacoes")
+                .with(httpBasic("user", "password"))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(
+                        new TransacaoDto(NUMERO_CARTAO, "1234", new BigDecimal("10.00")))))
+                .andExpect(status().isCreated())
+                .andExpect(content().string("OK"));
+
+        assertEquals(conflitosAntes + 1, meterRegistry.counter("transacoes.conflitos").count());
+        assertEquals(1, transactionCountLimitRule.total(NUMERO_CARTAO));
+        assertEquals(1000, amountLimitRule.total(NUMERO_CARTAO));
+    }
+}
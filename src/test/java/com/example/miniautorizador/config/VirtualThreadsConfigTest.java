@@ -0,0 +1,63 @@
+package com.example.miniautorizador.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.runner.WebApplicationContextRunner;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeFalse;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * O executor de threads virtuais só existe em Java 21: antes disso, habilitá-lo deve impedir a
+ * inicialização com uma mensagem clara, em vez de subir com as threads de plataforma.
+ */
+public class VirtualThreadsConfigTest {
+
+    private final WebApplicationContextRunner contextRunner = new WebApplicationContextRunner()
+            .withUserConfiguration(VirtualThreadsConfig.class)
+            .withPropertyValues("servidor.threads-virtuais.habilitado=true");
+
+    @Test
+    void habilitado_AntesDoJava21_DeveFalharNaInicializacao() {
+        assumeFalse(suportaThreadsVirtuais(), "JDK com threads virtuais");
+
+        contextRunner.run(context -> assertThat(context).getFailure()
+                .hasStackTraceContaining("Threads virtuais exigem Java 21 ou superior"));
+    }
+
+    @Test
+    void habilitado_NoJava21_DeveExecutarEmThreadsVirtuais() {
+        assumeTrue(suportaThreadsVirtuais(), "JDK sem threads virtuais");
+
+        contextRunner.run(context -> {
+            assertThat(context).hasNotFailed();
+            ExecutorService executor = context.getBean("tomcatVirtualThreadExecutor", ExecutorService.class);
+            Thread thread = executor.submit(Thread::currentThread).get(5, TimeUnit.SECONDS);
+
+            assertThat((Boolean) Thread.class.getMethod("isVirtual").invoke(thread)).isTrue();
+            assertThat(thread.getName()).startsWith("tomcat-virtual-");
+        });
+    }
+
+    @Test
+    void desabilitado_NaoDeveCriarOExecutor() {
+        // O perfil java21 habilita a propriedade para todos os testes
+        new WebApplicationContextRunner()
+                .withUserConfiguration(VirtualThreadsConfig.class)
+                .withPropertyValues("servidor.threads-virtuais.habilitado=false")
+                .run(context -> assertThat(context).hasNotFailed()
+                        .doesNotHaveBean("tomcatVirtualThreadExecutor"));
+    }
+
+    private static boolean suportaThreadsVirtuais() {
+        try {
+            Thread.class.getMethod("ofVirtual");
+            return true;
+        } catch (NoSuchMethodException e) {
+            return false;
+        }
+    }
+}
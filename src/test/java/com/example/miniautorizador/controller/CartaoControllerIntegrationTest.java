@@ -13,6 +13,8 @@ import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
 import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.List;
 
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.httpBasic;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
@@ -171,4 +173,74 @@ public class CartaoControllerIntegrationTest {
                 .andExpect(status().isUnprocessableEntity())
                 .andExpect(content().string("CARTAO_INEXISTENTE"));
     }
+
+    @Test
+    public void testCriarCartoesEmLoteJson() throws Exception {
+        mockMvc.perform(post("/cartoes")
+                .with(httpBasic("user", "password"))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new CartaoDto("1111222233334444", "1234"))))
+                .andExpect(status().isCreated());
+
+        List<CartaoDto> lote = Arrays.asList(
+                new CartaoDto("1111222233334444", "1234"),
+                new CartaoDto("5555666677778888", "4321"),
+                new CartaoDto("5555666677778888", "4321"),
+                new CartaoDto("123", "1234"),
+                new CartaoDto("9999888877776666", "5678"));
+
+        mockMvc.perform(post("/cartoes/lote")
+                .with(httpBasic("user", "password"))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(lote)))
+                .andExpect(status().isOk())
+                .andExpect(content().json("{\"criados\":2,\"duplicados\":2,\"invalidos\":1,"
+                        + "\"blocos\":[{\"bloco\":1,\"criados\":2,\"duplicados\":2,\"invalidos\":1}]}"));
+
+        mockMvc.perform(get("/cartoes/9999888877776666")
+                .with(httpBasic("user", "password")))
+                .andExpect(status().isOk())
+                .andExpect(content().string("500.00"));
+
+        TransacaoDto transacaoDto = new TransacaoDto("5555666677778888", "4321", new BigDecimal("10.00"));
+        mockMvc.perform(post("/transacoes")
+                .with(httpBasic("user", "password"))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(transacaoDto)))
+                .andExpect(status().isCreated());
+    }
+
+    @Test
+    public void testCriarCartoesEmLoteNdjson() throws Exception {
+        String ndjson = "{\"numeroCartao\":\"1111222233334444\",\"senha\":\"1234\"}\n"
+                + "{\"numeroCartao\":\"5555666677778888\",\"senha\":\"4321\"}\n";
+
+        mockMvc.perform(post("/cartoes/lote")
+                .with(httpBasic("user", "password"))
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .content(ndjson))
+                .andExpect(status().isOk())
+                .andExpect(content().json("{\"criados\":2,\"duplicados\":0,\"invalidos\":0}"));
+
+        mockMvc.perform(get("/cartoes/5555666677778888")
+                .with(httpBasic("user", "password")))
+                .andExpect(status().isOk())
+                .andExpect(content().string("500.00"));
+    }
+
+    @Test
+    public void testCriarCartoesEmLoteConteudoInvalidoMantemCartoesLidos() throws Exception {
+        String ndjson = "{\"numeroCartao\":\"1111222233334444\",\"senha\":\"1234\"}\n{\"numeroCartao\":";
+
+        mockMvc.perform(post("/cartoes/lote")
+                .with(httpBasic("user", "password"))
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .content(ndjson))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().json("{\"criados\":1}"));
+
+        mockMvc.perform(get("/cartoes/1111222233334444")
+                .with(httpBasic("user", "password")))
+                .andExpect(status().isOk());
+    }
 }
@@ -0,0 +1,126 @@
+package com.example.miniautorizador.controller;
+
+import com.example.miniautorizador.dto.CartaoDto;
+import com.example.miniautorizador.dto.TransacaoDto;
+import com.example.miniautorizador.model.Cartao;
+import com.example.miniautorizador.repository.CartaoRepository;
+import com.example.miniautorizador.service.PinRehashService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.httpBasic;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@TestPropertySource(properties = {
+        "cartao.senha.rehash.habilitado=true",
+        "cartao.senha.rehash.intervalo-ms=3600000",
+        "cartao.senha.rehash.contagem.intervalo-ms=3600000"
+})
+public class PinRehashIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private CartaoRepository cartaoRepository;
+
+    @Autowired
+    private PinRehashService pinRehashService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @BeforeEach
+    public void setup() {
+        cartaoRepository.deleteAll();
+        pinRehashService.gravarPendentes();
+    }
+
+    @Test
+    public void testHashBcryptSemPrefixo_DeveSerRefeitoEmLoteAposSenhaConfirmada() throws Exception {
+        String hashLegado = criarCartaoComHashLegado("1234567890123456");
+        criarCartaoComHashLegado("6543210987654321");
+        assertEquals(2, pinRehashService.contarDesatualizados());
+
+        transacao("1234567890123456");
+        transacao("1234567890123456");
+
+        // A autorização não espera pelo novo hash
+        assertEquals(hashLegado, cartaoRepository.findByNumeroCartao("1234567890123456").getSenha());
+        assertEquals(1, pinRehashService.getPendentes());
+
+        double refeitosAntes = meterRegistry.counter("cartao.senha.rehash", "resultado", "refeito").count();
+        assertEquals(1, pinRehashService.gravarPendentes());
+
+        String novoHash = cartaoRepository.findByNumeroCartao("1234567890123456").getSenha();
+        assertTrue(novoHash.startsWith("{bcrypt}$2a$10$"));
+        assertEquals(0, pinRehashService.getPendentes());
+        assertEquals(1, meterRegistry.get("cartao.senha.hash.desatualizados").gauge().value());
+        assertEquals(refeitosAntes + 1, meterRegistry.counter("cartao.senha.rehash", "resultado", "refeito").count());
+        assertEquals(1, pinRehashService.contarDesatualizados());
+
+        transacao("1234567890123456");
+        assertEquals(0, pinRehashService.getPendentes());
+        mockMvc.perform(get("/cartoes/1234567890123456")
+                .with(httpBasic("user", "password")))
+                .andExpect(status().isOk())
+                .andExpect(content().string("470.00"));
+    }
+
+    @Test
+    public void testHashAlteradoAntesDaGravacao_NaoDeveSerSobrescrito() throws Exception {
+        criarCartaoComHashLegado("1234567890123456");
+        transacao("1234567890123456");
+
+        Cartao cartao = cartaoRepository.findByNumeroCartao("1234567890123456");
+        String hashAtualizado = new BCryptPasswordEncoder().encode("1234");
+        cartao.setSenha(hashAtualizado);
+        cartaoRepository.save(cartao);
+
+        assertEquals(0, pinRehashService.gravarPendentes());
+        assertEquals(hashAtualizado, cartaoRepository.findByNumeroCartao("1234567890123456").getSenha());
+    }
+
+    private String criarCartaoComHashLegado(String numeroCartao) throws Exception {
+        mockMvc.perform(post("/cartoes")
+                .with(httpBasic("user", "password"))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new CartaoDto(numeroCartao, "1234"))))
+                .andExpect(status().isCreated());
+        Cartao cartao = cartaoRepository.findByNumeroCartao(numeroCartao);
+        String hashLegado = new BCryptPasswordEncoder().encode("1234");
+        cartao.setSenha(hashLegado);
+        cartaoRepository.save(cartao);
+        return hashLegado;
+    }
+
+    private void transacao(String numeroCartao) throws Exception {
+        mockMvc.perform(post("/transacoes")
+                .with(httpBasic("user", "password"))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(
+                        new TransacaoDto(numeroCartao, "1234", new BigDecimal("10.00")))))
+                .andExpect(status().isCreated());
+    }
+}
@@ -7,6 +7,7 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.metrics.AutoConfigureMetrics;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
@@ -14,6 +15,8 @@ import org.springframework.test.web.servlet.MockMvc;
 
 import java.math.BigDecimal;
 
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.not;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.httpBasic;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
@@ -22,6 +25,7 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
 @AutoConfigureMockMvc
+@AutoConfigureMetrics
 public class TransacaoControllerE2ETest {
 
     @Autowired
@@ -258,4 +262,31 @@ public class TransacaoControllerE2ETest {
                 .andExpect(status().isOk())
                 .andExpect(content().string("500.00"));
     }
+
+    @Test
+    public void testMetricasPrometheusE2E() throws Exception {
+        CartaoDto cartaoDto = new CartaoDto("1234567890123456", "1234");
+        mockMvc.perform(post("/cartoes")
+                .with(httpBasic("user", "password"))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(cartaoDto)))
+                .andExpect(status().isCreated());
+
+        TransacaoDto transacaoDto = new TransacaoDto("1234567890123456", "4321", new BigDecimal("100.00"));
+        mockMvc.perform(post("/transacoes")
+                .with(httpBasic("user", "password"))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(transacaoDto)))
+                .andExpect(status().isUnprocessableEntity());
+
+        mockMvc.perform(get("/actuator/prometheus")
+                .with(httpBasic("user", "password")))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("transacoes_autorizacoes_total{application=\"mini-autorizador\",resultado=\"SENHA_INVALIDA\",}")))
+                .andExpect(content().string(containsString("transacoes_processamento_seconds_count")))
+                .andExpect(content().string(containsString("transacoes_regra_seconds_count{application=\"mini-autorizador\",regra=\"PasswordValidRule\",}")))
+                .andExpect(content().string(containsString("cartao_senha_verificacao_seconds_count{application=\"mini-autorizador\",resultado=\"invalida\",}")))
+                .andExpect(content().string(containsString("spring_data_repository_invocations_seconds_count")))
+                .andExpect(content().string(not(containsString("1234567890123456"))));
+    }
 }
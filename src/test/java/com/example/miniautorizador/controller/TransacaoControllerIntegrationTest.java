@@ -2,6 +2,7 @@ package com.example.miniautorizador.controller;
 
 import com.example.miniautorizador.dto.CartaoDto;
 import com.example.miniautorizador.dto.TransacaoDto;
+import com.example.miniautorizador.model.Cartao;
 import com.example.miniautorizador.repository.CartaoRepository;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
@@ -10,11 +11,15 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.MvcResult;
 
 import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.List;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.httpBasic;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
@@ -258,4 +263,70 @@ public class TransacaoControllerIntegrationTest {
                 .with(httpBasic("user", "password")))
                 .andExpect(status().isNotFound());
     }
+
+    @Test
+    public void testLoteRetornaResultadoPorItem() throws Exception {
+        mockMvc.perform(post("/cartoes")
+                .with(httpBasic("user", "password"))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new CartaoDto("1234567890123456", "1234"))))
+                .andExpect(status().isCreated());
+
+        List<TransacaoDto> lote = Arrays.asList(
+                new TransacaoDto("1234567890123456", "1234", new BigDecimal("300.00")),
+                new TransacaoDto("1234567890123456", "1234", new BigDecimal("300.00")),
+                new TransacaoDto("1234567890123456", "9999", new BigDecimal("10.00")),
+                new TransacaoDto("9999999999999999", "1234", new BigDecimal("10.00")),
+                new TransacaoDto("1234567890123456", "1234", new BigDecimal("200.00")));
+
+        mockMvc.perform(post("/transacoes/lote")
+                .with(httpBasic("user", "password"))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(lote)))
+                .andExpect(status().isOk())
+                .andExpect(content().json("["
+                        + "{\"numeroCartao\":\"1234567890123456\",\"status\":201,\"resultado\":\"OK\"},"
+                        + "{\"numeroCartao\":\"1234567890123456\",\"status\":422,\"resultado\":\"SALDO_INSUFICIENTE\"},"
+                        + "{\"numeroCartao\":\"1234567890123456\",\"status\":422,\"resultado\":\"SENHA_INVALIDA\"},"
+                        + "{\"numeroCartao\":\"9999999999999999\",\"status\":422,\"resultado\":\"CARTAO_INEXISTENTE\"},"
+                        + "{\"numeroCartao\":\"1234567890123456\",\"status\":201,\"resultado\":\"OK\"}]", true));
+
+        mockMvc.perform(get("/cartoes/1234567890123456")
+                .with(httpBasic("user", "password")))
+                .andExpect(status().isOk())
+                .andExpect(content().string("0.00"));
+    }
+
+    @Test
+    public void testTransacao_HashBcryptSemPrefixo_SemRehash_DeveContinuarValido() throws Exception {
+        mockMvc.perform(post("/cartoes")
+                .with(httpBasic("user", "password"))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new CartaoDto("1234567890123456", "1234"))))
+                .andExpect(status().isCreated());
+        Cartao cartao = cartaoRepository.findByNumeroCartao("1234567890123456");
+        String hashLegado = new BCryptPasswordEncoder().encode("1234");
+        cartao.setSenha(hashLegado);
+        cartaoRepository.save(cartao);
+
+        mockMvc.perform(post("/transacoes")
+                .with(httpBasic("user", "password"))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(
+                        new TransacaoDto("1234567890123456", "1234", new BigDecimal("10.00")))))
+                .andExpect(status().isCreated());
+
+        assertEquals(hashLegado, cartaoRepository.findByNumeroCartao("1234567890123456").getSenha());
+
+        mockMvc.perform(post("/transacoes")
+                .with(httpBasic("user", "password"))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(
+                        new TransacaoDto("1234567890123456", "1234", new BigDecimal("10.00")))))
+                .andExpect(status().isCreated());
+        mockMvc.perform(get("/cartoes/1234567890123456")
+                .with(httpBasic("user", "password")))
+                .andExpect(status().isOk())
+                .andExpect(content().string("480.00"));
+    }
 }
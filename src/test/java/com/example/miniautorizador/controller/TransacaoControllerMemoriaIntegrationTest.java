@@ -0,0 +1,123 @@
+package com.example.miniautorizador.controller;
+
+import com.example.miniautorizador.dto.CartaoDto;
+import com.example.miniautorizador.dto.TransacaoDto;
+import com.example.miniautorizador.repository.CartaoRepository;
+import com.example.miniautorizador.service.ledger.BalanceLedger;
+import com.example.miniautorizador.service.ledger.BalanceWriteBehind;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.httpBasic;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@TestPropertySource(properties = {
+        "autorizador.motor=memoria",
+        "autorizador.memoria.write-behind.intervalo-ms=3600000"
+})
+public class TransacaoControllerMemoriaIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private CartaoRepository cartaoRepository;
+
+    @Autowired
+    private BalanceLedger balanceLedger;
+
+    @Autowired
+    private BalanceWriteBehind balanceWriteBehind;
+
+    @BeforeEach
+    public void setup() {
+        cartaoRepository.deleteAll();
+        balanceLedger.recarregar();
+    }
+
+    @Test
+    public void testTransacaoDebitaSaldoEmMemoriaEGravaNoBancoDepois() throws Exception {
+        criarCartao("1234567890123456", "1234");
+
+        realizarTransacao(new TransacaoDto("1234567890123456", "1234", new BigDecimal("100.00")))
+                .andExpect(status().isCreated())
+                .andExpect(content().string("OK"));
+
+        // o saldo é servido pelo ledger antes mesmo da gravação no banco
+        mockMvc.perform(get("/cartoes/1234567890123456")
+                .with(httpBasic("user", "password")))
+                .andExpect(status().isOk())
+                .andExpect(content().string("400.00"));
+        assertEquals(new BigDecimal("500.00"), cartaoRepository.findByNumeroCartao("1234567890123456").getSaldo());
+
+        assertEquals(1, balanceWriteBehind.gravarPendentes());
+        assertEquals(new BigDecimal("400.00"), cartaoRepository.findByNumeroCartao("1234567890123456").getSaldo());
+    }
+
+    @Test
+    public void testTransacoesRecusadasMantemOsMesmosCodigos() throws Exception {
+        criarCartao("1234567890123456", "1234");
+
+        realizarTransacao(new TransacaoDto("1234567890123456", "4321", new BigDecimal("100.00")))
+                .andExpect(status().isUnprocessableEntity())
+                .andExpect(content().string("SENHA_INVALIDA"));
+
+        realizarTransacao(new TransacaoDto("1234567890123456", "1234", new BigDecimal("500.01")))
+                .andExpect(status().isUnprocessableEntity())
+                .andExpect(content().string("SALDO_INSUFICIENTE"));
+
+        realizarTransacao(new TransacaoDto("9999999999999999", "1234", new BigDecimal("100.00")))
+                .andExpect(status().isUnprocessableEntity())
+                .andExpect(content().string("CARTAO_INEXISTENTE"));
+
+        assertEquals(0, balanceWriteBehind.pendentes());
+    }
+
+    @Test
+    public void testCartaoCriadoAposInicializacaoEhRegistradoNoLedger() throws Exception {
+        mockMvc.perform(get("/cartoes/9876543210987654")
+                .with(httpBasic("user", "password")))
+                .andExpect(status().isNotFound());
+
+        criarCartao("9876543210987654", "4321");
+
+        mockMvc.perform(get("/cartoes/9876543210987654")
+                .with(httpBasic("user", "password")))
+                .andExpect(status().isOk())
+                .andExpect(content().string("500.00"));
+    }
+
+    private void criarCartao(String numeroCartao, String senha) throws Exception {
+        mockMvc.perform(post("/cartoes")
+                .with(httpBasic("user", "password"))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new CartaoDto(numeroCartao, senha))))
+                .andExpect(status().isCreated());
+    }
+
+    private ResultActions realizarTransacao(TransacaoDto transacaoDto) throws Exception {
+        return mockMvc.perform(post("/transacoes")
+                .with(httpBasic("user", "password"))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(transacaoDto)));
+    }
+}
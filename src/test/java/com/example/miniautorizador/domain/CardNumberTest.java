@@ -0,0 +1,77 @@
+package com.example.miniautorizador.domain;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CardNumberTest {
+
+    @Test
+    void of_DeveRemoverOsSeparadores() {
+        String numero = "1234567890123456";
+
+        assertSame(numero, CardNumber.of(numero).getValue());
+        assertEquals(numero, CardNumber.of("1234 5678-9012.3456").getValue());
+        assertEquals(CardNumber.of(numero), CardNumber.of(" 1234-5678-9012-3456 "));
+        assertEquals(CardNumber.of(numero).hashCode(), CardNumber.of("1234-5678-9012-3456").hashCode());
+    }
+
+    @Test
+    void of_Invalido_DeveLancarExcecao() {
+        assertThrows(IllegalArgumentException.class, () -> CardNumber.of(null));
+        assertThrows(IllegalArgumentException.class, () -> CardNumber.of("   "));
+        assertThrows(IllegalArgumentException.class, () -> CardNumber.of("abc"));
+        assertThrows(IllegalArgumentException.class, () -> CardNumber.of("123456789012"));
+        assertThrows(IllegalArgumentException.class, () -> CardNumber.of("12345678901234567890"));
+    }
+
+    @Test
+    void of_ComLuhn_DeveVerificarODigitoVerificador() {
+        assertEquals("4111111111111111", CardNumber.of("4111 1111 1111 1111", true).getValue());
+        assertTrue(CardNumber.of("5555555555554444").isLuhnValido());
+        assertFalse(CardNumber.of("1234567890123456").isLuhnValido());
+        assertThrows(IllegalArgumentException.class, () -> CardNumber.of("4111111111111112", true));
+        assertEquals("1234567890123456", CardNumber.of("1234567890123456", false).getValue());
+    }
+
+    @Test
+    void getMasked_DeveManterOsSeisPrimeirosEOsQuatroUltimosDigitos() {
+        CardNumber cardNumber = CardNumber.of("1234567890123456");
+
+        assertEquals("123456XXXXXX3456", cardNumber.getMasked());
+        assertSame(cardNumber.getMasked(), cardNumber.getMasked());
+        assertEquals("123456XXX0123", CardNumber.of("1234567890123").getMasked());
+        assertEquals("123456XXXXXXXXX6789", CardNumber.of("1234567890123456789").getMasked());
+        assertEquals("123456XXXXXX3456", cardNumber.toString());
+    }
+
+    @Test
+    void toKey_DevePreservarOsZerosAEsquerdaEServirDeChave() {
+        CardNumberKey chave = CardNumber.of("0012345678901234").toKey();
+        CardNumberKey maior = CardNumber.of("9999999999999999999").toKey();
+        Map<CardNumberKey, String> indice = new HashMap<>();
+        indice.put(chave, "a");
+        indice.put(maior, "b");
+
+        assertEquals("0012345678901234", chave.getValue());
+        assertNotEquals(chave, CardNumber.of("012345678901234").toKey());
+        assertEquals("9999999999999999999", maior.getValue());
+        assertEquals("a", indice.get(CardNumberKey.of("0012-3456-7890-1234")));
+        assertEquals("b", indice.get(CardNumberKey.of("9999999999999999999")));
+        assertNull(indice.get(CardNumberKey.of("012345678901234")));
+        assertEquals("001234XXXXXX1234", chave.toString());
+    }
+
+    @Test
+    void deDigitos_DeveAceitarApenasNumerosJaNormalizados() {
+        assertEquals(CardNumberKey.of("0012345678901234"), CardNumberKey.deDigitos("0012345678901234"));
+        assertEquals("9999999999999999999", CardNumberKey.deDigitos("9999999999999999999").getValue());
+        assertNull(CardNumberKey.deDigitos("0012-3456-7890-1234"));
+        assertNull(CardNumberKey.deDigitos("12345678901234567890"));
+        assertNull(CardNumberKey.deDigitos(""));
+        assertNull(CardNumberKey.deDigitos(null));
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.miniautorizador.domain;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CentsTest {
+
+    @Test
+    void of_DeveConverterComOArredondamentoDeMoney() {
+        assertEquals(1050, Cents.of(new BigDecimal("10.5")));
+        assertEquals(1000, Cents.of(new BigDecimal("10.005")));
+        assertEquals(Money.of("10.015").toCents(), Cents.of(new BigDecimal("10.015")));
+        assertEquals(new BigDecimal("500.00"), Cents.toBigDecimal(Cents.of(new BigDecimal("500"))));
+    }
+
+    @Test
+    void of_ForaDaFaixa_DeveLancarExcecao() {
+        assertThrows(ArithmeticException.class, () -> Cents.of(new BigDecimal("1e30")));
+    }
+
+    @Test
+    void ofSaturated_ForaDaFaixaOuAusente_DeveSaturarOuZerar() {
+        assertEquals(Long.MAX_VALUE, Cents.ofSaturated(new BigDecimal("1e30")));
+        assertEquals(Long.MIN_VALUE, Cents.ofSaturated(new BigDecimal("-1e30")));
+        assertEquals(0, Cents.ofSaturated(null));
+    }
+
+    @Test
+    void aritmetica_ComTransbordamento_DeveLancarExcecao() {
+        assertEquals(49000, Cents.subtract(50000, 1000));
+        assertThrows(ArithmeticException.class, () -> Cents.add(Long.MAX_VALUE, 1));
+        assertThrows(ArithmeticException.class, () -> Cents.subtract(Long.MIN_VALUE, 1));
+    }
+}
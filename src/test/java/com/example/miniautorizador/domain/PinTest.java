@@ -0,0 +1,84 @@
+package com.example.miniautorizador.domain;
+
+import com.example.miniautorizador.model.Cartao;
+import com.example.miniautorizador.security.PinHasher;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PinTest {
+
+    private static final String CHAVE_HMAC = "bWluaS1hdXRvcml6YWRvci10ZXN0ZS1jaGF2ZQ==";
+
+    private final PinHasher bcrypt = new PinHasher("bcrypt", 10, "", 4096, 3, 1);
+
+    @Test
+    void of_DeveGerarHashComPrefixoDoAlgoritmo() {
+        Pin pin = bcrypt.criar("1234");
+
+        assertTrue(pin.getHashedValue().startsWith("{bcrypt}$2a$10$"));
+        assertTrue(bcrypt.verificar(cartao(pin.getHashedValue()), "1234"));
+        assertFalse(bcrypt.verificar(cartao(pin.getHashedValue()), "4321"));
+        assertFalse(bcrypt.precisaRehash(cartao(pin.getHashedValue())));
+    }
+
+    @Test
+    void matches_HashBcryptSemPrefixo_DeveVerificarEPedirRehash() {
+        Cartao legado = cartao(new BCryptPasswordEncoder().encode("1234"));
+
+        assertTrue(bcrypt.verificar(legado, "1234"));
+        assertFalse(bcrypt.verificar(legado, "4321"));
+        assertTrue(bcrypt.precisaRehash(legado));
+    }
+
+    @Test
+    void precisaRehash_CustoBcryptMenorQueOConfigurado_DevePedirRehash() {
+        String custo4 = new PinHasher("bcrypt", 4, "", 4096, 3, 1).criar("1234").getHashedValue();
+
+        PinHasher custo6 = new PinHasher("bcrypt", 6, "", 4096, 3, 1);
+
+        assertTrue(custo6.verificar(cartao(custo4), "1234"));
+        assertTrue(custo6.precisaRehash(cartao(custo4)));
+        assertFalse(custo6.precisaRehash(cartao(custo6.criar("1234").getHashedValue())));
+    }
+
+    @Test
+    void hmacSha256_DeveVerificarHashesDeTodosOsAlgoritmos() {
+        String hashBcrypt = bcrypt.criar("1234").getHashedValue();
+        String argon2 = new PinHasher("argon2", 10, CHAVE_HMAC, 1024, 1, 1).criar("1234").getHashedValue();
+
+        PinHasher hmacSha256 = new PinHasher("hmac-sha256", 10, CHAVE_HMAC, 1024, 1, 1);
+        Pin hmac = hmacSha256.criar("123456");
+
+        assertTrue(hmac.getHashedValue().startsWith("{hmac-sha256}"));
+        assertNotEquals(hmac.getHashedValue(), hmacSha256.criar("123456").getHashedValue());
+        assertTrue(hmacSha256.verificar(cartao(hmac.getHashedValue()), "123456"));
+        assertFalse(hmacSha256.verificar(cartao(hmac.getHashedValue()), "123457"));
+        assertTrue(argon2.startsWith("{argon2}"));
+        assertTrue(hmacSha256.verificar(cartao(argon2), "1234"));
+        assertTrue(hmacSha256.precisaRehash(cartao(argon2)));
+        assertTrue(hmacSha256.verificar(cartao(hashBcrypt), "1234"));
+        assertTrue(hmacSha256.precisaRehash(cartao(hashBcrypt)));
+    }
+
+    @Test
+    void hasher_PrefixoFormatoAtual_DeveSerOInicioDosNovosHashes() {
+        for (String algoritmo : new String[]{"bcrypt", "argon2", "hmac-sha256"}) {
+            PinHasher hasher = new PinHasher(algoritmo, 4, CHAVE_HMAC, 1024, 2, 1);
+
+            assertTrue(hasher.criar("1234").getHashedValue().startsWith(hasher.getPrefixoFormatoAtual()), algoritmo);
+        }
+        assertEquals("{bcrypt}$2a$04$", new PinHasher("bcrypt", 4, "", 4096, 3, 1).getPrefixoFormatoAtual());
+    }
+
+    @Test
+    void hasher_HmacSemChave_DeveFalhar() {
+        assertThrows(IllegalStateException.class, () -> new PinHasher("hmac-sha256", 10, "", 4096, 3, 1));
+        assertThrows(IllegalStateException.class, () -> new PinHasher("md5", 10, "", 4096, 3, 1));
+    }
+
+    private static Cartao cartao(String hash) {
+        return Cartao.builder().numeroCartao("1234567890123456").senha(hash).build();
+    }
+}
@@ -0,0 +1,277 @@
+package com.example.miniautorizador.loadtest;
+
+import com.example.miniautorizador.MiniAutorizadorApplication;
+import org.HdrHistogram.Histogram;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Teste de carga de ponta a ponta: sobe a aplicação embarcada sobre o H2 (configuração de
+ * {@code src/test/resources}), cria os cartões por {@code POST /cartoes} e dispara transações
+ * por {@code POST /transacoes}, com uma mistura configurável de cartões quentes, senhas erradas
+ * e saldo insuficiente.
+ *
+ * Cada fase mede a latência por requisição em um histograma HdrHistogram e conta as respostas
+ * por status e corpo. Sem {@code taxa}, a carga é de laço fechado: cada cliente só envia a
+ * próxima requisição depois da resposta, e uma pausa do servidor adia as requisições seguintes em
+ * vez de atrasá-las (omissão coordenada), o que subestima os percentis altos. Com {@code taxa}
+ * (requisições por segundo), as transações seguem uma agenda fixa e a latência é contada a partir
+ * do instante previsto para cada envio, incluindo a espera por um cliente livre. O relatório é impresso e gravado, com as distribuições completas
+ * ({@code .hgrm}), em {@code saida}.
+ *
+ * Executado pelo perfil {@code carga}: {@code mvn -Pcarga verify -Dcarga.transacoes=50000}.
+ * Argumentos {@code chave=valor} configuram a carga; argumentos {@code --propriedade=valor}
+ * são repassados à aplicação (ex.: {@code --autorizador.motor=memoria}).
+ */
+public class LoadGenerator {
+
+    private static final String SENHA = "1234";
+    private static final String SENHA_ERRADA = "9999";
+    private static final String AUTORIZACAO = "Basic "
+            + Base64.getEncoder().encodeToString("user:password".getBytes(StandardCharsets.UTF_8));
+    private static final long LATENCIA_MAXIMA_US = TimeUnit.MINUTES.toMicros(1);
+
+    private final int cartoes;
+    private final int transacoes;
+    private final int threads;
+    private final int cartoesQuentes;
+    private final int percentualQuente;
+    private final int percentualSenhaErrada;
+    private final int percentualSemSaldo;
+    private final int taxa;
+    private final Path saida;
+    private String baseUrl;
+
+    LoadGenerator(Map<String, String> parametros) {
+        this.cartoes = inteiro(parametros, "cartoes", 200);
+        this.transacoes = inteiro(parametros, "transacoes", 20000);
+        this.threads = inteiro(parametros, "threads", 32);
+        this.cartoesQuentes = Math.min(cartoes, inteiro(parametros, "cartoes-quentes", 10));
+        this.percentualQuente = inteiro(parametros, "percentual-quente", 50);
+        this.percentualSenhaErrada = inteiro(parametros, "percentual-senha-errada", 5);
+        this.percentualSemSaldo = inteiro(parametros, "percentual-sem-saldo", 5);
+        this.taxa = inteiro(parametros, "taxa", 0);
+        this.saida = Paths.get(parametros.getOrDefault("saida", "target/carga"));
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> parametros = new HashMap<>();
+        List<String> argumentosAplicacao = new ArrayList<>();
+        argumentosAplicacao.add("--server.port=0");
+        argumentosAplicacao.add("--spring.jpa.show-sql=false");
+        argumentosAplicacao.add("--logging.level.root=WARN");
+        for (String arg : args) {
+            if (arg.startsWith("--")) {
+                argumentosAplicacao.add(arg);
+            } else if (arg.contains("=")) {
+                parametros.put(arg.substring(0, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+            }
+        }
+
+        LoadGenerator gerador = new LoadGenerator(parametros);
+        try (ConfigurableApplicationContext contexto = new SpringApplicationBuilder(MiniAutorizadorApplication.class)
+                .run(argumentosAplicacao.toArray(new String[0]))) {
+            int porta = ((WebServerApplicationContext) contexto).getWebServer().getPort();
+            gerador.executar("http://localhost:" + porta);
+        }
+    }
+
+    void executar(String baseUrl) throws Exception {
+        this.baseUrl = baseUrl;
+        Files.createDirectories(saida);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            Fase criacao = executarFase(executor, "cartoes", cartoes, 0, this::criarCartao);
+            Fase autorizacao = executarFase(executor, "transacoes", transacoes, taxa, this::realizarTransacao);
+
+            StringBuilder relatorio = new StringBuilder();
+            relatorio.append(String.format("Carga: %d cartões (%d quentes, %d%% das transações), %d transações, "
+                            + "%d threads, %d%% senha errada, %d%% saldo insuficiente, %s%n%n", cartoes, cartoesQuentes,
+                    percentualQuente, transacoes, threads, percentualSenhaErrada, percentualSemSaldo,
+                    taxa > 0 ? "agenda de " + taxa + " req/s" : "laço fechado"));
+            criacao.relatar(relatorio);
+            autorizacao.relatar(relatorio);
+            System.out.print(relatorio);
+            Files.write(saida.resolve("relatorio.txt"), relatorio.toString().getBytes(StandardCharsets.UTF_8));
+            criacao.gravarDistribuicao(saida);
+            autorizacao.gravarDistribuicao(saida);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Uma requisição de uma fase, que retorna a chave da resposta (status e corpo).
+     */
+    private interface Requisicao {
+        String executar(int indice) throws IOException;
+    }
+
+    /**
+     * @param taxa Requisições por segundo da agenda; {@code 0} para o laço fechado
+     */
+    private Fase executarFase(ExecutorService executor, String nome, int total, int taxa, Requisicao requisicao)
+            throws Exception {
+        AtomicInteger proxima = new AtomicInteger();
+        double intervaloNs = taxa > 0 ? 1e9 / taxa : 0;
+        List<Future<Fase>> parciais = new ArrayList<>(threads);
+        long inicio = System.nanoTime();
+        for (int t = 0; t < threads; t++) {
+            parciais.add(executor.submit(() -> {
+                Fase parcial = new Fase(nome);
+                for (int i = proxima.getAndIncrement(); i < total; i = proxima.getAndIncrement()) {
+                    long antes = System.nanoTime();
+                    if (taxa > 0) {
+                        // A i-ésima requisição deveria sair em inicio + i * intervalo, com ou sem cliente livre
+                        long previsto = inicio + (long) (i * intervaloNs);
+                        if (previsto > antes) {
+                            LockSupport.parkNanos(previsto - antes);
+                        }
+                        antes = previsto;
+                    }
+                    String resposta;
+                    try {
+                        resposta = requisicao.executar(i);
+                    } catch (IOException e) {
+                        resposta = "erro " + e.getClass().getSimpleName();
+                    }
+                    parcial.registrar(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - antes), resposta);
+                }
+                return parcial;
+            }));
+        }
+
+        Fase fase = new Fase(nome);
+        for (Future<Fase> parcial : parciais) {
+            fase.somar(parcial.get());
+        }
+        fase.duracaoNs = System.nanoTime() - inicio;
+        return fase;
+    }
+
+    private String criarCartao(int indice) throws IOException {
+        return enviar("/cartoes", String.format("{\"numeroCartao\":\"%s\",\"senha\":\"%s\"}", numeroCartao(indice), SENHA));
+    }
+
+    private String realizarTransacao(int indice) throws IOException {
+        ThreadLocalRandom aleatorio = ThreadLocalRandom.current();
+        int cartao = aleatorio.nextInt(100) < percentualQuente
+                ? aleatorio.nextInt(cartoesQuentes)
+                : aleatorio.nextInt(cartoes);
+        int sorteio = aleatorio.nextInt(100);
+        String senha = sorteio < percentualSenhaErrada ? SENHA_ERRADA : SENHA;
+        String valor = sorteio >= percentualSenhaErrada && sorteio < percentualSenhaErrada + percentualSemSaldo
+                ? "100000.00" : "0.01";
+        return enviar("/transacoes", String.format("{\"numeroCartao\":\"%s\",\"senhaCartao\":\"%s\",\"valor\":%s}",
+                numeroCartao(cartao), senha, valor));
+    }
+
+    private static String numeroCartao(int indice) {
+        return String.format("5%015d", indice);
+    }
+
+    private String enviar(String caminho, String corpo) throws IOException {
+        HttpURLConnection conexao = (HttpURLConnection) new URL(baseUrl + caminho).openConnection();
+        conexao.setRequestMethod("POST");
+        conexao.setDoOutput(true);
+        conexao.setRequestProperty("Content-Type", "application/json");
+        conexao.setRequestProperty("Authorization", AUTORIZACAO);
+        try (OutputStream out = conexao.getOutputStream()) {
+            out.write(corpo.getBytes(StandardCharsets.UTF_8));
+        }
+
+        int status = conexao.getResponseCode();
+        InputStream in = status < 400 ? conexao.getInputStream() : conexao.getErrorStream();
+        String resposta = "";
+        if (in != null) {
+            try (InputStream entrada = in) {
+                ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+                byte[] buffer = new byte[512];
+                for (int lidos = entrada.read(buffer); lidos != -1; lidos = entrada.read(buffer)) {
+                    bytes.write(buffer, 0, lidos);
+                }
+                resposta = new String(bytes.toByteArray(), StandardCharsets.UTF_8);
+            }
+        }
+        // Corpos JSON (criação de cartão, erros) variam por cartão; apenas códigos simples são mantidos
+        return resposta.length() <= 32 && !resposta.startsWith("{") ? status + " " + resposta : String.valueOf(status);
+    }
+
+    /**
+     * Latências e respostas de uma fase.
+     */
+    private static class Fase {
+        private final String nome;
+        private final Histogram latencias = new Histogram(LATENCIA_MAXIMA_US, 3);
+        private final Map<String, Integer> respostas = new TreeMap<>();
+        private long duracaoNs;
+
+        Fase(String nome) {
+            this.nome = nome;
+        }
+
+        void registrar(long latenciaUs, String resposta) {
+            latencias.recordValue(Math.min(latenciaUs, LATENCIA_MAXIMA_US));
+            respostas.merge(resposta, 1, Integer::sum);
+        }
+
+        void somar(Fase outra) {
+            latencias.add(outra.latencias);
+            outra.respostas.forEach((resposta, quantidade) -> respostas.merge(resposta, quantidade, Integer::sum));
+        }
+
+        void relatar(StringBuilder relatorio) {
+            long total = latencias.getTotalCount();
+            double segundos = duracaoNs / 1e9;
+            relatorio.append(String.format("== %s: %d requisições em %.2f s (%.1f req/s)%n", nome, total, segundos,
+                    total / segundos));
+            relatorio.append(String.format("   latência (ms): p50=%.2f p90=%.2f p99=%.2f p99.9=%.2f max=%.2f%n",
+                    percentil(50), percentil(90), percentil(99), percentil(99.9), latencias.getMaxValue() / 1000.0));
+            respostas.forEach((resposta, quantidade) -> relatorio.append(String.format("   %-40s %8d (%.1f%%)%n",
+                    resposta, quantidade, 100.0 * quantidade / total)));
+            relatorio.append(System.lineSeparator());
+        }
+
+        private double percentil(double percentil) {
+            return latencias.getValueAtPercentile(percentil) / 1000.0;
+        }
+
+        void gravarDistribuicao(Path diretorio) throws IOException {
+            try (PrintStream out = new PrintStream(Files.newOutputStream(diretorio.resolve(nome + ".hgrm")), false,
+                    StandardCharsets.UTF_8.name())) {
+                latencias.outputPercentileDistribution(out, 1000.0);
+            }
+        }
+    }
+
+    private static int inteiro(Map<String, String> parametros, String chave, int padrao) {
+        String valor = parametros.get(chave);
+        return valor == null || valor.isEmpty() ? padrao : Integer.parseInt(valor);
+    }
+}
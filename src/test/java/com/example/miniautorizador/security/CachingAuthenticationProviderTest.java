@@ -0,0 +1,68 @@
+package com.example.miniautorizador.security;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.authentication.AuthenticationProvider;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.AuthorityUtils;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class CachingAuthenticationProviderTest {
+
+    @Mock
+    private AuthenticationProvider delegate;
+
+    private CachingAuthenticationProvider cachingProvider;
+
+    @BeforeEach
+    void setUp() {
+        cachingProvider = new CachingAuthenticationProvider(delegate, 100, 60);
+    }
+
+    @Test
+    void authenticate_CredenciaisValidasRepetidas_DeveConsultarDelegateUmaVez() {
+        Authentication autenticado = new UsernamePasswordAuthenticationToken(
+                "user", null, AuthorityUtils.createAuthorityList("ROLE_USER"));
+        when(delegate.authenticate(any())).thenReturn(autenticado);
+
+        assertSame(autenticado, cachingProvider.authenticate(new UsernamePasswordAuthenticationToken("user", "password")));
+        assertSame(autenticado, cachingProvider.authenticate(new UsernamePasswordAuthenticationToken("user", "password")));
+
+        verify(delegate, times(1)).authenticate(any());
+    }
+
+    @Test
+    void authenticate_CredenciaisInvalidas_NaoDevemSerArmazenadas() {
+        when(delegate.authenticate(any())).thenThrow(new BadCredentialsException("Credenciais inválidas"));
+
+        assertThrows(BadCredentialsException.class,
+                () -> cachingProvider.authenticate(new UsernamePasswordAuthenticationToken("user", "errada")));
+        assertThrows(BadCredentialsException.class,
+                () -> cachingProvider.authenticate(new UsernamePasswordAuthenticationToken("user", "errada")));
+
+        verify(delegate, times(2)).authenticate(any());
+    }
+
+    @Test
+    void authenticate_SenhaDiferente_NaoDeveReaproveitarEntrada() {
+        Authentication autenticado = new UsernamePasswordAuthenticationToken(
+                "user", null, AuthorityUtils.createAuthorityList("ROLE_USER"));
+        when(delegate.authenticate(any()))
+                .thenReturn(autenticado)
+                .thenThrow(new BadCredentialsException("Credenciais inválidas"));
+
+        cachingProvider.authenticate(new UsernamePasswordAuthenticationToken("user", "password"));
+
+        assertThrows(BadCredentialsException.class,
+                () -> cachingProvider.authenticate(new UsernamePasswordAuthenticationToken("user", "outra")));
+    }
+}
@@ -0,0 +1,160 @@
+package com.example.miniautorizador.security;
+
+import com.example.miniautorizador.exception.ServicoSobrecarregadoException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PinHashingExecutorTest {
+
+    private PinHashingExecutor pinHashingExecutor;
+    private ExecutorService clientes;
+    private CountDownLatch liberar;
+
+    @BeforeEach
+    void setUp() {
+        pinHashingExecutor = new PinHashingExecutor(1, 2, 1, 1, 3, new SimpleMeterRegistry());
+        clientes = Executors.newCachedThreadPool();
+        liberar = new CountDownLatch(1);
+    }
+
+    @AfterEach
+    void tearDown() {
+        liberar.countDown();
+        clientes.shutdownNow();
+        pinHashingExecutor.encerrar();
+    }
+
+    @Test
+    void executar_FilaCheia_DeveRecusarComRetryAfter() throws Exception {
+        CountDownLatch ocupado = ocuparUnicaThread();
+        assertTrue(ocupado.await(5, TimeUnit.SECONDS));
+        Future<String> aguardando = submeter(PinHashingExecutor.Prioridade.EMISSAO, "emissao", null);
+        aguardarFila(1);
+
+        ServicoSobrecarregadoException recusa = assertThrows(ServicoSobrecarregadoException.class,
+                () -> pinHashingExecutor.executar(PinHashingExecutor.Prioridade.EMISSAO, () -> "recusada"));
+        assertEquals(3, recusa.getRetryAfterSegundos());
+
+        liberar.countDown();
+        assertEquals("emissao", aguardando.get(5, TimeUnit.SECONDS));
+        assertEquals("aceita", pinHashingExecutor.executar(PinHashingExecutor.Prioridade.EMISSAO, () -> "aceita"));
+    }
+
+    @Test
+    void executar_AutorizacaoNaFila_DeveSerAtendidaAntesDaEmissao() throws Exception {
+        List<String> ordem = new CopyOnWriteArrayList<>();
+        CountDownLatch ocupado = ocuparUnicaThread();
+        assertTrue(ocupado.await(5, TimeUnit.SECONDS));
+
+        Future<String> emissao = submeter(PinHashingExecutor.Prioridade.EMISSAO, "emissao", ordem);
+        aguardarFila(1);
+        Future<String> autorizacao = submeter(PinHashingExecutor.Prioridade.AUTORIZACAO, "autorizacao", ordem);
+        aguardarFila(2);
+
+        liberar.countDown();
+        emissao.get(5, TimeUnit.SECONDS);
+        autorizacao.get(5, TimeUnit.SECONDS);
+
+        assertEquals(Arrays.asList("autorizacao", "emissao"), ordem);
+    }
+
+    @Test
+    void executar_ExcecaoDaTarefa_DeveSerPropagada() {
+        assertThrows(IllegalArgumentException.class,
+                () -> pinHashingExecutor.executar(PinHashingExecutor.Prioridade.AUTORIZACAO, () -> {
+                    throw new IllegalArgumentException("Senha inválida");
+                }));
+        assertEquals(0, pinHashingExecutor.getAguardando(PinHashingExecutor.Prioridade.AUTORIZACAO));
+    }
+
+    @Test
+    void submeter_ExecutarDentroDoPool_DeveRodarNaMesmaThread() throws Exception {
+        CompletableFuture<String> resultado = pinHashingExecutor.submeter(PinHashingExecutor.Prioridade.EMISSAO,
+                () -> pinHashingExecutor.executar(PinHashingExecutor.Prioridade.EMISSAO, () -> "aninhada"));
+
+        // Com uma única thread, aguardar a fila de dentro do pool nunca terminaria
+        assertEquals("aninhada", resultado.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void submeter_FilaCheia_DeveRecusarSemOcuparThread() throws Exception {
+        CountDownLatch ocupado = ocuparUnicaThread();
+        assertTrue(ocupado.await(5, TimeUnit.SECONDS));
+        CompletableFuture<String> aguardando = pinHashingExecutor.submeter(PinHashingExecutor.Prioridade.EMISSAO,
+                () -> "emissao");
+
+        assertThrows(ServicoSobrecarregadoException.class,
+                () -> pinHashingExecutor.submeter(PinHashingExecutor.Prioridade.EMISSAO, () -> "recusada"));
+        assertFalse(aguardando.isDone());
+
+        liberar.countDown();
+        assertEquals("emissao", aguardando.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void submeterAguardandoVaga_FilaCheia_DeveAguardarEmVezDeRecusar() throws Exception {
+        CountDownLatch ocupado = ocuparUnicaThread();
+        assertTrue(ocupado.await(5, TimeUnit.SECONDS));
+        CompletableFuture<String> primeiro = pinHashingExecutor.submeterAguardandoVaga(
+                PinHashingExecutor.Prioridade.EMISSAO_LOTE, () -> "primeiro");
+        Future<CompletableFuture<String>> segundo = clientes.submit(() -> pinHashingExecutor.submeterAguardandoVaga(
+                PinHashingExecutor.Prioridade.EMISSAO_LOTE, () -> "segundo"));
+
+        assertThrows(TimeoutException.class, () -> segundo.get(200, TimeUnit.MILLISECONDS));
+        assertEquals(1, pinHashingExecutor.getAguardando(PinHashingExecutor.Prioridade.EMISSAO_LOTE));
+        // A fila do lote cheia não ocupa a das emissões avulsas
+        CompletableFuture<String> avulsa = pinHashingExecutor.submeter(PinHashingExecutor.Prioridade.EMISSAO,
+                () -> "avulsa");
+
+        liberar.countDown();
+        assertEquals("avulsa", avulsa.get(5, TimeUnit.SECONDS));
+        assertEquals("primeiro", primeiro.get(5, TimeUnit.SECONDS));
+        assertEquals("segundo", segundo.get(5, TimeUnit.SECONDS).get(5, TimeUnit.SECONDS));
+    }
+
+    private CountDownLatch ocuparUnicaThread() {
+        CountDownLatch ocupado = new CountDownLatch(1);
+        clientes.submit(() -> pinHashingExecutor.executar(PinHashingExecutor.Prioridade.AUTORIZACAO, () -> {
+            ocupado.countDown();
+            try {
+                return liberar.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }));
+        return ocupado;
+    }
+
+    private Future<String> submeter(PinHashingExecutor.Prioridade prioridade, String nome, List<String> ordem) {
+        return clientes.submit(() -> pinHashingExecutor.executar(prioridade, () -> {
+            if (ordem != null) {
+                ordem.add(nome);
+            }
+            return nome;
+        }));
+    }
+
+    private void aguardarFila(int esperado) throws InterruptedException {
+        long limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (pinHashingExecutor.tarefasNaFila() < esperado && System.nanoTime() < limite) {
+            Thread.sleep(5);
+        }
+        assertEquals(esperado, pinHashingExecutor.tarefasNaFila());
+    }
+}
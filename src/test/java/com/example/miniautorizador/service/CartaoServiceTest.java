@@ -1,16 +1,26 @@
 package com.example.miniautorizador.service;
 
+import com.example.miniautorizador.cache.BalanceCache;
+import com.example.miniautorizador.cache.CardExistenceFilter;
 import com.example.miniautorizador.domain.Money;
 import com.example.miniautorizador.dto.CartaoDto;
 import com.example.miniautorizador.exception.CartaoJaExistenteException;
 import com.example.miniautorizador.exception.CartaoNaoEncontradoException;
 import com.example.miniautorizador.model.Cartao;
 import com.example.miniautorizador.repository.CartaoRepository;
+import com.example.miniautorizador.security.PinHasher;
+import com.example.miniautorizador.security.PinHashingExecutor;
+import com.example.miniautorizador.service.ledger.BalanceLedger;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
 
 import java.math.BigDecimal;
 
@@ -32,6 +42,26 @@ public class CartaoServiceTest {
     
     @Mock
     private Cartao cartao;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private ObjectProvider<BalanceLedger> balanceLedger;
+
+    @Mock
+    private ObjectProvider<CardExistenceFilter> cardExistenceFilterProvider;
+
+    @Mock
+    private CardExistenceFilter cardExistenceFilter;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private BalanceCache balanceCache;
     
     private CartaoService cartaoService;
 
@@ -39,7 +69,11 @@ public class CartaoServiceTest {
 
     @BeforeEach
     void setUp() {
-        cartaoService = new CartaoService(cartaoRepository, saldoInicial);
+        balanceCache = new BalanceCache(true, 100, 60, new SimpleMeterRegistry());
+        cartaoService = new CartaoService(cartaoRepository, saldoInicial, eventPublisher, balanceLedger,
+                balanceCache, cardExistenceFilterProvider, jdbcTemplate, transactionManager, false,
+                new PinHashingExecutor(0, 1000, 100, 100, 1, new SimpleMeterRegistry()),
+                new PinHasher("bcrypt", 10, "", 4096, 3, 1), false);
         
         cartaoDto = CartaoDto.builder()
                 .numeroCartao("1234567890123456")
@@ -105,4 +139,55 @@ public class CartaoServiceTest {
         verify(cartaoRepository).findByNumeroCartao(cartaoDto.getNumeroCartao());
         assertEquals("Cartão não encontrado", exception.getMessage());
     }
-}
\ No newline at end of file
+
+    @Test
+    void obterSaldo_ConsultasRepetidas_DeveConsultarBancoUmaVez() {
+        when(cartaoRepository.findByNumeroCartao(cartaoDto.getNumeroCartao())).thenReturn(cartao);
+        when(cartao.getSaldoVO()).thenReturn(cartaoSaldoVO);
+        when(cartaoSaldoVO.getAmount()).thenReturn(new BigDecimal("500.00"));
+
+        cartaoService.obterSaldo(cartaoDto.getNumeroCartao());
+        BigDecimal saldo = cartaoService.obterSaldo(cartaoDto.getNumeroCartao());
+
+        verify(cartaoRepository, times(1)).findByNumeroCartao(cartaoDto.getNumeroCartao());
+        assertEquals(new BigDecimal("500.00"), saldo);
+        assertEquals(1, balanceCache.estatisticas().hitCount());
+    }
+
+    @Test
+    void obterSaldo_AposDebito_DeveRetornarSaldoAtualizadoSemConsultarBanco() {
+        when(cartaoRepository.findByNumeroCartao(cartaoDto.getNumeroCartao())).thenReturn(cartao);
+        when(cartao.getSaldoVO()).thenReturn(cartaoSaldoVO);
+        when(cartaoSaldoVO.getAmount()).thenReturn(new BigDecimal("500.00"));
+        cartaoService.obterSaldo(cartaoDto.getNumeroCartao());
+
+        balanceCache.atualizarAposDebito(cartaoDto.getNumeroCartao(), 40000);
+        // Notificação atrasada de um débito anterior não volta o saldo
+        balanceCache.atualizarAposDebito(cartaoDto.getNumeroCartao(), 45000);
+
+        assertEquals(new BigDecimal("400.00"), cartaoService.obterSaldo(cartaoDto.getNumeroCartao()));
+        verify(cartaoRepository, times(1)).findByNumeroCartao(cartaoDto.getNumeroCartao());
+    }
+
+    @Test
+    void obterSaldo_CartaoDescartadoPeloFiltro_NaoDeveConsultarBanco() {
+        when(cardExistenceFilterProvider.getIfAvailable()).thenReturn(cardExistenceFilter);
+        when(cardExistenceFilter.podeExistir(cartaoDto.getNumeroCartao())).thenReturn(false);
+
+        assertThrows(CartaoNaoEncontradoException.class, () -> cartaoService.obterSaldo(cartaoDto.getNumeroCartao()));
+
+        verifyNoInteractions(cartaoRepository, jdbcTemplate);
+    }
+
+    @Test
+    void obterSaldo_FalsoPositivoDoFiltro_DeveRegistrarInexistente() {
+        when(cardExistenceFilterProvider.getIfAvailable()).thenReturn(cardExistenceFilter);
+        when(cardExistenceFilter.podeExistir(cartaoDto.getNumeroCartao())).thenReturn(true);
+        when(cardExistenceFilter.iniciarConsulta()).thenReturn(7L);
+        when(cartaoRepository.findByNumeroCartao(cartaoDto.getNumeroCartao())).thenReturn(null);
+
+        assertThrows(CartaoNaoEncontradoException.class, () -> cartaoService.obterSaldo(cartaoDto.getNumeroCartao()));
+
+        verify(cardExistenceFilter).registrarInexistente(cartaoDto.getNumeroCartao(), 7L);
+    }
+}
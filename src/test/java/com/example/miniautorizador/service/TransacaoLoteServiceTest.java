@@ -0,0 +1,104 @@
+package com.example.miniautorizador.service;
+
+import com.example.miniautorizador.dto.ResultadoTransacaoDto;
+import com.example.miniautorizador.dto.TransacaoDto;
+import com.example.miniautorizador.enums.AutorizacaoErro;
+import com.example.miniautorizador.exception.GlobalExceptionHandler;
+import com.example.miniautorizador.exception.LoteExcedidoException;
+import com.example.miniautorizador.service.authorization.ResultadoAutorizacao;
+import com.example.miniautorizador.service.engine.AuthorizationEngine;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+
+import javax.validation.Validation;
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class TransacaoLoteServiceTest {
+
+    @Mock
+    private AuthorizationEngine authorizationEngine;
+
+    private TransacaoLoteService transacaoLoteService;
+
+    @BeforeEach
+    void setUp() {
+        transacaoLoteService = new TransacaoLoteService(authorizationEngine,
+                Validation.buildDefaultValidatorFactory().getValidator(), 3, 4);
+        lenient().when(authorizationEngine.processarTransacao(any())).thenReturn(ResultadoAutorizacao.APROVADA);
+    }
+
+    @AfterEach
+    void tearDown() {
+        transacaoLoteService.encerrar();
+    }
+
+    private TransacaoDto transacao(String numeroCartao, String senha, String valor) {
+        return new TransacaoDto(numeroCartao, senha, new BigDecimal(valor));
+    }
+
+    @Test
+    void processarLote_DeveRetornarResultadoPorItemNaOrdemDoLote() {
+        TransacaoDto aprovada = transacao("1111222233334444", "1234", "10.00");
+        TransacaoDto semSaldo = transacao("5555666677778888", "1234", "999.00");
+        TransacaoDto senhaInvalida = transacao("1111222233334444", "12", "10.00");
+        when(authorizationEngine.processarTransacao(semSaldo))
+                .thenReturn(ResultadoAutorizacao.recusada(AutorizacaoErro.SALDO_INSUFICIENTE));
+
+        List<ResultadoTransacaoDto> resultados = transacaoLoteService.processarLote(
+                Arrays.asList(aprovada, semSaldo, senhaInvalida));
+
+        assertEquals(3, resultados.size());
+        assertEquals(new ResultadoTransacaoDto("1111222233334444", 201, "OK"), resultados.get(0));
+        assertEquals(new ResultadoTransacaoDto("5555666677778888", 422, "SALDO_INSUFICIENTE"), resultados.get(1));
+        assertEquals(new ResultadoTransacaoDto("1111222233334444", 422, "SENHA_INVALIDA"), resultados.get(2));
+        verify(authorizationEngine, never()).processarTransacao(senhaInvalida);
+    }
+
+    @Test
+    void processarLote_MesmoCartao_DeveManterOrdem() {
+        TransacaoDto primeira = transacao("1111222233334444", "1234", "1.00");
+        TransacaoDto segunda = transacao("1111222233334444", "1234", "2.00");
+        TransacaoDto terceira = transacao("1111222233334444", "1234", "3.00");
+
+        transacaoLoteService.processarLote(Arrays.asList(primeira, segunda, terceira));
+
+        InOrder ordem = inOrder(authorizationEngine);
+        ordem.verify(authorizationEngine).processarTransacao(primeira);
+        ordem.verify(authorizationEngine).processarTransacao(segunda);
+        ordem.verify(authorizationEngine).processarTransacao(terceira);
+    }
+
+    @Test
+    void processarLote_ConflitoPersistente_DeveTerAMesmaMensagemDoPostUnitario() {
+        TransacaoDto conflito = transacao("1111222233334444", "1234", "10.00");
+        when(authorizationEngine.processarTransacao(conflito))
+                .thenThrow(new ObjectOptimisticLockingFailureException("Cartao", 1L));
+
+        List<ResultadoTransacaoDto> resultados = transacaoLoteService.processarLote(Collections.singletonList(conflito));
+
+        assertEquals(new ResultadoTransacaoDto("1111222233334444", 409, GlobalExceptionHandler.MENSAGEM_CONFLITO),
+                resultados.get(0));
+    }
+
+    @Test
+    void processarLote_AcimaDoMaximo_DeveLancarExcecao() {
+        List<TransacaoDto> lote = Collections.nCopies(4, transacao("1111222233334444", "1234", "1.00"));
+
+        assertThrows(LoteExcedidoException.class, () -> transacaoLoteService.processarLote(lote));
+        verifyNoInteractions(authorizationEngine);
+    }
+}
@@ -1,21 +1,25 @@
 package com.example.miniautorizador.service;
 
+import com.example.miniautorizador.cache.BalanceCache;
+import com.example.miniautorizador.domain.Cents;
 import com.example.miniautorizador.dto.TransacaoDto;
 import com.example.miniautorizador.enums.AutorizacaoErro;
-import com.example.miniautorizador.exception.TransacaoNaoAutorizadaException;
 import com.example.miniautorizador.model.Cartao;
 import com.example.miniautorizador.repository.CartaoRepository;
-import com.example.miniautorizador.service.authorization.AuthorizationChainFactory;
+import com.example.miniautorizador.service.authorization.AuthorizationChain;
 import com.example.miniautorizador.service.authorization.AuthorizationRule;
+import com.example.miniautorizador.service.authorization.ResultadoAutorizacao;
+import com.example.miniautorizador.service.debit.OptimisticDebitStrategy;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.util.Collections;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -28,12 +32,8 @@ public class TransacaoServiceTest {
     private CartaoRepository cartaoRepository;
 
     @Mock
-    private AuthorizationChainFactory authorizationChainFactory;
+    private AuthorizationRule authorizationRule;
 
-    @Mock
-    private AuthorizationRule authorizationChain;
-
-    @InjectMocks
     private TransacaoService transacaoService;
 
     private Cartao cartao;
@@ -41,6 +41,11 @@ public class TransacaoServiceTest {
 
     @BeforeEach
     void setUp() {
+        AuthorizationChain authorizationChain = new AuthorizationChain(
+                Collections.singletonList(authorizationRule), new SimpleMeterRegistry());
+        transacaoService = new TransacaoService(authorizationChain, new OptimisticDebitStrategy(cartaoRepository),
+                new BalanceCache(true, 100, 60, new SimpleMeterRegistry()));
+
         cartao = Cartao.builder()
                 .id(1L)
                 .numeroCartao("1234567890123456")
@@ -53,46 +58,43 @@ public class TransacaoServiceTest {
                 .senhaCartao("1234")
                 .valor(new BigDecimal("100.00"))
                 .build();
-
-        when(authorizationChainFactory.createDefaultChain()).thenReturn(authorizationChain);
     }
 
     @Test
     void processarTransacao_Sucesso_DeveDebitarValorCorretamente() {
         when(cartaoRepository.findByNumeroCartao(transacaoDto.getNumeroCartao())).thenReturn(cartao);
-        doNothing().when(authorizationChain).authorize(transacaoDto, cartao);
+        when(authorizationRule.authorize(transacaoDto, Cents.of(transacaoDto.getValor()), cartao)).thenReturn(ResultadoAutorizacao.APROVADA);
 
-        transacaoService.processarTransacao(transacaoDto);
+        ResultadoAutorizacao resultado = transacaoService.processarTransacao(transacaoDto, Cents.of(transacaoDto.getValor()));
 
         verify(cartaoRepository).findByNumeroCartao(transacaoDto.getNumeroCartao());
-        verify(authorizationChain).authorize(transacaoDto, cartao);
+        verify(authorizationRule).authorize(transacaoDto, Cents.of(transacaoDto.getValor()), cartao);
         verify(cartaoRepository).save(cartao);
         
         assertEquals(new BigDecimal("400.00").setScale(2, RoundingMode.HALF_EVEN), cartao.getSaldo());
+        assertTrue(resultado.isAprovada());
+        assertEquals(40000, resultado.getSaldoCentavos());
     }
 
     @Test
-    void processarTransacao_CartaoInexistente_DeveLancarExcecao() {
+    void processarTransacao_CartaoInexistente_DeveRetornarRecusa() {
         when(cartaoRepository.findByNumeroCartao(transacaoDto.getNumeroCartao())).thenReturn(null);
         
-        doThrow(new TransacaoNaoAutorizadaException("Cartão inexistente", AutorizacaoErro.CARTAO_INEXISTENTE))
-            .when(authorizationChain).authorize(transacaoDto, null);
+        when(authorizationRule.authorize(transacaoDto, Cents.of(transacaoDto.getValor()), null))
+            .thenReturn(ResultadoAutorizacao.recusada(AutorizacaoErro.CARTAO_INEXISTENTE));
 
-        TransacaoNaoAutorizadaException exception = assertThrows(
-                TransacaoNaoAutorizadaException.class,
-                () -> transacaoService.processarTransacao(transacaoDto)
-        );
+        ResultadoAutorizacao resultado = transacaoService.processarTransacao(transacaoDto, Cents.of(transacaoDto.getValor()));
 
         verify(cartaoRepository).findByNumeroCartao(transacaoDto.getNumeroCartao());
-        verify(authorizationChain).authorize(transacaoDto, null);
+        verify(authorizationRule).authorize(transacaoDto, Cents.of(transacaoDto.getValor()), null);
         verify(cartaoRepository, never()).save(any(Cartao.class));
         
-        assertEquals("Cartão inexistente", exception.getMessage());
-        assertEquals(AutorizacaoErro.CARTAO_INEXISTENTE, exception.getErro());
+        assertFalse(resultado.isAprovada());
+        assertSame(ResultadoAutorizacao.recusada(AutorizacaoErro.CARTAO_INEXISTENTE), resultado);
     }
 
     @Test
-    void processarTransacao_SenhaInvalida_DeveLancarExcecao() {
+    void processarTransacao_SenhaInvalida_DeveRetornarRecusa() {
         TransacaoDto transacaoComSenhaInvalida = TransacaoDto.builder()
                 .numeroCartao("1234567890123456")
                 .senhaCartao("4321") // senha invalida
@@ -101,24 +103,21 @@ public class TransacaoServiceTest {
 
         when(cartaoRepository.findByNumeroCartao(transacaoComSenhaInvalida.getNumeroCartao())).thenReturn(cartao);
         
-        doThrow(new TransacaoNaoAutorizadaException("Senha inválida", AutorizacaoErro.SENHA_INVALIDA))
-            .when(authorizationChain).authorize(transacaoComSenhaInvalida, cartao);
+        when(authorizationRule.authorize(transacaoComSenhaInvalida, Cents.of(transacaoComSenhaInvalida.getValor()), cartao))
+            .thenReturn(ResultadoAutorizacao.recusada(AutorizacaoErro.SENHA_INVALIDA));
 
-        TransacaoNaoAutorizadaException exception = assertThrows(
-                TransacaoNaoAutorizadaException.class,
-                () -> transacaoService.processarTransacao(transacaoComSenhaInvalida)
-        );
+        ResultadoAutorizacao resultado = transacaoService.processarTransacao(transacaoComSenhaInvalida, Cents.of(transacaoComSenhaInvalida.getValor()));
 
         verify(cartaoRepository).findByNumeroCartao(transacaoComSenhaInvalida.getNumeroCartao());
-        verify(authorizationChain).authorize(transacaoComSenhaInvalida, cartao);
+        verify(authorizationRule).authorize(transacaoComSenhaInvalida, Cents.of(transacaoComSenhaInvalida.getValor()), cartao);
         verify(cartaoRepository, never()).save(any(Cartao.class));
         
-        assertEquals("Senha inválida", exception.getMessage());
-        assertEquals(AutorizacaoErro.SENHA_INVALIDA, exception.getErro());
+        assertFalse(resultado.isAprovada());
+        assertSame(ResultadoAutorizacao.recusada(AutorizacaoErro.SENHA_INVALIDA), resultado);
     }
 
     @Test
-    void processarTransacao_SaldoInsuficiente_DeveLancarExcecao() {
+    void processarTransacao_SaldoInsuficiente_DeveRetornarRecusa() {
         TransacaoDto transacaoComValorAlto = TransacaoDto.builder()
                 .numeroCartao("1234567890123456")
                 .senhaCartao("1234")
@@ -127,19 +126,16 @@ public class TransacaoServiceTest {
 
         when(cartaoRepository.findByNumeroCartao(transacaoComValorAlto.getNumeroCartao())).thenReturn(cartao);
         
-        doThrow(new TransacaoNaoAutorizadaException("Saldo insuficiente", AutorizacaoErro.SALDO_INSUFICIENTE))
-            .when(authorizationChain).authorize(transacaoComValorAlto, cartao);
+        when(authorizationRule.authorize(transacaoComValorAlto, Cents.of(transacaoComValorAlto.getValor()), cartao))
+            .thenReturn(ResultadoAutorizacao.recusada(AutorizacaoErro.SALDO_INSUFICIENTE));
 
-        TransacaoNaoAutorizadaException exception = assertThrows(
-                TransacaoNaoAutorizadaException.class,
-                () -> transacaoService.processarTransacao(transacaoComValorAlto)
-        );
+        ResultadoAutorizacao resultado = transacaoService.processarTransacao(transacaoComValorAlto, Cents.of(transacaoComValorAlto.getValor()));
 
         verify(cartaoRepository).findByNumeroCartao(transacaoComValorAlto.getNumeroCartao());
-        verify(authorizationChain).authorize(transacaoComValorAlto, cartao);
+        verify(authorizationRule).authorize(transacaoComValorAlto, Cents.of(transacaoComValorAlto.getValor()), cartao);
         verify(cartaoRepository, never()).save(any(Cartao.class));
         
-        assertEquals("Saldo insuficiente", exception.getMessage());
-        assertEquals(AutorizacaoErro.SALDO_INSUFICIENTE, exception.getErro());
+        assertFalse(resultado.isAprovada());
+        assertSame(ResultadoAutorizacao.recusada(AutorizacaoErro.SALDO_INSUFICIENTE), resultado);
     }
 }
\ No newline at end of file
@@ -0,0 +1,61 @@
+package com.example.miniautorizador.service.authorization;
+
+import com.example.miniautorizador.dto.TransacaoDto;
+import com.example.miniautorizador.enums.AutorizacaoErro;
+import com.example.miniautorizador.model.Cartao;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class AuthorizationChainTest {
+
+    @Mock
+    private AuthorizationRule primeira;
+
+    @Mock
+    private AuthorizationRule segunda;
+
+    @Mock
+    private AuthorizationRule terceira;
+
+    private final TransacaoDto transacaoDto = new TransacaoDto("1234567890123456", "1234", new BigDecimal("10.00"));
+    private final Cartao cartao = Cartao.builder().numeroCartao("1234567890123456").build();
+
+    @Test
+    void authorize_TodasAprovam_DeveAplicarRegrasNaOrdem() {
+        when(primeira.authorize(transacaoDto, 1000, cartao)).thenReturn(ResultadoAutorizacao.APROVADA);
+        when(segunda.authorize(transacaoDto, 1000, cartao)).thenReturn(ResultadoAutorizacao.APROVADA);
+        when(terceira.authorize(transacaoDto, 1000, cartao)).thenReturn(ResultadoAutorizacao.APROVADA);
+        AuthorizationChain chain = new AuthorizationChain(Arrays.asList(primeira, segunda, terceira),
+                new SimpleMeterRegistry());
+
+        assertSame(ResultadoAutorizacao.APROVADA, chain.authorize(transacaoDto, 1000, cartao));
+
+        InOrder ordem = inOrder(primeira, segunda, terceira);
+        ordem.verify(primeira).authorize(transacaoDto, 1000, cartao);
+        ordem.verify(segunda).authorize(transacaoDto, 1000, cartao);
+        ordem.verify(terceira).authorize(transacaoDto, 1000, cartao);
+    }
+
+    @Test
+    void authorize_Recusa_DeveInterromperCadeia() {
+        ResultadoAutorizacao recusa = ResultadoAutorizacao.recusada(AutorizacaoErro.SENHA_INVALIDA);
+        when(primeira.authorize(transacaoDto, 1000, cartao)).thenReturn(ResultadoAutorizacao.APROVADA);
+        when(segunda.authorize(transacaoDto, 1000, cartao)).thenReturn(recusa);
+        AuthorizationChain chain = new AuthorizationChain(Arrays.asList(primeira, segunda, terceira),
+                new SimpleMeterRegistry());
+
+        assertSame(recusa, chain.authorize(transacaoDto, 1000, cartao));
+        verifyNoInteractions(terceira);
+    }
+}
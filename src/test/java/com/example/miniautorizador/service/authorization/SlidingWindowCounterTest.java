@@ -0,0 +1,98 @@
+package com.example.miniautorizador.service.authorization;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SlidingWindowCounterTest {
+
+    private static final long INICIO = 1_700_000_000_000L;
+
+    @Test
+    void tentarAdicionar_DeveRecusarAcimaDoLimite() {
+        SlidingWindowCounter contador = new SlidingWindowCounter(60_000, 60);
+
+        assertTrue(contador.tentarAdicionar(INICIO, 3, 5));
+        assertTrue(contador.tentarAdicionar(INICIO + 1_500, 2, 5));
+        assertFalse(contador.tentarAdicionar(INICIO + 2_000, 1, 5));
+        assertEquals(5, contador.total(INICIO + 2_000));
+    }
+
+    @Test
+    void tentarAdicionar_ValoresForaDaJanela_NaoDevemContar() {
+        SlidingWindowCounter contador = new SlidingWindowCounter(60_000, 60);
+        assertTrue(contador.tentarAdicionar(INICIO, 5, 5));
+
+        assertFalse(contador.tentarAdicionar(INICIO + 59_000, 1, 5));
+        assertTrue(contador.tentarAdicionar(INICIO + 60_000, 1, 5));
+        assertEquals(1, contador.total(INICIO + 60_000));
+
+        // O balde do primeiro valor é reaproveitado uma volta inteira do anel depois
+        assertEquals(0, contador.total(INICIO + 200_000));
+        assertTrue(contador.tentarAdicionar(INICIO + 240_000, 5, 5));
+    }
+
+    @Test
+    void devolver_DeveSubtrairDoBaldeAtualEDosAnteriores() {
+        SlidingWindowCounter contador = new SlidingWindowCounter(60_000, 60);
+        assertTrue(contador.tentarAdicionar(INICIO, 3, 5));
+        assertTrue(contador.tentarAdicionar(INICIO + 1_000, 2, 5));
+
+        contador.devolver(INICIO + 1_000, 4);
+
+        assertEquals(1, contador.total(INICIO + 1_000));
+        assertTrue(contador.tentarAdicionar(INICIO + 1_000, 4, 5));
+        contador.devolver(INICIO + 1_000, 100);
+        assertEquals(0, contador.total(INICIO + 1_000));
+    }
+
+    @Test
+    void tentarAdicionar_ValorMaiorQueOLimite_NaoDeveTransbordar() {
+        SlidingWindowCounter contador = new SlidingWindowCounter(60_000, 60);
+        assertTrue(contador.tentarAdicionar(INICIO, 10, Long.MAX_VALUE));
+
+        assertFalse(contador.tentarAdicionar(INICIO, Long.MAX_VALUE, Long.MAX_VALUE));
+        assertEquals(10, contador.total(INICIO));
+    }
+
+    @Test
+    void tentarAdicionar_Concorrente_NaoDeveUltrapassarOLimite() throws Exception {
+        SlidingWindowCounter contador = new SlidingWindowCounter(60_000, 60);
+        int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch largada = new CountDownLatch(1);
+        List<Future<Integer>> aceitos = new ArrayList<>();
+        try {
+            for (int t = 0; t < threads; t++) {
+                aceitos.add(executor.submit(() -> {
+                    largada.await();
+                    int total = 0;
+                    for (int i = 0; i < 1_000; i++) {
+                        if (contador.tentarAdicionar(INICIO, 1, 500)) {
+                            total++;
+                        }
+                    }
+                    return total;
+                }));
+            }
+            largada.countDown();
+
+            int soma = 0;
+            for (Future<Integer> aceito : aceitos) {
+                soma += aceito.get(10, TimeUnit.SECONDS);
+            }
+            assertEquals(500, soma);
+            assertEquals(500, contador.total(INICIO));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
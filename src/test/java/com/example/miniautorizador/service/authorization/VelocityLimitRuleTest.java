@@ -0,0 +1,65 @@
+package com.example.miniautorizador.service.authorization;
+
+import com.example.miniautorizador.dto.TransacaoDto;
+import com.example.miniautorizador.enums.AutorizacaoErro;
+import com.example.miniautorizador.model.Cartao;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class VelocityLimitRuleTest {
+
+    private final AtomicLong relogio = new AtomicLong(1_700_000_000_000L);
+    private final Cartao cartaoA = Cartao.builder().numeroCartao("1111222233334444").build();
+    private final Cartao cartaoB = Cartao.builder().numeroCartao("5555666677778888").build();
+
+    private TransacaoDto transacao(Cartao cartao) {
+        return TransacaoDto.builder().numeroCartao(cartao.getNumeroCartao()).senhaCartao("1234").build();
+    }
+
+    @Test
+    void quantidade_AcimaDoLimite_DeveRecusarApenasOCartao() {
+        TransactionCountLimitRule regra = new TransactionCountLimitRule(2, 60, 1000, relogio::get);
+
+        assertTrue(regra.authorize(transacao(cartaoA), 100, cartaoA).isAprovada());
+        assertTrue(regra.authorize(transacao(cartaoA), 100, cartaoA).isAprovada());
+        assertSame(ResultadoAutorizacao.recusada(AutorizacaoErro.LIMITE_TRANSACOES_EXCEDIDO),
+                regra.authorize(transacao(cartaoA), 100, cartaoA));
+        assertTrue(regra.authorize(transacao(cartaoB), 100, cartaoB).isAprovada());
+
+        relogio.addAndGet(60_000);
+        assertTrue(regra.authorize(transacao(cartaoA), 100, cartaoA).isAprovada());
+    }
+
+    @Test
+    void desfazer_RecusaDeRegraSeguinte_DeveDevolverAReserva() {
+        TransactionCountLimitRule quantidade = new TransactionCountLimitRule(5, 60, 1000, relogio::get);
+        AmountLimitRule valor = new AmountLimitRule(new BigDecimal("100.00"), 3600, 1000, relogio::get);
+        AuthorizationChain chain = new AuthorizationChain(Arrays.asList(quantidade, valor), new SimpleMeterRegistry());
+
+        assertTrue(chain.authorize(transacao(cartaoA), 6000, cartaoA).isAprovada());
+        assertSame(ResultadoAutorizacao.recusada(AutorizacaoErro.LIMITE_VALOR_EXCEDIDO),
+                chain.authorize(transacao(cartaoA), 5000, cartaoA));
+        assertEquals(1, quantidade.total(cartaoA.getNumeroCartao()));
+
+        chain.desfazer(transacao(cartaoA), 6000);
+        assertEquals(0, quantidade.total(cartaoA.getNumeroCartao()));
+        assertEquals(0, valor.total(cartaoA.getNumeroCartao()));
+    }
+
+    @Test
+    void valor_AcimaDoLimite_DeveRecusar() {
+        AmountLimitRule regra = new AmountLimitRule(new BigDecimal("100.00"), 3600, 1000, relogio::get);
+
+        assertTrue(regra.authorize(transacao(cartaoA), 6000, cartaoA).isAprovada());
+        assertSame(ResultadoAutorizacao.recusada(AutorizacaoErro.LIMITE_VALOR_EXCEDIDO),
+                regra.authorize(transacao(cartaoA), 4001, cartaoA));
+        assertTrue(regra.authorize(transacao(cartaoA), 4000, cartaoA).isAprovada());
+        assertEquals(10000, regra.total(cartaoA.getNumeroCartao()));
+    }
+}
@@ -0,0 +1,27 @@
+package com.example.miniautorizador.service.concurrency;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class StripedCardLockTest {
+
+    @Test
+    void quantidadeFaixas_DeveSerArredondadaParaPotenciaDeDois() {
+        assertEquals(1, new StripedCardLock(1).quantidadeFaixas());
+        assertEquals(8, new StripedCardLock(5).quantidadeFaixas());
+        assertEquals(1024, new StripedCardLock(1024).quantidadeFaixas());
+    }
+
+    @Test
+    void lockFor_MesmoCartao_DeveRetornarMesmoLock() {
+        StripedCardLock stripedCardLock = new StripedCardLock(64);
+
+        assertSame(stripedCardLock.lockFor("1234567890123456"), stripedCardLock.lockFor(new String("1234567890123456")));
+    }
+
+    @Test
+    void construtor_QuantidadeInvalida_DeveLancarExcecao() {
+        assertThrows(IllegalArgumentException.class, () -> new StripedCardLock(0));
+    }
+}
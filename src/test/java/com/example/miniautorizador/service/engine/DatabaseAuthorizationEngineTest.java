@@ -0,0 +1,56 @@
+package com.example.miniautorizador.service.engine;
+
+import com.example.miniautorizador.cache.CardExistenceFilter;
+import com.example.miniautorizador.dto.TransacaoDto;
+import com.example.miniautorizador.service.TransacaoService;
+import com.example.miniautorizador.service.authorization.ResultadoAutorizacao;
+import com.example.miniautorizador.service.journal.TransactionJournal;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class DatabaseAuthorizationEngineTest {
+
+    @Mock
+    private TransacaoService transacaoService;
+
+    @Mock
+    private TransactionJournal transactionJournal;
+
+    @Mock
+    private ObjectProvider<CardExistenceFilter> cardExistenceFilter;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private DatabaseAuthorizationEngine engine;
+
+    @BeforeEach
+    void setUp() {
+        engine = new DatabaseAuthorizationEngine(transacaoService, transactionJournal, cardExistenceFilter,
+                meterRegistry);
+    }
+
+    @Test
+    void processarTransacao_FalhaDoJournalAposOCommit_DeveDevolverOResultadoConfirmado() {
+        TransacaoDto transacaoDto = new TransacaoDto("1234567890123456", "1234", new BigDecimal("10.00"));
+        when(transacaoService.processarTransacao(any(), eq(1000L))).thenReturn(ResultadoAutorizacao.aprovada(49000));
+        doThrow(new IllegalStateException("Journal encerrado")).when(transactionJournal).registrar(any());
+
+        ResultadoAutorizacao resultado = engine.processarTransacao(transacaoDto);
+
+        assertTrue(resultado.isAprovada());
+        assertEquals(49000, resultado.getSaldoCentavos());
+        assertEquals(1, meterRegistry.counter("journal.registro.falhas").count());
+    }
+}
@@ -0,0 +1,181 @@
+package com.example.miniautorizador.service.journal;
+
+import com.example.miniautorizador.enums.AutorizacaoErro;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MappedTransactionJournalTest {
+
+    @TempDir
+    Path diretorio;
+
+    private MappedTransactionJournal abrir(boolean aguardar) {
+        return new MappedTransactionJournal(diretorio.toString(), 1, 1, aguardar, "", new SimpleMeterRegistry());
+    }
+
+    private List<JournalEntry> lerTudo() throws IOException {
+        List<JournalEntry> registros = new ArrayList<>();
+        new JournalReader(diretorio, tokenizer()).ler(0, registros::add);
+        return registros;
+    }
+
+    private CardTokenizer tokenizer() throws IOException {
+        return CardTokenizer.of("", diretorio);
+    }
+
+    @Test
+    void registrar_AprovacaoERecusa_DevemSerLidasNaOrdem() throws Exception {
+        MappedTransactionJournal journal = abrir(true);
+        journal.registrar(JournalEntry.aprovada("1234567890123456", 1000, 49000));
+        journal.registrar(JournalEntry.recusada("1234567890123456", 99900, AutorizacaoErro.SALDO_INSUFICIENTE, 49000));
+        journal.registrar(JournalEntry.recusada("9999", 100, AutorizacaoErro.CARTAO_INEXISTENTE,
+                JournalEntry.SALDO_DESCONHECIDO));
+        journal.encerrar();
+
+        List<JournalEntry> registros = lerTudo();
+
+        assertEquals(3, registros.size());
+        assertTrue(registros.get(0).isAprovada());
+        assertEquals(tokenizer().tokenizar("1234567890123456"), registros.get(0).getTokenCartao());
+        assertNotEquals(tokenizer().tokenizar("9999"), registros.get(0).getTokenCartao());
+        assertNull(registros.get(0).getNumeroCartao());
+        assertEquals(1000, registros.get(0).getValorCentavos());
+        assertEquals(49000, registros.get(0).getSaldoResultanteCentavos());
+        assertEquals(AutorizacaoErro.SALDO_INSUFICIENTE, registros.get(1).getResultado());
+        assertEquals(AutorizacaoErro.CARTAO_INEXISTENTE, registros.get(2).getResultado());
+        assertEquals(JournalEntry.SALDO_DESCONHECIDO, registros.get(2).getSaldoResultanteCentavos());
+    }
+
+    @Test
+    void registrar_ConflitoEErro_DevemSerLidosComoFalhas() throws Exception {
+        MappedTransactionJournal journal = abrir(true);
+        journal.registrar(JournalEntry.falha("1234567890123456", 1000, JournalEntry.Falha.CONFLITO));
+        journal.registrar(JournalEntry.falha("1234567890123456", 2000, JournalEntry.Falha.ERRO));
+        journal.registrar(JournalEntry.aprovada("1234567890123456", 1000, 49000));
+        journal.encerrar();
+
+        List<JournalEntry> registros = lerTudo();
+
+        assertEquals(3, registros.size());
+        assertFalse(registros.get(0).isAprovada());
+        assertNull(registros.get(0).getResultado());
+        assertEquals(JournalEntry.Falha.CONFLITO, registros.get(0).getFalha());
+        assertEquals(JournalEntry.Falha.ERRO, registros.get(1).getFalha());
+        assertEquals(2000, registros.get(1).getValorCentavos());
+        assertEquals(JournalEntry.SALDO_DESCONHECIDO, registros.get(1).getSaldoResultanteCentavos());
+        assertTrue(registros.get(2).isAprovada());
+        assertNull(registros.get(2).getFalha());
+    }
+
+    @Test
+    void registrar_AlemDoTamanhoDoSegmento_DeveAbrirNovoSegmento() throws Exception {
+        MappedTransactionJournal journal = abrir(false);
+        int quantidade = 30_000;
+        for (int i = 0; i < quantidade; i++) {
+            journal.registrar(JournalEntry.aprovada("1234567890123456", 1, quantidade - i));
+        }
+        journal.encerrar();
+
+        try (Stream<Path> arquivos = Files.list(diretorio)) {
+            assertTrue(arquivos.filter(arquivo -> JournalSegment.base(arquivo) >= 0).count() > 1);
+        }
+        List<JournalEntry> registros = lerTudo();
+        assertEquals(quantidade, registros.size());
+        assertEquals(1, registros.get(quantidade - 1).getSaldoResultanteCentavos());
+    }
+
+    @Test
+    void reabrir_DeveContinuarAposUltimoRegistro() throws Exception {
+        MappedTransactionJournal journal = abrir(true);
+        journal.registrar(JournalEntry.aprovada("1111", 100, 900));
+        long posicao = journal.posicao();
+        journal.encerrar();
+
+        MappedTransactionJournal reaberto = abrir(true);
+        assertEquals(posicao, reaberto.posicao());
+        reaberto.registrar(JournalEntry.aprovada("1111", 100, 800));
+        reaberto.encerrar();
+
+        List<JournalEntry> registros = lerTudo();
+        assertEquals(2, registros.size());
+        assertEquals(800, registros.get(1).getSaldoResultanteCentavos());
+    }
+
+    @Test
+    void ler_RegistroCorrompido_DevePararNoUltimoRegistroValido() throws Exception {
+        MappedTransactionJournal journal = abrir(true);
+        journal.registrar(JournalEntry.aprovada("1111", 100, 900));
+        long fimPrimeiro = journal.posicao();
+        journal.registrar(JournalEntry.aprovada("1111", 100, 800));
+        journal.encerrar();
+
+        Path segmento;
+        try (Stream<Path> arquivos = Files.list(diretorio)) {
+            segmento = arquivos.filter(arquivo -> JournalSegment.base(arquivo) >= 0).findFirst()
+                    .orElseThrow(IllegalStateException::new);
+        }
+        try (FileChannel channel = FileChannel.open(segmento, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[]{0x7F}), fimPrimeiro + 10);
+        }
+
+        List<JournalEntry> registros = lerTudo();
+        assertEquals(1, registros.size());
+        assertEquals(fimPrimeiro, abrir(false).posicao());
+    }
+
+    @Test
+    void registrar_NaoDeveGravarONumeroDoCartaoEmTexto() throws Exception {
+        MappedTransactionJournal journal = abrir(true);
+        journal.registrar(JournalEntry.aprovada("1234567890123456", 1000, 49000));
+        journal.encerrar();
+
+        byte[] numero = "1234567890123456".getBytes(StandardCharsets.UTF_8);
+        try (Stream<Path> arquivos = Files.list(diretorio)) {
+            for (Path arquivo : (Iterable<Path>) arquivos::iterator) {
+                assertFalse(contem(Files.readAllBytes(arquivo), numero), arquivo.toString());
+            }
+        }
+    }
+
+    @Test
+    void abrir_ComChaveConfigurada_NaoDeveCriarArquivoDeChave() throws Exception {
+        String chave = Base64.getEncoder().encodeToString(new byte[32]);
+        MappedTransactionJournal journal = new MappedTransactionJournal(diretorio.toString(), 1, 1, true, chave,
+                new SimpleMeterRegistry());
+        journal.registrar(JournalEntry.aprovada("1234567890123456", 1000, 49000));
+        journal.encerrar();
+
+        assertFalse(Files.exists(diretorio.resolve(CardTokenizer.ARQUIVO_CHAVE)));
+        List<JournalEntry> registros = new ArrayList<>();
+        new JournalReader(diretorio, journal.getTokenizer()).ler(0, registros::add);
+        assertEquals(journal.getTokenizer().tokenizar("1234567890123456"), registros.get(0).getTokenCartao());
+    }
+
+    private static boolean contem(byte[] conteudo, byte[] trecho) {
+        for (int i = 0; i + trecho.length <= conteudo.length; i++) {
+            int j = 0;
+            while (j < trecho.length && conteudo[i + j] == trecho[j]) {
+                j++;
+            }
+            if (j == trecho.length) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
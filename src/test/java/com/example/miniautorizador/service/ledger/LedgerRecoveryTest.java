@@ -0,0 +1,141 @@
+package com.example.miniautorizador.service.ledger;
+
+import com.example.miniautorizador.domain.CardNumberKey;
+import com.example.miniautorizador.enums.AutorizacaoErro;
+import com.example.miniautorizador.service.journal.JournalEntry;
+import com.example.miniautorizador.service.journal.MappedTransactionJournal;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.ResultSet;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+public class LedgerRecoveryTest {
+
+    private static final String CARTAO_A = "1111222233334444";
+    private static final String CARTAO_B = "5555666677778888";
+
+    @TempDir
+    Path diretorio;
+
+    private MappedTransactionJournal journal;
+    private BalanceSnapshotStore snapshotStore;
+    private JdbcTemplate jdbcTemplate;
+    private BalanceWriteBehind balanceWriteBehind;
+    private LedgerRecovery ledgerRecovery;
+
+    @BeforeEach
+    void setUp() {
+        journal = new MappedTransactionJournal(diretorio.resolve("journal").toString(), 1, 1, true, "",
+                new SimpleMeterRegistry());
+        snapshotStore = new BalanceSnapshotStore(diretorio.resolve("snapshot").toString());
+        jdbcTemplate = mock(JdbcTemplate.class);
+        balanceWriteBehind = mock(BalanceWriteBehind.class);
+        when(jdbcTemplate.queryForObject(anyString(), eq(Long.class))).thenReturn(2L);
+        ledgerRecovery = new LedgerRecovery(snapshotStore, journal, jdbcTemplate, balanceWriteBehind, 4,
+                new SimpleMeterRegistry());
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        journal.encerrar();
+    }
+
+    @Test
+    void recuperar_DeveReaplicarJournalPosteriorAoSnapshot() throws Exception {
+        journal.registrar(JournalEntry.aprovada(CARTAO_A, 1000, 49000));
+        LedgerAccount contaA = new LedgerAccount(CARTAO_A, "hashA", 49000);
+        LedgerAccount contaB = new LedgerAccount(CARTAO_B, "hashB", 30000);
+        snapshotStore.gravar(journal.posicao(), 2, Arrays.asList(contaA, contaB));
+
+        // Débitos concorrentes podem ser registrados fora da ordem do CAS
+        journal.registrar(JournalEntry.aprovada(CARTAO_A, 1000, 47000));
+        journal.registrar(JournalEntry.aprovada(CARTAO_A, 1000, 48000));
+        journal.registrar(JournalEntry.recusada(CARTAO_B, 99900, AutorizacaoErro.SALDO_INSUFICIENTE, 30000));
+        journal.registrar(JournalEntry.aprovada(CARTAO_B, 1000, 29000));
+
+        Map<CardNumberKey, LedgerAccount> contas = new ConcurrentHashMap<>();
+        LedgerRecovery.Relatorio relatorio = ledgerRecovery.recuperar(contas);
+
+        assertEquals(47000, contas.get(CardNumberKey.of(CARTAO_A)).getSaldoCentavos());
+        assertEquals(29000, contas.get(CardNumberKey.of(CARTAO_B)).getSaldoCentavos());
+        assertEquals("hashA", contas.get(CardNumberKey.of(CARTAO_A)).getSenha());
+        assertTrue(relatorio.isSnapshotUsado());
+        assertEquals(2, relatorio.getContasSnapshot());
+        assertEquals(3, relatorio.getRegistrosReaplicados());
+        assertEquals(2, relatorio.getContasCorrigidas());
+        verify(balanceWriteBehind, atLeastOnce()).marcarAlterada(contas.get(CardNumberKey.of(CARTAO_A)));
+        verify(balanceWriteBehind).marcarAlterada(contas.get(CardNumberKey.of(CARTAO_B)));
+    }
+
+    @Test
+    void recuperar_ReaplicacaoRepetida_DeveSerIdempotente() throws Exception {
+        snapshotStore.gravar(journal.posicao(), 1, Arrays.asList(new LedgerAccount(CARTAO_A, "hashA", 50000)));
+        journal.registrar(JournalEntry.aprovada(CARTAO_A, 1000, 49000));
+
+        Map<CardNumberKey, LedgerAccount> contas = new ConcurrentHashMap<>();
+        ledgerRecovery.recuperar(contas);
+        ledgerRecovery.recuperar(contas);
+
+        assertEquals(49000, contas.get(CardNumberKey.of(CARTAO_A)).getSaldoCentavos());
+    }
+
+    @Test
+    void recuperar_SnapshotCorrompido_DeveCarregarDoBancoEReaplicarTodoJournal() throws Exception {
+        snapshotStore.gravar(0, 1, Arrays.asList(new LedgerAccount(CARTAO_A, "hashA", 50000)));
+        Path arquivo;
+        try (Stream<Path> arquivos = Files.list(diretorio.resolve("snapshot"))) {
+            arquivo = arquivos.findFirst().orElseThrow(IllegalStateException::new);
+        }
+        byte[] conteudo = Files.readAllBytes(arquivo);
+        conteudo[conteudo.length - 1] ^= 0x01;
+        Files.write(arquivo, conteudo);
+
+        LedgerRecovery.Relatorio relatorio = ledgerRecovery.recuperar(new ConcurrentHashMap<>());
+
+        assertFalse(relatorio.isSnapshotUsado());
+        assertEquals(0, relatorio.getPosicaoInicial());
+        verify(jdbcTemplate).query(eq("SELECT numero_cartao, senha, saldo FROM cartoes"),
+                any(RowCallbackHandler.class), (Object[]) any());
+    }
+
+    @Test
+    void recuperar_CartaoDoJournalForaDoSnapshot_DeveSerBuscadoEmTodaATabela() throws Exception {
+        snapshotStore.gravar(journal.posicao(), 1, Arrays.asList(new LedgerAccount(CARTAO_A, "hashA", 50000)));
+        journal.registrar(JournalEntry.aprovada(CARTAO_B, 1000, 29000));
+        doAnswer(invocacao -> {
+            RowCallbackHandler handler = invocacao.getArgument(1);
+            ResultSet rs = mock(ResultSet.class);
+            when(rs.getString(1)).thenReturn(CARTAO_B);
+            when(rs.getString(2)).thenReturn("hashB");
+            when(rs.getBigDecimal(3)).thenReturn(new BigDecimal("300.00"));
+            handler.processRow(rs);
+            return null;
+        }).when(jdbcTemplate).query(eq("SELECT numero_cartao, senha, saldo FROM cartoes"),
+                any(RowCallbackHandler.class), (Object[]) any());
+
+        Map<CardNumberKey, LedgerAccount> contas = new ConcurrentHashMap<>();
+        LedgerRecovery.Relatorio relatorio = ledgerRecovery.recuperar(contas);
+
+        assertEquals(29000, contas.get(CardNumberKey.of(CARTAO_B)).getSaldoCentavos());
+        assertEquals(1, relatorio.getContasCorrigidas());
+        verify(balanceWriteBehind).marcarAlterada(contas.get(CardNumberKey.of(CARTAO_B)));
+    }
+}